@@ -3,6 +3,7 @@ package com.ga.binpacking;
 import com.ga.binpacking.agent.PackingAgent;
 import com.ga.binpacking.algorithm.BinPackingProblem;
 import com.ga.binpacking.algorithm.GeneticBinPacker;
+import com.ga.binpacking.config.ConfigLoader;
 import com.ga.binpacking.model.*;
 
 import java.util.ArrayList;
@@ -55,13 +56,20 @@ public class BinPackingMain {
 
         // Create the genetic algorithm optimizer
         // Parameters: populationSize=150, generations=100, mutation=0.15, crossover=0.7
+        ConfigLoader config = ConfigLoader.load();
         GeneticBinPacker optimizer = new GeneticBinPacker(
                 problem,
                 150, // Population size
                 100, // Max generations
                 0.15, // Mutation rate
                 0.7 // Crossover rate
-        );
+        ).withTermination(config.terminationPolicy());
+        if (config.getBoolean("ga.standard.run.length.encoding", false)) {
+            // (type, count) runs: every unit in stock can be packed, not just 50 per type
+            optimizer.withRunLengthEncoding();
+        } else {
+            optimizer.withHeuristicSeeding(config.getInt("ga.standard.heuristic.seeds", 0));
+        }
 
         // Run the optimization
         GeneticBinPacker.OptimizationResult result = optimizer.optimize();
@@ -0,0 +1,50 @@
+package com.ga.binpacking;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.algorithm.GeneticBinPacker;
+import com.ga.binpacking.algorithm.MigrationTopology;
+import com.ga.binpacking.config.SystemConfig;
+import com.ga.binpacking.distributed.FitnessFarm;
+import com.ga.binpacking.distributed.IslandCoordinator;
+import com.ga.binpacking.model.Bin;
+
+import java.io.IOException;
+
+/**
+ * Runs the default 3D instance across local worker JVMs, either as an
+ * island model or as one population evaluated by a fitness farm
+ *
+ * Usage: DistributedBinPackingMain [islands|farm] [workers] [RING|STAR|RANDOM]
+ */
+public class DistributedBinPackingMain {
+
+    public static void main(String[] args) throws IOException {
+        boolean farm = args.length > 0 && args[0].equals("farm");
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        MigrationTopology topology = args.length > 2 ? MigrationTopology.valueOf(args[2]) : MigrationTopology.RING;
+
+        Bin bin = SystemConfig.createBin();
+        BinPackingProblem problem = new BinPackingProblem(SystemConfig.createItems(), bin);
+
+        GeneticBinPacker.OptimizationResult result;
+        if (farm) {
+            try (FitnessFarm fitnessFarm = new FitnessFarm(problem, workers).start()) {
+                result = new GeneticBinPacker(problem,
+                        SystemConfig.GA_POPULATION_SIZE, SystemConfig.GA_MAX_GENERATIONS,
+                        SystemConfig.GA_MUTATION_RATE, SystemConfig.GA_CROSSOVER_RATE)
+                        .withEvaluator(fitnessFarm)
+                        .optimize();
+                fitnessFarm.health().forEach(System.out::println);
+            }
+        } else {
+            result = new IslandCoordinator(problem,
+                    SystemConfig.GA_POPULATION_SIZE, SystemConfig.GA_MAX_GENERATIONS,
+                    SystemConfig.GA_MUTATION_RATE, SystemConfig.GA_CROSSOVER_RATE)
+                    .withWorkers(workers, 10, 2, topology)
+                    .optimize();
+        }
+
+        System.out.printf("Total Cost: %.2f, Wastage: %d cubic units%n", result.getSolution().getTotalCost(),
+                result.getSolution().getTotalWastage());
+    }
+}
@@ -2,12 +2,15 @@ package com.ga.binpacking;
 
 import com.ga.binpacking.agent.PackingAgent;
 import com.ga.binpacking.algorithm.ImprovedBinPackingProblem;
+import com.ga.binpacking.algorithm.TerminationPolicy;
+import com.ga.binpacking.config.ConfigLoader;
 import com.ga.binpacking.model.*;
 import io.jenetics.*;
 import io.jenetics.engine.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Improved version with better population diversity
@@ -42,6 +45,8 @@ public class ImprovedBinPackingMain {
 
         // Create the improved problem
         ImprovedBinPackingProblem problem = new ImprovedBinPackingProblem(availableItems, inventoryBin);
+        ConfigLoader config = ConfigLoader.load();
+        int seedCount = Math.min(config.getInt("ga.improved.heuristic.seeds", 0), 150);
 
         // Build the GA engine
         System.out.println("========================================");
@@ -52,10 +57,13 @@ public class ImprovedBinPackingMain {
         System.out.println("Max Generations: 100");
         System.out.println("Mutation Rate: 20%");
         System.out.println("Crossover Rate: 65%");
+        System.out.println("Heuristic Seeds: " + seedCount);
         System.out.println("========================================\n");
 
-        Engine<IntegerGene, Double> engine = Engine
-                .builder(problem::fitness, problem.genotypeFactory())
+        // Each generation is evaluated as one batch, packing every distinct
+        // type ranking and strategy once
+        Engine<IntegerGene, Double> engine = new Engine.Builder<>(
+                problem.batchEvaluator(ForkJoinPool.commonPool(), 32), problem.genotypeFactory())
                 .populationSize(150)
                 .maximizing()
                 .alterers(
@@ -64,12 +72,17 @@ public class ImprovedBinPackingMain {
                 .selector(new TournamentSelector<>(5))
                 .build();
 
+        // Seed the first population with heuristic priority rankings
+        List<Genotype<IntegerGene>> seeds = problem.heuristicSeeds(seedCount);
+
         // Run evolution
         System.out.println("Starting evolution...\n");
 
         final long[] generation = { 0 };
+        TerminationPolicy.Termination proceed = config.terminationPolicy().start();
 
-        Phenotype<IntegerGene, Double> best = engine.stream()
+        Phenotype<IntegerGene, Double> best = engine.stream(seeds)
+                .limit(proceed)
                 .limit(100)
                 .peek(result -> {
                     generation[0] = result.generation();
@@ -86,6 +99,10 @@ public class ImprovedBinPackingMain {
                 })
                 .collect(EvolutionResult.toBestPhenotype());
 
+        if (proceed.reason() != null) {
+            System.out.printf("Stopped after generation %d: %s%n", generation[0], proceed.reason());
+        }
+
         System.out.println("\n========================================");
         System.out.println("  Optimization Complete!");
         System.out.println("========================================");
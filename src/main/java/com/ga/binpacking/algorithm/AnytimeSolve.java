@@ -0,0 +1,148 @@
+package com.ga.binpacking.algorithm;
+
+import com.ga.binpacking.model.PackingSolution;
+import io.jenetics.EnumGene;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionStatistics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Handle of an optimization running in the background with a deadline
+ *
+ * The evolution publishes every new best individual, decoded into a
+ * {@link PackingSolution}, with a compare-and-set; readers never block and
+ * always see a complete incumbent. {@link #await()} returns the incumbent
+ * as soon as the evolution finishes, the deadline passes or the token is
+ * cancelled, without waiting for the generation in progress.
+ *
+ * Until the background thread has packed its initial individual there is
+ * no incumbent yet: the getters return null (or negative infinity for the
+ * fitness), and so does the result of an early await().
+ */
+public final class AnytimeSolve {
+
+    // Upper bound on how late await() notices the deadline or a cancellation
+    private static final long POLL_MILLIS = 10;
+
+    private final BinPackingProblem problem;
+    private final Instant deadline;
+    private final CancellationToken cancellation;
+    private final AtomicReference<Incumbent> incumbent = new AtomicReference<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile RuntimeException failure;
+
+    AnytimeSolve(BinPackingProblem problem, Instant deadline, CancellationToken cancellation) {
+        this.problem = problem;
+        this.deadline = deadline;
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Best individual and its decoded packing, published together
+     */
+    private static final class Incumbent {
+        final Phenotype<EnumGene<String>, Double> phenotype;
+        final PackingSolution solution;
+
+        Incumbent(Phenotype<EnumGene<String>, Double> phenotype, PackingSolution solution) {
+            this.phenotype = phenotype;
+            this.solution = solution;
+        }
+    }
+
+    /**
+     * Run the evolution on a daemon thread
+     */
+    void start(Runnable evolution) {
+        Thread thread = new Thread(() -> {
+            try {
+                evolution.run();
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                finished.countDown();
+            }
+        }, "anytime-solve");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Publish a candidate if it beats the incumbent; safe to call from
+     * several threads
+     */
+    void offer(Phenotype<EnumGene<String>, Double> candidate) {
+        Incumbent current = incumbent.get();
+        if (current != null && current.phenotype.fitness() >= candidate.fitness()) {
+            return;
+        }
+
+        Incumbent next = new Incumbent(candidate, problem.convertToSolution(candidate.genotype()));
+        while (!incumbent.compareAndSet(current, next)) {
+            current = incumbent.get();
+            if (current != null && current.phenotype.fitness() >= candidate.fitness()) {
+                return;
+            }
+        }
+    }
+
+    public PackingSolution getBestSolution() {
+        Incumbent best = incumbent.get();
+        return best == null ? null : best.solution;
+    }
+
+    public Phenotype<EnumGene<String>, Double> getBestPhenotype() {
+        Incumbent best = incumbent.get();
+        return best == null ? null : best.phenotype;
+    }
+
+    public double getBestFitness() {
+        Incumbent best = incumbent.get();
+        return best == null ? Double.NEGATIVE_INFINITY : best.phenotype.fitness();
+    }
+
+    /**
+     * Whether the evolution itself has stopped
+     */
+    public boolean isDone() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * Wait until the evolution finishes, the deadline passes or the token is
+     * cancelled, and return the incumbent at that moment; waits for the
+     * initial incumbent in any case, which takes a single packing
+     */
+    public GeneticBinPacker.OptimizationResult await() {
+        try {
+            while (!finished.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (incumbent.get() != null
+                        && (cancellation.isCancelled() || !Instant.now().isBefore(deadline))) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            throw new IllegalStateException("Optimization failed", failure);
+        }
+        Incumbent best = incumbent.get();
+        return new GeneticBinPacker.OptimizationResult(best == null ? null : best.phenotype,
+                best == null ? null : best.solution, EvolutionStatistics.ofNumber());
+    }
+
+    /**
+     * Time left until the deadline, zero once it has passed
+     */
+    public Duration remaining() {
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
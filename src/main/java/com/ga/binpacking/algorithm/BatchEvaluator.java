@@ -0,0 +1,219 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Gene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Evaluator;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.Seq;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Evaluation of a whole generation at once, sharing the packing of common
+ * sequence prefixes
+ *
+ * The item-type sequences of all unevaluated individuals are sorted
+ * lexicographically, so sequences with a common prefix become neighbours
+ * and identical ones are packed only once. The sorted sequences are split
+ * into chunks of {@code chunkSize}, which run in parallel on the executor.
+ * Within a chunk, each sequence resumes from the packing checkpoint of its
+ * predecessor at the deepest boundary before their first difference;
+ * checkpoints are kept every {@code checkpointInterval} genes, and each
+ * chunk reuses its thread's workspace.
+ *
+ * Results are identical to {@link BinPackingProblem#fitness}. Unlike the
+ * {@link IncrementalEvaluator}, no state outlives a generation.
+ */
+public class BatchEvaluator {
+
+    private final BinPackingProblem problem;
+    private final int checkpointInterval;
+    private final int chunkSize;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder packings = new LongAdder();
+    private final LongAdder genesTotal = new LongAdder();
+    private final LongAdder genesSkipped = new LongAdder();
+
+    public BatchEvaluator(BinPackingProblem problem) {
+        this(problem, 16, 32);
+    }
+
+    /**
+     * @param checkpointInterval number of genes between two stored states
+     * @param chunkSize          sequences evaluated by one task; small enough
+     *                           for a chunk's checkpoints to stay in cache
+     */
+    public BatchEvaluator(BinPackingProblem problem, int checkpointInterval, int chunkSize) {
+        if (checkpointInterval <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval and chunk size must be positive: "
+                    + checkpointInterval + ", " + chunkSize);
+        }
+        this.problem = problem;
+        this.checkpointInterval = checkpointInterval;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Evaluator running the chunks on the given executor, for an encoding
+     * whose genotypes map to item-type sequences
+     */
+    <G extends Gene<?, G>> Evaluator<G, Double> evaluator(Executor executor,
+            Function<Genotype<G>, int[]> sequence) {
+        return population -> eval(population, executor, sequence);
+    }
+
+    private <G extends Gene<?, G>> ISeq<Phenotype<G, Double>> eval(Seq<Phenotype<G, Double>> population,
+            Executor executor, Function<Genotype<G>, int[]> sequence) {
+        MSeq<Phenotype<G, Double>> result = MSeq.of(population);
+        List<Integer> unevaluated = new ArrayList<>();
+        for (int i = 0; i < result.length(); i++) {
+            if (result.get(i).nonEvaluated()) {
+                unevaluated.add(i);
+            }
+        }
+        if (unevaluated.isEmpty()) {
+            return result.toISeq();
+        }
+
+        int[][] sequences = new int[result.length()][];
+        for (int i : unevaluated) {
+            sequences[i] = sequence.apply(result.get(i).genotype());
+        }
+        unevaluated.sort((a, b) -> Arrays.compare(sequences[a], sequences[b]));
+
+        // Pack each distinct sequence once
+        List<int[]> distinct = new ArrayList<>();
+        int[] slot = new int[result.length()];
+        for (int i : unevaluated) {
+            if (distinct.isEmpty() || !Arrays.equals(distinct.get(distinct.size() - 1), sequences[i])) {
+                distinct.add(sequences[i]);
+            }
+            slot[i] = distinct.size() - 1;
+        }
+        double[] fitness = new double[distinct.size()];
+        runChunks(distinct.size(), chunkSize, executor, (from, to) -> packChunk(distinct, from, to, fitness));
+
+        for (int i : unevaluated) {
+            result.set(i, result.get(i).withFitness(fitness[slot[i]]));
+        }
+        evaluations.add(unevaluated.size());
+        packings.add(distinct.size());
+        return result.toISeq();
+    }
+
+    /**
+     * Pack the sorted sequences [from, to), each resuming from the
+     * checkpoints of the one before
+     */
+    private void packChunk(List<int[]> sequences, int from, int to, double[] fitness) {
+        EvaluationWorkspace workspace = problem.workspace();
+        PackingCheckpoint[] checkpoints = null;
+        int[] previous = null;
+        long total = 0;
+        long skipped = 0;
+
+        for (int s = from; s < to; s++) {
+            int[] sequence = sequences.get(s);
+            int length = sequence.length;
+            int boundaries = length / checkpointInterval;
+            if (checkpoints == null || checkpoints.length != boundaries + 1) {
+                checkpoints = new PackingCheckpoint[boundaries + 1];
+                previous = null;
+            }
+
+            int resumed = 0;
+            if (previous != null) {
+                int common = Arrays.mismatch(previous, sequence);
+                resumed = Math.min((common < 0 ? length : common) / checkpointInterval, boundaries);
+                while (resumed > 0 && checkpoints[resumed] == null) {
+                    resumed--;
+                }
+            }
+            if (resumed > 0) {
+                problem.restore(checkpoints[resumed], workspace);
+            } else {
+                problem.startPacking(workspace);
+            }
+
+            // Pack the tail, replacing the checkpoints past the shared prefix
+            int position = resumed * checkpointInterval;
+            for (int b = resumed + 1; b <= boundaries; b++) {
+                if (workspace.allTypesDead()) {
+                    checkpoints[b] = null;
+                    continue;
+                }
+                int end = b * checkpointInterval;
+                problem.packSequence(sequence, position, end, workspace);
+                position = end;
+                checkpoints[b] = workspace.checkpoint(end);
+            }
+            problem.packSequence(sequence, position, length, workspace);
+            fitness[s] = problem.score(workspace);
+
+            previous = sequence;
+            total += length;
+            skipped += (long) resumed * checkpointInterval;
+        }
+        genesTotal.add(total);
+        genesSkipped.add(skipped);
+    }
+
+    /**
+     * Split {@code [0, size)} into ranges of at most {@code chunkSize}, run
+     * them on the executor and wait for all of them
+     */
+    static void runChunks(int size, int chunkSize, Executor executor, ChunkTask task) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, size);
+            chunks.add(CompletableFuture.runAsync(() -> task.run(start, end), executor));
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Work on the range [from, to) of a batch
+     */
+    interface ChunkTask {
+        void run(int from, int to);
+    }
+
+    /**
+     * Number of individuals evaluated
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Number of distinct sequences packed
+     */
+    public long getPackings() {
+        return packings.sum();
+    }
+
+    /**
+     * Fraction of the genes of all packed sequences that were restored from
+     * a predecessor's checkpoint instead of packed again
+     */
+    public double getSkippedGeneFraction() {
+        long total = genesTotal.sum();
+        return total == 0 ? 0.0 : (double) genesSkipped.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchEvaluator[evaluations=%d, packings=%d, genesSkipped=%.2f%%]",
+                getEvaluations(), getPackings(), getSkippedGeneFraction() * 100.0);
+    }
+}
@@ -1,27 +1,93 @@
 package com.ga.binpacking.algorithm;
 
+import com.ga.binpacking.chromosome.MultisetChromosome;
+import com.ga.binpacking.chromosome.TypeGene;
 import com.ga.binpacking.model.*;
 import io.jenetics.*;
 import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
 
 import java.util.*;
 
 /**
  * Defines the 3D bin packing problem and fitness evaluation
+ *
+ * Thread-safe: all fields are final and never modified after construction,
+ * and every fitness or conversion call works only on the calling thread's
+ * own {@link EvaluationWorkspace}, so any number of threads may evaluate
+ * concurrently.
  */
 public class BinPackingProblem {
 
+    /**
+     * How the packer searches for a position for each item
+     */
+    public enum PlacementMode {
+        VOXEL_SCAN, // Layer-by-layer scan over every integer cell
+        EXTREME_POINT, // Only corners created by already placed items
+        MAXIMAL_SPACE, // Lowest origin among the maximal empty spaces
+        MAXIMAL_SPACE_BEST_FIT, // Maximal empty space with the least leftover volume
+        MAXIMAL_SPACE_SHORT_SIDE, // Maximal empty space with the smallest leftover along one axis
+        HEIGHTMAP // Floor-up stacking on a W x D heightmap of the top surface
+    }
+
+    // Limit on copies of one item type in the genotype, for computational efficiency
+    private static final int MAX_COPIES_PER_TYPE = 50;
+
+    // Runs per item type in the run-length genotype
+    private static final int RUNS_PER_TYPE = 4;
+
     private final List<Item> availableItems;
     private final Bin bin;
-    private final Map<String, Item> itemMap;
+    private final ItemCatalog catalog;
+    private final int stockedTypeCount;
+    private final PlacementMode placementMode;
+    private final ZobristHash sequenceHasher;
+
+    // Allele list of the permutation chromosome and the item type of each allele
+    private final ISeq<String> validAlleles;
+    private final int[] alleleTypes;
+
+    // Copies of each type in the sequence, and the index of its first allele
+    private final int[] typeCopies;
+    private final int[] firstAllele;
+
+    // Reusable evaluation state, one per evaluating thread
+    private final ThreadLocal<EvaluationWorkspace> workspaces = ThreadLocal.withInitial(this::createWorkspace);
 
     public BinPackingProblem(List<Item> availableItems, Bin bin) {
+        this(availableItems, bin, PlacementMode.VOXEL_SCAN);
+    }
+
+    public BinPackingProblem(List<Item> availableItems, Bin bin, PlacementMode placementMode) {
         this.availableItems = availableItems;
         this.bin = bin;
-        this.itemMap = new HashMap<>();
-        for (Item item : availableItems) {
-            itemMap.put(item.getId(), item);
+        this.placementMode = placementMode;
+        this.catalog = new ItemCatalog(availableItems);
+
+        // Create a list of item IDs based on available quantities
+        List<String> itemSequence = new ArrayList<>();
+        List<Integer> itemTypes = new ArrayList<>();
+        this.typeCopies = new int[catalog.size()];
+        this.firstAllele = new int[catalog.size()];
+        int stocked = 0;
+        for (int type = 0; type < catalog.size(); type++) {
+            if (catalog.quantity(type) > 0) {
+                stocked++;
+            }
+            // Add multiple copies based on limited quantity (to make it realistic)
+            int maxItems = copiesOf(type);
+            typeCopies[type] = maxItems;
+            firstAllele[type] = itemSequence.size();
+            for (int i = 0; i < maxItems; i++) {
+                itemSequence.add(catalog.id(type));
+                itemTypes.add(type);
+            }
         }
+        this.stockedTypeCount = stocked;
+        this.validAlleles = ISeq.of(itemSequence);
+        this.alleleTypes = itemTypes.stream().mapToInt(Integer::intValue).toArray();
+        this.sequenceHasher = new ZobristHash(itemSequence.size(), catalog.size());
     }
 
     /**
@@ -29,46 +95,351 @@ public class BinPackingProblem {
      * Uses permutation encoding - the order of items to pack
      */
     public io.jenetics.util.Factory<Genotype<EnumGene<String>>> genotypeFactory() {
-        // Create a list of item IDs based on available quantities
-        List<String> itemSequence = new ArrayList<>();
-        for (Item item : availableItems) {
-            // Add multiple copies based on limited quantity (to make it realistic)
-            int maxItems = Math.min(item.getAvailableQuantity(), 50); // Limit for computational efficiency
-            for (int i = 0; i < maxItems; i++) {
-                itemSequence.add(item.getId());
+        return Genotype.of(
+                PermutationChromosome.of(validAlleles));
+    }
+
+    private int copiesOf(int type) {
+        return Math.max(0, Math.min(catalog.quantity(type), MAX_COPIES_PER_TYPE));
+    }
+
+    /**
+     * Genotype factory for the compact encoding: the same multiset of item
+     * types as {@link #genotypeFactory()}, stored as an int[] of type ids
+     */
+    public io.jenetics.util.Factory<Genotype<TypeGene>> compactGenotypeFactory() {
+        return Genotype.of(MultisetChromosome.of(typeCopies));
+    }
+
+    /**
+     * Fitness of a compact genotype; same value as {@link #fitness} of its
+     * {@link #expand expanded} form
+     */
+    public double compactFitness(Genotype<TypeGene> genotype) {
+        MultisetChromosome chromosome = (MultisetChromosome) genotype.chromosome();
+        EvaluationWorkspace workspace = workspaces.get();
+        int length = chromosome.length();
+        int[] sequence = workspace.sequence(length);
+        chromosome.copyTypes(sequence);
+        startPacking(workspace);
+        packSequence(sequence, 0, length, workspace);
+
+        return score(workspace);
+    }
+
+    /**
+     * Genotype factory for the run-length encoding
+     *
+     * The order is a fixed number of runs, each a (type, count) pair: the
+     * first chromosome holds the item type of every run, the second how many
+     * units of that type to place. The length depends only on the number of
+     * item types, so the per-type copy cap of {@link #genotypeFactory()}
+     * does not apply and every unit in stock can be placed.
+     */
+    public io.jenetics.util.Factory<Genotype<IntegerGene>> runLengthGenotypeFactory() {
+        int runs = Math.max(1, RUNS_PER_TYPE * catalog.size());
+        int maxRun = 1;
+        for (int type = 0; type < catalog.size(); type++) {
+            maxRun = Math.max(maxRun, catalog.quantity(type));
+        }
+        // Upper bounds are exclusive
+        return Genotype.of(
+                IntegerChromosome.of(0, Math.max(1, catalog.size()), runs),
+                IntegerChromosome.of(1, maxRun + 1, runs));
+    }
+
+    /**
+     * Fitness of a run-length genotype, using the same scoring as {@link #fitness}
+     */
+    public double runLengthFitness(Genotype<IntegerGene> genotype) {
+        EvaluationWorkspace workspace = workspaces.get();
+        packRuns(genotype, workspace);
+
+        return score(workspace);
+    }
+
+    /**
+     * Expand the runs of a run-length genotype lazily into the workspace
+     *
+     * A run ends at the first unit that does not fit: the engine state has
+     * not changed, so the remaining units of the run would not fit either.
+     * Runs never take more units than are left in stock. The work done is
+     * proportional to the number of placed items plus one failed search per
+     * run, independent of the stocked quantities.
+     */
+    private void packRuns(Genotype<IntegerGene> genotype, EvaluationWorkspace workspace) {
+        IntegerChromosome runTypes = (IntegerChromosome) genotype.get(0);
+        IntegerChromosome runCounts = (IntegerChromosome) genotype.get(1);
+
+        startPacking(workspace);
+        PlacementEngine engine = workspace.engine();
+        int[] position = workspace.position();
+        boolean skipDeadTypes = engine.isMonotone();
+
+        int[] remaining = workspace.remaining();
+        for (int type = 0; type < catalog.size(); type++) {
+            remaining[type] = Math.max(0, catalog.quantity(type));
+            if (remaining[type] == 0) {
+                workspace.markDead(type);
             }
         }
 
-        ISeq<String> validAlleles = ISeq.of(itemSequence);
+        int runs = Math.min(runTypes.length(), runCounts.length());
+        for (int r = 0; r < runs && !workspace.allTypesDead(); r++) {
+            int type = runTypes.get(r).intValue();
+            if (type < 0 || type >= catalog.size() || workspace.isDead(type))
+                continue;
 
-        return Genotype.of(
-                PermutationChromosome.of(validAlleles));
+            int w = catalog.extentX(type, 0);
+            int h = catalog.extentY(type, 0);
+            int d = catalog.extentZ(type, 0);
+
+            int units = Math.min(runCounts.get(r).intValue(), remaining[type]);
+            for (int k = 0; k < units; k++) {
+                if (!engine.find(w, h, d, position)) {
+                    if (skipDeadTypes) {
+                        workspace.killType(type);
+                    }
+                    break;
+                }
+                engine.commit(position[0], position[1], position[2], w, h, d, catalog.width(type));
+                workspace.recordPlacement(type);
+                remaining[type]--;
+            }
+
+            // Out of stock: no later run can place this type
+            if (remaining[type] == 0 && !workspace.isDead(type)) {
+                workspace.killType(type);
+            }
+        }
     }
 
     /**
-     * Fitness function: Maximize space utilization and minimize wastage
-     * Higher fitness = better solution
+     * Zobrist hash of a compact genotype; equal to {@link #sequenceHash(Genotype)} of
+     * its expanded form
      */
-    public double fitness(Genotype<EnumGene<String>> genotype) {
-        // Extract the sequence of items from the chromosome
+    public long compactSequenceHash(Genotype<TypeGene> genotype) {
+        return sequenceHash(((MultisetChromosome) genotype.chromosome()).toArray());
+    }
+
+    /**
+     * Compact form of a permutation genotype
+     */
+    public Genotype<TypeGene> compact(Genotype<EnumGene<String>> genotype) {
         Chromosome<EnumGene<String>> chromosome = genotype.chromosome();
+        int[] order = new int[chromosome.length()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = typeOf(chromosome.get(i));
+            if (order[i] < 0) {
+                throw new IllegalArgumentException("Unknown item id: " + chromosome.get(i).allele());
+            }
+        }
+        return Genotype.of(MultisetChromosome.ofOrder(order, catalog.size()));
+    }
 
-        // Create a fresh bin for evaluation
-        Bin testBin = new Bin(bin.getWidth(), bin.getHeight(), bin.getDepth());
+    /**
+     * Permutation genotype over this problem's alleles with the same item-type
+     * order as a compact genotype; the k-th copy of a type in the order gets
+     * the type's k-th allele
+     */
+    public Genotype<EnumGene<String>> expand(Genotype<TypeGene> genotype) {
+        MultisetChromosome chromosome = (MultisetChromosome) genotype.chromosome();
+        int[] next = firstAllele.clone();
+        List<EnumGene<String>> genes = new ArrayList<>(chromosome.length());
+        for (int i = 0; i < chromosome.length(); i++) {
+            int type = chromosome.type(i);
+            if (next[type] >= firstAllele[type] + typeCopies[type]) {
+                throw new IllegalArgumentException("More copies of type " + type + " than in the problem");
+            }
+            genes.add(EnumGene.of(next[type]++, validAlleles));
+        }
+        return Genotype.of(new PermutationChromosome<>(ISeq.of(genes)));
+    }
+
+    /**
+     * Genotypes of {@code count} heuristic item sequences for seeding the
+     * initial population: first-fit-decreasing by volume, value density and
+     * largest face, then GRASP variants (see {@link HeuristicSeeder}), which
+     * draw from the RandomRegistry
+     */
+    public List<Genotype<EnumGene<String>>> heuristicSeeds(int count) {
+        List<Genotype<EnumGene<String>>> seeds = new ArrayList<>(count);
+        for (Genotype<TypeGene> seed : compactHeuristicSeeds(count)) {
+            seeds.add(expand(seed));
+        }
+        return seeds;
+    }
+
+    /**
+     * {@link #heuristicSeeds} in the compact encoding
+     */
+    public List<Genotype<TypeGene>> compactHeuristicSeeds(int count) {
+        HeuristicSeeder seeder = new HeuristicSeeder(catalog, HeuristicSeeder.DEFAULT_ALPHA);
+        List<Genotype<TypeGene>> seeds = new ArrayList<>(count);
+        for (int[] sequence : seeder.sequences(count, typeCopies, RandomRegistry.random())) {
+            seeds.add(Genotype.of(MultisetChromosome.ofOrder(sequence, catalog.size())));
+        }
+        return seeds;
+    }
+
+    /**
+     * Permutation genotype from allele indices into this problem's allele
+     * list, the inverse of reading {@link EnumGene#alleleIndex()}
+     */
+    Genotype<EnumGene<String>> permutation(int[] alleleIndices) {
+        List<EnumGene<String>> genes = new ArrayList<>(alleleIndices.length);
+        for (int index : alleleIndices) {
+            genes.add(EnumGene.of(index, validAlleles));
+        }
+        PermutationChromosome<String> chromosome = new PermutationChromosome<>(ISeq.of(genes));
+        if (alleleIndices.length != validAlleles.length() || !chromosome.isValid()) {
+            throw new IllegalArgumentException("Not a permutation of the problem's alleles");
+        }
+        return Genotype.of(chromosome);
+    }
+
+    /**
+     * Compact genotype with the given type order, which must use exactly
+     * this problem's copies of every type
+     */
+    Genotype<TypeGene> compactOrder(int[] order) {
+        MultisetChromosome chromosome = MultisetChromosome.ofOrder(order, catalog.size());
+        for (int type = 0; type < catalog.size(); type++) {
+            if (chromosome.count(type) != typeCopies[type]) {
+                throw new IllegalArgumentException("Wrong number of copies of type " + type);
+            }
+        }
+        return Genotype.of(chromosome);
+    }
+
+    /**
+     * Number of genes of the permutation chromosome
+     */
+    int alleleCount() {
+        return alleleTypes.length;
+    }
+
+    /**
+     * Fitness of the permutation stored as allele indices in
+     * {@code alleles[offset, offset + alleleCount())}; same value as
+     * {@link #fitness} of its {@link #permutation} genotype
+     */
+    double alleleFitness(int[] alleles, int offset) {
+        EvaluationWorkspace workspace = workspaces.get();
+        int length = alleleTypes.length;
+        int[] sequence = workspace.sequence(length);
+        for (int i = 0; i < length; i++) {
+            sequence[i] = alleleTypes[alleles[offset + i]];
+        }
+        startPacking(workspace);
+        packSequence(sequence, 0, length, workspace);
+
+        return score(workspace);
+    }
+
+    /**
+     * Item-type sequence of a permutation genotype
+     */
+    int[] typeSequence(Genotype<EnumGene<String>> genotype) {
+        return compactTypeSequence(compact(genotype));
+    }
+
+    /**
+     * Item-type sequence of a compact genotype
+     */
+    int[] compactTypeSequence(Genotype<TypeGene> genotype) {
+        MultisetChromosome chromosome = (MultisetChromosome) genotype.chromosome();
+        int[] sequence = new int[chromosome.length()];
+        chromosome.copyTypes(sequence);
+        return sequence;
+    }
+
+    /**
+     * 64-bit Zobrist hash of the item-type sequence encoded by a genotype
+     *
+     * Genotypes that differ only in which duplicate of a type sits at a
+     * position pack identically and get the same hash, so the hash can key
+     * a {@link FitnessCache}.
+     */
+    public long sequenceHash(Genotype<EnumGene<String>> genotype) {
+        Chromosome<EnumGene<String>> chromosome = genotype.chromosome();
+        int[] sequence = new int[chromosome.length()];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = typeOf(chromosome.get(i));
+        }
+        return sequenceHash(sequence);
+    }
 
+    /**
+     * Zobrist hash of an item-type sequence; negative entries (unknown
+     * items) do not contribute
+     */
+    public long sequenceHash(int[] sequence) {
+        long hash = 0;
+        for (int i = 0; i < sequence.length; i++) {
+            if (sequence[i] >= 0) {
+                hash ^= sequenceHasher.key(i, sequence[i]);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Fitness function: Maximize space utilization and minimize wastage
+     * Higher fitness = better solution
+     */
+    public double fitness(Genotype<EnumGene<String>> genotype) {
         // Try to pack items in the order specified by the chromosome
-        List<PlacedItem> placedItems = packItems(chromosome, testBin);
+        EvaluationWorkspace workspace = workspaces.get();
+        int length = encode(genotype.chromosome(), workspace);
+        startPacking(workspace);
+        packSequence(workspace.sequence(length), 0, length, workspace);
 
+        return score(workspace);
+    }
+
+    /**
+     * Fitness of the placements currently recorded in a workspace
+     */
+    double score(EvaluationWorkspace workspace) {
         // Calculate fitness metrics
-        double usedVolume = placedItems.stream()
-                .mapToDouble(pi -> pi.getItem().getVolume())
-                .sum();
+        double usedVolume = 0;
+        double totalValue = 0;
+        for (int i = 0; i < workspace.placedCount(); i++) {
+            int type = workspace.placedType(i);
+            usedVolume += catalog.volume(type);
+            totalValue += catalog.cost(type);
+        }
+        return score(usedVolume, totalValue);
+    }
 
-        double totalValue = placedItems.stream()
-                .mapToDouble(pi -> pi.getItem().getCost())
-                .sum();
+    /**
+     * Cheap fitness estimate of an item-type sequence without packing it:
+     * the score of its longest prefix whose total volume fits the bin
+     *
+     * Geometry is ignored, so the estimate is usually optimistic; it only
+     * serves to rank sequences against each other.
+     */
+    double surrogateFitness(int[] sequence) {
+        double capacity = bin.getTotalVolume();
+        double usedVolume = 0;
+        double totalValue = 0;
+        for (int type : sequence) {
+            if (type < 0) {
+                continue;
+            }
+            double volume = catalog.volume(type);
+            if (usedVolume + volume > capacity) {
+                break;
+            }
+            usedVolume += volume;
+            totalValue += catalog.cost(type);
+        }
+        return score(usedVolume, totalValue);
+    }
 
-        double totalVolume = testBin.getTotalVolume();
+    private double score(double usedVolume, double totalValue) {
+        double totalVolume = bin.getTotalVolume();
         double wastedVolume = totalVolume - usedVolume;
 
         // Fitness components:
@@ -89,125 +460,133 @@ public class BinPackingProblem {
     }
 
     /**
-     * Pack items into the bin using a simple layer-based first-fit algorithm
+     * Write the item-type sequence of a chromosome into the workspace's
+     * sequence buffer (-1 for unknown item ids) and return its length
+     */
+    int encode(Chromosome<EnumGene<String>> chromosome, EvaluationWorkspace workspace) {
+        int length = chromosome.length();
+        int[] sequence = workspace.sequence(length);
+        for (int i = 0; i < length; i++) {
+            sequence[i] = typeOf(chromosome.get(i));
+        }
+        return length;
+    }
+
+    /**
+     * Item type of a gene, or -1 if its item id is unknown
+     *
+     * Genes over this problem's allele list resolve through their allele
+     * index; others fall back to a lookup by id.
      */
-    private List<PlacedItem> packItems(Chromosome<EnumGene<String>> chromosome, Bin testBin) {
-        List<PlacedItem> packed = new ArrayList<>();
+    int typeOf(EnumGene<String> gene) {
+        if (gene.validAlleles() == validAlleles) {
+            return alleleTypes[gene.alleleIndex()];
+        }
+        return catalog.typeOf(gene.allele());
+    }
 
-        // Track occupied spaces using a simplified 3D grid approach
-        boolean[][][] occupied = new boolean[(int) bin.getWidth()][(int) bin.getHeight()][(int) bin.getDepth()];
+    /**
+     * Clear the workspace for a new packing of this problem
+     */
+    void startPacking(EvaluationWorkspace workspace) {
+        workspace.reset(stockedTypeCount);
+    }
 
-        // Keep track of the next available position for faster packing
-        int currentX = 0, currentY = 0, currentZ = 0;
+    /**
+     * Pack the genes [from, to) of a type sequence into the workspace using
+     * the configured placement engine
+     *
+     * Occupancy only grows, so with a monotone engine an item type that
+     * failed to fit once can never fit again: its remaining genes are
+     * skipped, and packing stops as soon as every stocked type is dead.
+     */
+    void packSequence(int[] sequence, int from, int to, EvaluationWorkspace workspace) {
+        PlacementEngine engine = workspace.engine();
+        int[] position = workspace.position();
+        boolean skipDeadTypes = engine.isMonotone();
 
-        // Try to place each item in the chromosome sequence
-        for (int i = 0; i < chromosome.length(); i++) {
-            String itemId = chromosome.get(i).allele();
-            Item item = itemMap.get(itemId);
+        if (skipDeadTypes && workspace.allTypesDead())
+            return;
+
+        // Try to place each item in the sequence
+        for (int i = from; i < to; i++) {
+            int type = sequence[i];
 
-            if (item == null)
+            if (type < 0 || workspace.isDead(type))
                 continue;
 
-            // Try to find a valid position for this item (starting from last position)
-            Position3D position = findValidPosition(item, occupied, testBin, currentX, currentY, currentZ);
+            int w = catalog.extentX(type, 0);
+            int h = catalog.extentY(type, 0);
+            int d = catalog.extentZ(type, 0);
 
-            if (position != null) {
+            if (engine.find(w, h, d, position)) {
                 // Place the item (rotation = 0 for simplicity)
-                PlacedItem placedItem = new PlacedItem(item, position, 0);
-                packed.add(placedItem);
-
-                // Mark the space as occupied
-                markOccupied(occupied, position, item);
-
-                // Update current position hint for next item
-                currentX = (int) (position.getX() + item.getWidth());
-                if (currentX >= testBin.getWidth()) {
-                    currentX = 0;
-                    currentZ += 5; // Move to next layer
-                    if (currentZ >= testBin.getDepth()) {
-                        currentZ = 0;
-                        currentY += 5;
-                    }
+                engine.commit(position[0], position[1], position[2], w, h, d, catalog.width(type));
+                workspace.recordPlacement(type);
+            } else if (skipDeadTypes) {
+                if (catalog.quantity(type) <= 0) {
+                    workspace.markDead(type);
+                } else if (workspace.killType(type)) {
+                    break; // Nothing else can fit
                 }
             }
         }
-
-        return packed;
-    }
-
-    /**
-     * Find a valid position to place an item using first-fit approach
-     * Now considers a starting hint to make order matter more
-     */
-    private Position3D findValidPosition(Item item, boolean[][][] occupied, Bin testBin,
-            int startX, int startY, int startZ) {
-        // First, try positions starting from the hint
-        Position3D pos = tryPlacementFromPosition(item, occupied, testBin, startX, startY, startZ);
-        if (pos != null)
-            return pos;
-
-        // If that didn't work, try from the beginning
-        return tryPlacementFromPosition(item, occupied, testBin, 0, 0, 0);
     }
 
     /**
-     * Try to place item starting from given coordinates
+     * Bring a workspace to the state stored in a checkpoint by replaying its
+     * placements into the placement engine
      */
-    private Position3D tryPlacementFromPosition(Item item, boolean[][][] occupied, Bin testBin,
-            int startX, int startY, int startZ) {
-        // Try positions layer by layer
-        for (int y = startY; y <= testBin.getHeight() - item.getHeight(); y++) {
-            for (int z = (y == startY ? startZ : 0); z <= testBin.getDepth() - item.getDepth(); z++) {
-                for (int x = (y == startY && z == startZ ? startX : 0); x <= testBin.getWidth()
-                        - item.getWidth(); x++) {
-                    if (canPlace(item, x, y, z, occupied, testBin)) {
-                        return new Position3D(x, y, z);
-                    }
-                }
-            }
+    void restore(PackingCheckpoint checkpoint, EvaluationWorkspace workspace) {
+        workspace.restore(checkpoint);
+        PlacementEngine engine = workspace.engine();
+        for (int i = 0; i < workspace.placedCount(); i++) {
+            int type = workspace.placedType(i);
+            engine.commit(workspace.placedX(i), workspace.placedY(i), workspace.placedZ(i),
+                    catalog.extentX(type, 0), catalog.extentY(type, 0), catalog.extentZ(type, 0),
+                    catalog.width(type));
         }
-        return null; // No valid position found
     }
 
     /**
-     * Check if an item can be placed at the given position
+     * Evaluation workspace of the calling thread
      */
-    private boolean canPlace(Item item, int x, int y, int z, boolean[][][] occupied, Bin testBin) {
-        // Check bounds
-        if (x + item.getWidth() > testBin.getWidth() ||
-                y + item.getHeight() > testBin.getHeight() ||
-                z + item.getDepth() > testBin.getDepth()) {
-            return false;
-        }
+    EvaluationWorkspace workspace() {
+        return workspaces.get();
+    }
 
-        // Check for overlap
-        for (int i = x; i < x + item.getWidth(); i++) {
-            for (int j = y; j < y + item.getHeight(); j++) {
-                for (int k = z; k < z + item.getDepth(); k++) {
-                    if (occupied[i][j][k]) {
-                        return false;
-                    }
-                }
-            }
-        }
+    ItemCatalog catalog() {
+        return catalog;
+    }
 
-        return true;
+    ZobristHash sequenceHasher() {
+        return sequenceHasher;
     }
 
-    /**
-     * Mark the space as occupied after placing an item
-     */
-    private void markOccupied(boolean[][][] occupied, Position3D position, Item item) {
-        int x = position.getX();
-        int y = position.getY();
-        int z = position.getZ();
+    private EvaluationWorkspace createWorkspace() {
+        return new EvaluationWorkspace(createPlacementEngine(), catalog.size());
+    }
 
-        for (int i = x; i < x + item.getWidth() && i < occupied.length; i++) {
-            for (int j = y; j < y + item.getHeight() && j < occupied[0].length; j++) {
-                for (int k = z; k < z + item.getDepth() && k < occupied[0][0].length; k++) {
-                    occupied[i][j][k] = true;
-                }
-            }
+    private PlacementEngine createPlacementEngine() {
+        int width = (int) bin.getWidth();
+        int height = (int) bin.getHeight();
+        int depth = (int) bin.getDepth();
+
+        switch (placementMode) {
+            case EXTREME_POINT:
+                return new ExtremePointPlacement(width, height, depth);
+            case MAXIMAL_SPACE:
+                return new MaximalSpacePlacement(width, height, depth, FreeSpaceIndex.FitRule.BOTTOM_LEFT);
+            case MAXIMAL_SPACE_BEST_FIT:
+                return new MaximalSpacePlacement(width, height, depth,
+                        FreeSpaceIndex.FitRule.LEAST_LEFTOVER_VOLUME);
+            case MAXIMAL_SPACE_SHORT_SIDE:
+                return new MaximalSpacePlacement(width, height, depth, FreeSpaceIndex.FitRule.BEST_SHORT_SIDE);
+            case HEIGHTMAP:
+                return new HeightmapPlacement(width, height, depth);
+            case VOXEL_SCAN:
+            default:
+                return new VoxelScanPlacement(width, height, depth);
         }
     }
 
@@ -215,12 +594,34 @@ public class BinPackingProblem {
      * Convert a genotype to a packing solution for visualization
      */
     public PackingSolution convertToSolution(Genotype<EnumGene<String>> genotype) {
+        EvaluationWorkspace workspace = workspaces.get();
+        int length = encode(genotype.chromosome(), workspace);
+        startPacking(workspace);
+        packSequence(workspace.sequence(length), 0, length, workspace);
+
+        return toSolution(workspace);
+    }
+
+    /**
+     * Convert a run-length genotype to a packing solution
+     */
+    public PackingSolution convertRunLengthToSolution(Genotype<IntegerGene> genotype) {
+        EvaluationWorkspace workspace = workspaces.get();
+        packRuns(genotype, workspace);
+
+        return toSolution(workspace);
+    }
+
+    private PackingSolution toSolution(EvaluationWorkspace workspace) {
         PackingSolution solution = new PackingSolution();
 
-        Chromosome<EnumGene<String>> chromosome = genotype.chromosome();
         Bin testBin = new Bin(bin.getWidth(), bin.getHeight(), bin.getDepth());
 
-        List<PlacedItem> placedItems = packItems(chromosome, testBin);
+        List<PlacedItem> placedItems = new ArrayList<>(workspace.placedCount());
+        for (int i = 0; i < workspace.placedCount(); i++) {
+            placedItems.add(new PlacedItem(catalog.item(workspace.placedType(i)),
+                    new Position3D(workspace.placedX(i), workspace.placedY(i), workspace.placedZ(i)), 0));
+        }
 
         // Convert to solution format
         Map<String, Integer> itemCounts = new HashMap<>();
@@ -247,11 +648,32 @@ public class BinPackingProblem {
 
         solution.setTotalWastage((int) (testBin.getTotalVolume() - usedVolume));
         solution.setTotalCost(totalCost);
-        solution.setFitness(fitness(genotype));
+        solution.setFitness(score(workspace));
 
         return solution;
     }
 
+    /**
+     * Build the free-space index left over by a solution, e.g. to fill the
+     * remaining gaps after the GA has finished
+     */
+    public FreeSpaceIndex freeSpaceIndex(PackingSolution solution) {
+        FreeSpaceIndex index = new FreeSpaceIndex((int) bin.getWidth(), (int) bin.getHeight(),
+                (int) bin.getDepth());
+
+        for (PackingSolution.ItemPlacement placement : solution.getPlacements()) {
+            int type = catalog.typeOf(placement.getItemId());
+            if (type < 0 || !(placement.getPosition() instanceof Position3D))
+                continue;
+
+            Position3D position = (Position3D) placement.getPosition();
+            index.occupy(position.getX(), position.getY(), position.getZ(),
+                    catalog.extentX(type, 0), catalog.extentY(type, 0), catalog.extentZ(type, 0));
+        }
+
+        return index;
+    }
+
     public Bin getBin() {
         return bin;
     }
@@ -259,4 +681,8 @@ public class BinPackingProblem {
     public List<Item> getAvailableItems() {
         return availableItems;
     }
+
+    public PlacementMode getPlacementMode() {
+        return placementMode;
+    }
 }
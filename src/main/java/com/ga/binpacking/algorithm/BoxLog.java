@@ -0,0 +1,63 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Growable log of boxes written into a placement structure
+ *
+ * Engines record every commit here so that a reset only has to undo what
+ * was written instead of clearing the whole bin.
+ */
+class BoxLog {
+
+    private static final int STRIDE = 6;
+
+    private int[] boxes = new int[STRIDE * 64];
+    private int count;
+
+    void add(int x, int y, int z, int w, int h, int d) {
+        int o = STRIDE * count;
+        if (o + STRIDE > boxes.length) {
+            boxes = Arrays.copyOf(boxes, boxes.length * 2);
+        }
+        boxes[o] = x;
+        boxes[o + 1] = y;
+        boxes[o + 2] = z;
+        boxes[o + 3] = w;
+        boxes[o + 4] = h;
+        boxes[o + 5] = d;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int x(int i) {
+        return boxes[STRIDE * i];
+    }
+
+    int y(int i) {
+        return boxes[STRIDE * i + 1];
+    }
+
+    int z(int i) {
+        return boxes[STRIDE * i + 2];
+    }
+
+    int w(int i) {
+        return boxes[STRIDE * i + 3];
+    }
+
+    int h(int i) {
+        return boxes[STRIDE * i + 4];
+    }
+
+    int d(int i) {
+        return boxes[STRIDE * i + 5];
+    }
+
+    void clear() {
+        count = 0;
+    }
+}
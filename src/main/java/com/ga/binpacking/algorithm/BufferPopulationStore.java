@@ -0,0 +1,145 @@
+package com.ga.binpacking.algorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Population store outside the heap, in direct or memory-mapped buffers
+ *
+ * Every row is a fixed-stride record of {@code length} native-order ints;
+ * rows are grouped into segments of at most {@value #SEGMENT_BYTES} bytes,
+ * as one buffer cannot exceed 2 GB. The fitness column is a separate buffer
+ * of doubles. Rows move with absolute bulk gets and puts, so threads
+ * working on distinct rows do not interfere. The heap holds just the buffer
+ * objects, whatever the population size.
+ *
+ * Direct buffers are freed when they are garbage collected. Mapped stores
+ * live in a temporary file that is deleted on {@link #close()}.
+ */
+final class BufferPopulationStore extends PopulationStore {
+
+    // Largest segment of gene records
+    private static final int SEGMENT_BYTES = 1 << 30;
+
+    private final IntBuffer[] segments;
+    private final int rowsPerSegment;
+    private final DoubleBuffer fitness;
+    private final Path file;
+
+    private BufferPopulationStore(int size, int length, IntBuffer[] segments, int rowsPerSegment,
+            DoubleBuffer fitness, Path file) {
+        super(size, length);
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+        this.fitness = fitness;
+        this.file = file;
+    }
+
+    static BufferPopulationStore direct(int size, int length) {
+        int rowsPerSegment = rowsPerSegment(length);
+        IntBuffer[] segments = new IntBuffer[segmentCount(size, rowsPerSegment)];
+        for (int s = 0; s < segments.length; s++) {
+            int rows = Math.min(rowsPerSegment, size - s * rowsPerSegment);
+            segments[s] = ByteBuffer.allocateDirect(rows * length * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+        DoubleBuffer fitness = ByteBuffer.allocateDirect(size * Double.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+        return new BufferPopulationStore(size, length, segments, rowsPerSegment, fitness, null);
+    }
+
+    /**
+     * Store mapped from a new temporary file in {@code directory}, or in the
+     * default temporary directory if it is null
+     */
+    static BufferPopulationStore mapped(Path directory, int size, int length) {
+        Path file = null;
+        try {
+            file = directory != null
+                    ? Files.createTempFile(directory, "population", ".bin")
+                    : Files.createTempFile("population", ".bin");
+
+            int rowsPerSegment = rowsPerSegment(length);
+            IntBuffer[] segments = new IntBuffer[segmentCount(size, rowsPerSegment)];
+            DoubleBuffer fitness;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                long position = 0;
+                for (int s = 0; s < segments.length; s++) {
+                    int rows = Math.min(rowsPerSegment, size - s * rowsPerSegment);
+                    long bytes = (long) rows * length * Integer.BYTES;
+                    segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes)
+                            .order(ByteOrder.nativeOrder())
+                            .asIntBuffer();
+                    position += bytes;
+                }
+                fitness = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) size * Double.BYTES)
+                        .order(ByteOrder.nativeOrder())
+                        .asDoubleBuffer();
+            }
+            return new BufferPopulationStore(size, length, segments, rowsPerSegment, fitness, file);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Could not map population file in " + directory, e);
+        }
+    }
+
+    private static int rowsPerSegment(int length) {
+        return Math.max(1, SEGMENT_BYTES / Math.max(1, length * Integer.BYTES));
+    }
+
+    private static int segmentCount(int size, int rowsPerSegment) {
+        return Math.max(1, (size + rowsPerSegment - 1) / rowsPerSegment);
+    }
+
+    @Override
+    void read(int row, int[] genes) {
+        IntBuffer segment = segments[row / rowsPerSegment];
+        int offset = (row % rowsPerSegment) * length;
+        segment.get(offset, genes, 0, length);
+    }
+
+    @Override
+    void write(int row, int[] genes) {
+        IntBuffer segment = segments[row / rowsPerSegment];
+        int offset = (row % rowsPerSegment) * length;
+        segment.put(offset, genes, 0, length);
+    }
+
+    @Override
+    double fitness(int row) {
+        return fitness.get(row);
+    }
+
+    @Override
+    void setFitness(int row, double value) {
+        fitness.put(row, value);
+    }
+
+    @Override
+    public void close() {
+        // The mapping stays valid until collected; the file's name can go now
+        deleteQuietly(file);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete population file " + file + ": " + e.getMessage());
+        }
+    }
+}
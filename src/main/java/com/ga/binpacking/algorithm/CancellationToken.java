@@ -0,0 +1,19 @@
+package com.ga.binpacking.algorithm;
+
+/**
+ * Flag a caller sets to stop a running optimization
+ *
+ * Thread-safe; once cancelled a token stays cancelled.
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Thread-safe SplitMix64 generator whose whole state is one long
+ *
+ * Installed in the RandomRegistry for seeded runs, so a checkpoint can
+ * record the state and a resumed run continues the same random sequence.
+ */
+public final class CheckpointRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLong state;
+
+    public CheckpointRandom(long state) {
+        this.state = new AtomicLong(state);
+    }
+
+    @Override
+    public long nextLong() {
+        long z = state.addAndGet(GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Current state; a generator created with it continues this sequence
+     */
+    public long state() {
+        return state.get();
+    }
+
+    /**
+     * Continue from a state returned by {@link #state()}
+     */
+    void restore(long state) {
+        this.state.set(state);
+    }
+}
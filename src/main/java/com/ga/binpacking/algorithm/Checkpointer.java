@@ -0,0 +1,212 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Chromosome;
+import io.jenetics.Gene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionResult;
+import io.jenetics.util.ISeq;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Periodic checkpointing and resuming of one evolution run
+ *
+ * Populations are immutable, so taking a checkpoint on the evolution thread
+ * only keeps a reference to the population together with the random state
+ * and fitness history. Encoding and writing happen on a background thread;
+ * if a write is still in progress when the next checkpoint is due, only
+ * the newest pending one is written.
+ */
+final class Checkpointer<G extends Gene<?, G>> {
+
+    private final Path file;
+    private final int interval;
+    private final EvolutionCheckpoint.Encoding encoding;
+    private final ToIntFunction<G> geneIndex;
+    private final CheckpointRandom random;
+
+    private double[] bestHistory = new double[0];
+    private double[] averageHistory = new double[0];
+    private int generations;
+
+    private final AtomicReference<Snapshot<G>> pending = new AtomicReference<>();
+    private final ExecutorService writer;
+
+    // Set when the run continues from a checkpoint
+    private ISeq<Phenotype<G, Double>> population;
+    private long generation;
+
+    /**
+     * @param file where to write checkpoints, or null for none
+     * @param interval generations between checkpoints
+     * @param random the run's random generator if seeded, else null
+     */
+    Checkpointer(Path file, int interval, EvolutionCheckpoint.Encoding encoding, ToIntFunction<G> geneIndex,
+            CheckpointRandom random) {
+        this.file = file;
+        this.interval = interval;
+        this.encoding = encoding;
+        this.geneIndex = geneIndex;
+        this.random = random;
+        this.writer = file == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * State of one generation, encoded only when written
+     */
+    private static final class Snapshot<G extends Gene<?, G>> {
+        final ISeq<Phenotype<G, Double>> population;
+        final long generation;
+        final long randomState;
+        final double[] bestHistory;
+        final double[] averageHistory;
+
+        Snapshot(ISeq<Phenotype<G, Double>> population, long generation, long randomState,
+                double[] bestHistory, double[] averageHistory) {
+            this.population = population;
+            this.generation = generation;
+            this.randomState = randomState;
+            this.bestHistory = bestHistory;
+            this.averageHistory = averageHistory;
+        }
+    }
+
+    /**
+     * Continue from a checkpoint: rebuild its population and take over its
+     * generation counter, history and random state; call after the engine
+     * is built
+     */
+    void resume(EvolutionCheckpoint checkpoint, Function<int[], Genotype<G>> genotype) {
+        if (checkpoint.getEncoding() != encoding) {
+            throw new IllegalArgumentException("Checkpoint holds a " + checkpoint.getEncoding()
+                    + " population, the run evolves " + encoding);
+        }
+        bestHistory = checkpoint.getBestHistory();
+        averageHistory = checkpoint.getAverageHistory();
+        generations = bestHistory.length;
+
+        List<Phenotype<G, Double>> individuals = new ArrayList<>(checkpoint.getPopulationSize());
+        for (int i = 0; i < checkpoint.getPopulationSize(); i++) {
+            individuals.add(Phenotype.of(genotype.apply(checkpoint.genes(i)), checkpoint.birth(i),
+                    checkpoint.fitness(i)));
+        }
+        population = ISeq.of(individuals);
+        generation = checkpoint.getGeneration();
+
+        // Building the engine draws from the generator (the genotype factory
+        // shuffles), so the saved state only takes effect from here on
+        if (random != null && checkpoint.isSeeded()) {
+            random.restore(checkpoint.getRandomState());
+        }
+    }
+
+    /**
+     * Population restored from a checkpoint, or null for a fresh run
+     */
+    ISeq<Phenotype<G, Double>> population() {
+        return population;
+    }
+
+    /**
+     * Generation of the restored population, 0 for a fresh run
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Record a generation, checkpointing it if one is due
+     */
+    void record(EvolutionResult<G, Double> result) {
+        if (file == null) {
+            return;
+        }
+        if (generations == bestHistory.length) {
+            int capacity = Math.max(16, generations * 2);
+            bestHistory = Arrays.copyOf(bestHistory, capacity);
+            averageHistory = Arrays.copyOf(averageHistory, capacity);
+        }
+        bestHistory[generations] = result.bestFitness();
+        averageHistory[generations] = result.population().stream()
+                .mapToDouble(Phenotype::fitness)
+                .average()
+                .orElse(0.0);
+        generations++;
+
+        if (result.generation() % interval == 0) {
+            checkpoint(result);
+        }
+    }
+
+    /**
+     * Checkpoint the last generation and wait until it is written
+     */
+    void finish(EvolutionResult<G, Double> last) {
+        if (file == null) {
+            return;
+        }
+        if (last != null && last.generation() % interval != 0) {
+            checkpoint(last);
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkpoint(EvolutionResult<G, Double> result) {
+        Snapshot<G> snapshot = new Snapshot<>(result.population(), result.generation(),
+                random != null ? random.state() : 0L,
+                Arrays.copyOf(bestHistory, generations), Arrays.copyOf(averageHistory, generations));
+        if (pending.getAndSet(snapshot) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    private void writePending() {
+        Snapshot<G> snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+
+        int size = snapshot.population.size();
+        int[][] genes = new int[size][];
+        double[] fitness = new double[size];
+        long[] births = new long[size];
+        for (int i = 0; i < size; i++) {
+            Phenotype<G, Double> individual = snapshot.population.get(i);
+            Chromosome<G> chromosome = individual.genotype().chromosome();
+            int[] indices = new int[chromosome.length()];
+            for (int j = 0; j < indices.length; j++) {
+                indices[j] = geneIndex.applyAsInt(chromosome.get(j));
+            }
+            genes[i] = indices;
+            fitness[i] = individual.fitness();
+            births[i] = individual.generation();
+        }
+
+        try {
+            new EvolutionCheckpoint(encoding, snapshot.generation, random != null, snapshot.randomState, genes,
+                    fitness, births, snapshot.bestHistory, snapshot.averageHistory).write(file);
+        } catch (IOException e) {
+            System.err.println("Could not write checkpoint " + file + ": " + e.getMessage());
+        }
+    }
+}
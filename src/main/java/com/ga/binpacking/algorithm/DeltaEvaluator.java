@@ -0,0 +1,236 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Chromosome;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.MutatorResult;
+import io.jenetics.SwapMutator;
+import io.jenetics.util.MSeq;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Mutation-aware fitness evaluation that replays only from the first gene a
+ * swap mutation changed
+ *
+ * Every evaluated individual keeps its packing checkpoints (one every
+ * {@code checkpointInterval} genes) under the Zobrist hash of its type
+ * sequence. The {@link DeltaSwapMutator} created by {@link #mutator} records,
+ * for each offspring, the hash of its parent and the index of the first gene
+ * it changed. When the offspring is evaluated, packing resumes
+ * from the parent's deepest checkpoint before that index, so the cost scales
+ * with the distance from the end of the chromosome instead of its length.
+ * Checkpoints before the resume point are shared with the parent.
+ *
+ * Offspring without a recorded lineage (e.g. produced by crossover) are
+ * packed in full unless their sequence was evaluated before. Results are identical to {@link BinPackingProblem#fitness}.
+ */
+public class DeltaEvaluator {
+
+    private static final class Lineage {
+        final long parentHash;
+        final int firstChanged;
+
+        Lineage(long parentHash, int firstChanged) {
+            this.parentHash = parentHash;
+            this.firstChanged = firstChanged;
+        }
+    }
+
+    private final BinPackingProblem problem;
+    private final int checkpointInterval;
+
+    // Per-individual checkpoints, index b holds the state after b * interval genes
+    private final Map<Long, PackingCheckpoint[]> individuals;
+
+    // Offspring hash -> where it came from
+    private final Map<Long, Lineage> lineages;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder deltaEvaluations = new LongAdder();
+    private final LongAdder genesTotal = new LongAdder();
+    private final LongAdder genesSkipped = new LongAdder();
+
+    public DeltaEvaluator(BinPackingProblem problem) {
+        this(problem, 8, 1024);
+    }
+
+    /**
+     * @param checkpointInterval number of genes between two stored states
+     * @param maxIndividuals     number of individuals whose checkpoints are kept
+     */
+    public DeltaEvaluator(BinPackingProblem problem, int checkpointInterval, int maxIndividuals) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.problem = problem;
+        this.checkpointInterval = checkpointInterval;
+        this.individuals = boundedMap(maxIndividuals);
+        this.lineages = boundedMap(4 * maxIndividuals);
+    }
+
+    private static <V> Map<Long, V> boundedMap(int capacity) {
+        return Collections.synchronizedMap(new LinkedHashMap<Long, V>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Swap mutator that reports its offspring to this evaluator
+     */
+    public DeltaSwapMutator mutator(double probability) {
+        return new DeltaSwapMutator(probability);
+    }
+
+    /**
+     * Same value as {@link BinPackingProblem#fitness}, replaying only from the
+     * first changed gene when the genotype is a recorded mutant
+     */
+    public double fitness(Genotype<EnumGene<String>> genotype) {
+        EvaluationWorkspace workspace = problem.workspace();
+        int length = problem.encode(genotype.chromosome(), workspace);
+        int[] sequence = workspace.sequence(length);
+        long hash = hash(sequence, length);
+
+        int boundaries = length / checkpointInterval;
+        PackingCheckpoint[] own = new PackingCheckpoint[boundaries + 1];
+
+        // Resume from the parent's deepest checkpoint before the first change;
+        // a sequence evaluated before is its own parent, unchanged to the end
+        int resumed = 0;
+        Lineage lineage = lineages.get(hash);
+        long parentHash = lineage == null ? hash : lineage.parentHash;
+        int firstChanged = lineage == null ? length : lineage.firstChanged;
+        PackingCheckpoint[] parent = individuals.get(parentHash);
+        if (parent != null) {
+            int b = Math.min(firstChanged / checkpointInterval, Math.min(boundaries, parent.length - 1));
+            while (b > 0 && parent[b] == null) {
+                b--;
+            }
+            if (b > 0) {
+                System.arraycopy(parent, 1, own, 1, b);
+                problem.restore(parent[b], workspace);
+                resumed = b;
+            }
+        }
+        if (resumed == 0) {
+            problem.startPacking(workspace);
+        }
+
+        int position = resumed * checkpointInterval;
+        for (int b = resumed + 1; b <= boundaries && !workspace.allTypesDead(); b++) {
+            int end = b * checkpointInterval;
+            problem.packSequence(sequence, position, end, workspace);
+            position = end;
+            own[b] = workspace.checkpoint(end);
+        }
+        problem.packSequence(sequence, position, length, workspace);
+        individuals.put(hash, own);
+
+        evaluations.increment();
+        genesTotal.add(length);
+        if (resumed > 0) {
+            deltaEvaluations.increment();
+            genesSkipped.add((long) resumed * checkpointInterval);
+        }
+
+        return problem.score(workspace);
+    }
+
+    /**
+     * Remember that {@code child} is {@code parent} with every gene before
+     * {@code firstChanged} unchanged
+     */
+    void recordMutation(long parentHash, long childHash, int firstChanged) {
+        lineages.put(childHash, new Lineage(parentHash, firstChanged));
+    }
+
+    private long hash(int[] sequence, int length) {
+        ZobristHash hasher = problem.sequenceHasher();
+        long hash = 0;
+        for (int i = 0; i < length; i++) {
+            if (sequence[i] >= 0) {
+                hash ^= hasher.key(i, sequence[i]);
+            }
+        }
+        return hash;
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Number of evaluations that resumed from a parent checkpoint
+     */
+    public long getDeltaEvaluations() {
+        return deltaEvaluations.sum();
+    }
+
+    /**
+     * Fraction of all genes that did not have to be packed again
+     */
+    public double getSkippedGeneFraction() {
+        long total = genesTotal.sum();
+        return total == 0 ? 0.0 : (double) genesSkipped.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DeltaEvaluator[evaluations=%d, delta=%d, genesSkipped=%.2f%%]",
+                getEvaluations(), getDeltaEvaluations(), getSkippedGeneFraction() * 100.0);
+    }
+
+    /**
+     * Swap mutator that records the first changed gene of each offspring
+     * with its {@link DeltaEvaluator}
+     *
+     * Unlike {@link SwapMutator}, which swaps every gene with probability p
+     * and so almost always touches the start of a long chromosome, a selected
+     * chromosome gets exactly one swap of two random positions. The first
+     * changed gene is then min(i, j), which leaves on average a third of the
+     * sequence to be skipped.
+     */
+    public class DeltaSwapMutator extends SwapMutator<EnumGene<String>, Double> {
+
+        DeltaSwapMutator(double probability) {
+            super(probability);
+        }
+
+        @Override
+        protected MutatorResult<Chromosome<EnumGene<String>>> mutate(Chromosome<EnumGene<String>> chromosome,
+                double p, RandomGenerator random) {
+            int length = chromosome.length();
+            if (length < 2) {
+                return new MutatorResult<>(chromosome, 0);
+            }
+
+            int i = random.nextInt(length);
+            int j = random.nextInt(length);
+            MSeq<EnumGene<String>> genes = MSeq.of(chromosome);
+            genes.swap(i, j);
+            Chromosome<EnumGene<String>> child = chromosome.newInstance(genes.toISeq());
+
+            int typeAtI = problem.typeOf(chromosome.get(i));
+            int typeAtJ = problem.typeOf(chromosome.get(j));
+            if (typeAtI >= 0 && typeAtJ >= 0) {
+                long parentHash = problem.sequenceHash(Genotype.of(chromosome));
+                long childHash = problem.sequenceHasher().swap(parentHash, i, j, typeAtI, typeAtJ);
+                recordMutation(parentHash, childHash, Math.min(i, j));
+            }
+            return new MutatorResult<>(child, 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("DeltaSwapMutator[p=%f]", _probability);
+        }
+    }
+}
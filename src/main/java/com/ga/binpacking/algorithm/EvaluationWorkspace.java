@@ -0,0 +1,172 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread scratch state for fitness evaluation
+ *
+ * Holds the placement engine and the placements of the current evaluation
+ * as primitive records (item type and x, y, z). A workspace is reused for
+ * every evaluation on its thread; {@link #reset()} only undoes what the
+ * previous evaluation wrote, so the steady state allocates nothing.
+ */
+class EvaluationWorkspace {
+
+    private final PlacementEngine engine;
+    private final int[] position = new int[3];
+    private final boolean[] deadTypes;
+    private int liveTypes;
+
+    // Item-type sequence being evaluated
+    private int[] sequence = new int[256];
+
+    // Scratch for ranking item types by priority
+    private final int[] typeOrder;
+    private final int[] typeScores;
+
+    // Scratch for the units of each item type still in stock
+    private final int[] remaining;
+
+    // Placements as consecutive (type, x, y, z) records
+    private int[] placements = new int[4 * 256];
+    private int placedCount;
+
+    EvaluationWorkspace(PlacementEngine engine, int typeCount) {
+        this.engine = engine;
+        this.deadTypes = new boolean[typeCount];
+        this.typeOrder = new int[typeCount];
+        this.typeScores = new int[typeCount];
+        this.remaining = new int[typeCount];
+    }
+
+    void reset() {
+        reset(0);
+    }
+
+    /**
+     * Start a new evaluation in which {@code liveTypes} item types can still fit
+     */
+    void reset(int liveTypes) {
+        engine.reset();
+        Arrays.fill(deadTypes, false);
+        this.liveTypes = liveTypes;
+        placedCount = 0;
+    }
+
+    /**
+     * Buffer for an item-type sequence of at least the given length
+     */
+    int[] sequence(int length) {
+        if (sequence.length < length) {
+            sequence = new int[Math.max(length, sequence.length * 2)];
+        }
+        return sequence;
+    }
+
+    PlacementEngine engine() {
+        return engine;
+    }
+
+    /**
+     * Output buffer for {@link PlacementEngine#find}
+     */
+    int[] position() {
+        return position;
+    }
+
+    int[] typeOrder() {
+        return typeOrder;
+    }
+
+    int[] typeScores() {
+        return typeScores;
+    }
+
+    int[] remaining() {
+        return remaining;
+    }
+
+    boolean isDead(int type) {
+        return deadTypes[type];
+    }
+
+    void markDead(int type) {
+        deadTypes[type] = true;
+    }
+
+    /**
+     * Mark a stocked item type as dead
+     *
+     * @return true if no live type is left
+     */
+    boolean killType(int type) {
+        if (deadTypes[type]) {
+            return liveTypes == 0;
+        }
+        deadTypes[type] = true;
+        return --liveTypes == 0;
+    }
+
+    boolean allTypesDead() {
+        return liveTypes == 0;
+    }
+
+    /**
+     * Snapshot the placements made so far
+     */
+    PackingCheckpoint checkpoint(int geneIndex) {
+        return new PackingCheckpoint(geneIndex, Arrays.copyOf(placements, 4 * placedCount),
+                deadTypes.clone(), liveTypes);
+    }
+
+    /**
+     * Load a checkpoint's placements and dead types; the caller replays the
+     * placements into the engine
+     */
+    void restore(PackingCheckpoint checkpoint) {
+        engine.reset();
+        int[] saved = checkpoint.placements();
+        if (saved.length > placements.length) {
+            placements = Arrays.copyOf(placements, Math.max(saved.length, placements.length * 2));
+        }
+        System.arraycopy(saved, 0, placements, 0, saved.length);
+        placedCount = checkpoint.placedCount();
+        System.arraycopy(checkpoint.deadTypes(), 0, deadTypes, 0, deadTypes.length);
+        liveTypes = checkpoint.liveTypes();
+    }
+
+    /**
+     * Record an item of the given type placed at the current position
+     */
+    void recordPlacement(int type) {
+        int o = 4 * placedCount;
+        if (o + 4 > placements.length) {
+            placements = Arrays.copyOf(placements, placements.length * 2);
+        }
+        placements[o] = type;
+        placements[o + 1] = position[0];
+        placements[o + 2] = position[1];
+        placements[o + 3] = position[2];
+        placedCount++;
+    }
+
+    int placedCount() {
+        return placedCount;
+    }
+
+    int placedType(int i) {
+        return placements[4 * i];
+    }
+
+    int placedX(int i) {
+        return placements[4 * i + 1];
+    }
+
+    int placedY(int i) {
+        return placements[4 * i + 2];
+    }
+
+    int placedZ(int i) {
+        return placements[4 * i + 3];
+    }
+}
@@ -0,0 +1,230 @@
+package com.ga.binpacking.algorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Saved state of a single-population evolution
+ *
+ * Holds the population (gene indices, fitness and birth generation of every
+ * individual), the generation counter, the state of a
+ * {@link CheckpointRandom} if the run was seeded, and the best and average
+ * fitness of every generation so far.
+ *
+ * The file is a fixed header followed by flat arrays; genes take one, two
+ * or four bytes each depending on the largest index. It is written to a
+ * temporary file and renamed over the target, so a crash mid-write leaves
+ * the previous checkpoint intact.
+ */
+public final class EvolutionCheckpoint {
+
+    /**
+     * Chromosome encoding the population was evolved with
+     */
+    public enum Encoding {
+        PERMUTATION, // Allele indices of a permutation of item-id genes
+        COMPACT // Item-type ids of a multiset chromosome
+    }
+
+    private static final int MAGIC = 0x42504350; // "BPCP"
+    private static final int VERSION = 1;
+
+    private final Encoding encoding;
+    private final long generation;
+    private final boolean seeded;
+    private final long randomState;
+    private final int[][] genes;
+    private final double[] fitness;
+    private final long[] births;
+    private final double[] bestHistory;
+    private final double[] averageHistory;
+
+    EvolutionCheckpoint(Encoding encoding, long generation, boolean seeded, long randomState, int[][] genes,
+            double[] fitness, long[] births, double[] bestHistory, double[] averageHistory) {
+        this.encoding = encoding;
+        this.generation = generation;
+        this.seeded = seeded;
+        this.randomState = randomState;
+        this.genes = genes;
+        this.fitness = fitness;
+        this.births = births;
+        this.bestHistory = bestHistory;
+        this.averageHistory = averageHistory;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Generation of the saved population
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int getPopulationSize() {
+        return genes.length;
+    }
+
+    /**
+     * Whether the run used a {@link CheckpointRandom} whose state is saved
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    long getRandomState() {
+        return randomState;
+    }
+
+    int[] genes(int individual) {
+        return genes[individual];
+    }
+
+    double fitness(int individual) {
+        return fitness[individual];
+    }
+
+    long birth(int individual) {
+        return births[individual];
+    }
+
+    /**
+     * Best fitness of every generation up to the checkpoint
+     */
+    public double[] getBestHistory() {
+        return bestHistory.clone();
+    }
+
+    /**
+     * Average fitness of every generation up to the checkpoint
+     */
+    public double[] getAverageHistory() {
+        return averageHistory.clone();
+    }
+
+    /**
+     * Write to {@code file} via a temporary sibling and an atomic rename
+     */
+    void write(Path file) throws IOException {
+        int length = genes.length == 0 ? 0 : genes[0].length;
+        int max = 0;
+        for (int[] individual : genes) {
+            for (int gene : individual) {
+                max = Math.max(max, gene);
+            }
+        }
+        int width = max < 1 << 8 ? 1 : max < 1 << 16 ? 2 : 4;
+
+        int size = 5 * Integer.BYTES + 2 + 2 * Long.BYTES
+                + genes.length * (Double.BYTES + Long.BYTES + length * width)
+                + Integer.BYTES + bestHistory.length * 2 * Double.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).put((byte) encoding.ordinal()).putLong(generation)
+                .put((byte) (seeded ? 1 : 0)).putLong(randomState)
+                .putInt(genes.length).putInt(length).putInt(width);
+        for (int i = 0; i < genes.length; i++) {
+            buffer.putDouble(fitness[i]).putLong(births[i]);
+            int[] individual = genes[i];
+            switch (width) {
+                case 1:
+                    for (int gene : individual) {
+                        buffer.put((byte) gene);
+                    }
+                    break;
+                case 2:
+                    for (int gene : individual) {
+                        buffer.putShort((short) gene);
+                    }
+                    break;
+                default:
+                    buffer.asIntBuffer().put(individual);
+                    buffer.position(buffer.position() + length * Integer.BYTES);
+                    break;
+            }
+        }
+        buffer.putInt(bestHistory.length);
+        for (int i = 0; i < bestHistory.length; i++) {
+            buffer.putDouble(bestHistory[i]).putDouble(averageHistory[i]);
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read a checkpoint written by a previous run
+     */
+    public static EvolutionCheckpoint read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an evolution checkpoint: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + ": " + file);
+            }
+            Encoding encoding = Encoding.values()[buffer.get()];
+            long generation = buffer.getLong();
+            boolean seeded = buffer.get() != 0;
+            long randomState = buffer.getLong();
+            int count = buffer.getInt();
+            int length = buffer.getInt();
+            int width = buffer.getInt();
+
+            int[][] genes = new int[count][length];
+            double[] fitness = new double[count];
+            long[] births = new long[count];
+            for (int i = 0; i < count; i++) {
+                fitness[i] = buffer.getDouble();
+                births[i] = buffer.getLong();
+                int[] individual = genes[i];
+                for (int j = 0; j < length; j++) {
+                    individual[j] = width == 1 ? buffer.get() & 0xff
+                            : width == 2 ? buffer.getShort() & 0xffff
+                            : buffer.getInt();
+                }
+            }
+
+            int generations = buffer.getInt();
+            double[] best = new double[generations];
+            double[] average = new double[generations];
+            for (int i = 0; i < generations; i++) {
+                best[i] = buffer.getDouble();
+                average[i] = buffer.getDouble();
+            }
+            return new EvolutionCheckpoint(encoding, generation, seeded, randomState, genes, fitness, births,
+                    best, average);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt checkpoint: " + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EvolutionCheckpoint[%s, generation %d, %d individuals, best %s]",
+                encoding, generation, genes.length,
+                bestHistory.length == 0 ? "-" : Arrays.stream(bestHistory).max().getAsDouble());
+    }
+}
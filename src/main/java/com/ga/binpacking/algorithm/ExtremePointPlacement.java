@@ -0,0 +1,155 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Extreme-point (corner-point) placement
+ *
+ * Instead of scanning every cell, only the corners created by previously
+ * placed boxes are considered as candidate positions. Each placement of a
+ * w x h x d box at (x, y, z) adds the points (x+w, y, z), (x, y+h, z) and
+ * (x, y, z+d). Candidates are kept ordered by y, then z, then x so the bin
+ * fills bottom layer first, like the voxel scan. Overlap is tested against
+ * the list of placed boxes, so the cost per item depends on the number of
+ * placed items rather than on the bin volume.
+ */
+class ExtremePointPlacement implements PlacementEngine {
+
+    private final int binWidth;
+    private final int binHeight;
+    private final int binDepth;
+
+    // Placed boxes as consecutive (x, y, z, w, h, d) records
+    private int[] boxes = new int[6 * 64];
+    private int boxCount;
+
+    // Candidate points as consecutive (x, y, z) records, sorted by (y, z, x)
+    private int[] points = new int[3 * 128];
+    private int pointCount;
+
+    ExtremePointPlacement(int binWidth, int binHeight, int binDepth) {
+        this.binWidth = binWidth;
+        this.binHeight = binHeight;
+        this.binDepth = binDepth;
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        boxCount = 0;
+        pointCount = 0;
+        addPoint(0, 0, 0);
+    }
+
+    @Override
+    public boolean find(int w, int h, int d, int[] out) {
+        for (int p = 0; p < pointCount; p++) {
+            int x = points[3 * p];
+            int y = points[3 * p + 1];
+            int z = points[3 * p + 2];
+            if (x + w > binWidth || y + h > binHeight || z + d > binDepth) {
+                continue;
+            }
+            if (!overlapsAny(x, y, z, w, h, d)) {
+                out[0] = x;
+                out[1] = y;
+                out[2] = z;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void commit(int x, int y, int z, int w, int h, int d) {
+        if (6 * (boxCount + 1) > boxes.length) {
+            boxes = Arrays.copyOf(boxes, boxes.length * 2);
+        }
+        int b = 6 * boxCount++;
+        boxes[b] = x;
+        boxes[b + 1] = y;
+        boxes[b + 2] = z;
+        boxes[b + 3] = w;
+        boxes[b + 4] = h;
+        boxes[b + 5] = d;
+
+        // Drop candidates swallowed by the new box
+        int kept = 0;
+        for (int p = 0; p < pointCount; p++) {
+            int px = points[3 * p];
+            int py = points[3 * p + 1];
+            int pz = points[3 * p + 2];
+            boolean inside = px >= x && px < x + w && py >= y && py < y + h && pz >= z && pz < z + d;
+            if (!inside) {
+                points[3 * kept] = px;
+                points[3 * kept + 1] = py;
+                points[3 * kept + 2] = pz;
+                kept++;
+            }
+        }
+        pointCount = kept;
+
+        addPoint(x + w, y, z);
+        addPoint(x, y + h, z);
+        addPoint(x, y, z + d);
+    }
+
+    @Override
+    public boolean isMonotone() {
+        // New corners can open positions that were never candidates
+        return false;
+    }
+
+    /**
+     * Insert a candidate point keeping the (y, z, x) order; points outside
+     * the bin, duplicates and points inside a placed box are ignored
+     */
+    private void addPoint(int x, int y, int z) {
+        if (x >= binWidth || y >= binHeight || z >= binDepth) {
+            return;
+        }
+        if (overlapsAny(x, y, z, 1, 1, 1)) {
+            return;
+        }
+
+        int at = pointCount;
+        for (int p = 0; p < pointCount; p++) {
+            int c = compare(x, y, z, points[3 * p], points[3 * p + 1], points[3 * p + 2]);
+            if (c == 0) {
+                return;
+            }
+            if (c < 0) {
+                at = p;
+                break;
+            }
+        }
+
+        if (3 * (pointCount + 1) > points.length) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        System.arraycopy(points, 3 * at, points, 3 * at + 3, 3 * (pointCount - at));
+        points[3 * at] = x;
+        points[3 * at + 1] = y;
+        points[3 * at + 2] = z;
+        pointCount++;
+    }
+
+    private boolean overlapsAny(int x, int y, int z, int w, int h, int d) {
+        for (int b = 0; b < 6 * boxCount; b += 6) {
+            if (x < boxes[b] + boxes[b + 3] && boxes[b] < x + w
+                    && y < boxes[b + 1] + boxes[b + 4] && boxes[b + 1] < y + h
+                    && z < boxes[b + 2] + boxes[b + 5] && boxes[b + 2] < z + d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compare(int x1, int y1, int z1, int x2, int y2, int z2) {
+        if (y1 != y2)
+            return Integer.compare(y1, y2);
+        if (z1 != z2)
+            return Integer.compare(z1, z2);
+        return Integer.compare(x1, x2);
+    }
+}
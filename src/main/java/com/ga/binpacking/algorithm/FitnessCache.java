@@ -0,0 +1,103 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Gene;
+import io.jenetics.Genotype;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, concurrent memo of fitness values keyed by a 64-bit sequence hash
+ *
+ * Entries live in a fixed-size direct-mapped table: a key always goes to the
+ * same slot and a newer entry simply replaces the one it collides with.
+ * Reads and writes are single atomic reference operations, so evaluating
+ * threads never block each other.
+ */
+public class FitnessCache {
+
+    private static final class Entry {
+        final long key;
+        final double fitness;
+
+        Entry(long key, double fitness) {
+            this.key = key;
+            this.fitness = fitness;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity maximum number of entries (rounded up to a power of two)
+     */
+    public FitnessCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Wrap a fitness function so that genotypes with an already seen key
+     * return the cached value instead of being evaluated again
+     */
+    public <G extends Gene<?, G>> Function<Genotype<G>, Double> memoize(
+            Function<? super Genotype<G>, Double> fitness, ToLongFunction<? super Genotype<G>> keyFunction) {
+        return genotype -> {
+            long key = keyFunction.applyAsLong(genotype);
+            int slot = slot(key);
+
+            Entry entry = slots.get(slot);
+            if (entry != null && entry.key == key) {
+                hits.increment();
+                return entry.fitness;
+            }
+
+            misses.increment();
+            double value = fitness.apply(genotype);
+            slots.set(slot, new Entry(key, value));
+            return value;
+        };
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Fraction of lookups answered from the cache (0 when nothing was looked up)
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    private int slot(long key) {
+        // Zobrist keys are already uniformly distributed; fold the high bits in
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FitnessCache[capacity=%d, hits=%d, misses=%d, hitRate=%.2f%%]",
+                getCapacity(), getHits(), getMisses(), getHitRate() * 100.0);
+    }
+}
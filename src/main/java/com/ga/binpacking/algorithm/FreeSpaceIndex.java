@@ -0,0 +1,229 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Maximal-empty-space index (3D MaxRects)
+ *
+ * Keeps the set of maximal empty cuboids of a bin: every free cell lies in
+ * at least one of them, and none of them is contained in another. After a
+ * box is occupied, each space it cuts is replaced by up to six remainders
+ * and remainders contained in another space are dropped. Any box that fits
+ * somewhere in the bin fits at the origin of one of the spaces, so a search
+ * is O(#spaces) instead of O(bin volume).
+ *
+ * The index is independent of the GA and can be rebuilt from a finished
+ * solution (see {@link BinPackingProblem#freeSpaceIndex}) to look for gaps.
+ */
+public class FreeSpaceIndex {
+
+    /**
+     * How to choose among the spaces that can hold a box
+     */
+    public enum FitRule {
+        BOTTOM_LEFT, // Lowest space origin by y, then z, then x
+        LEAST_LEFTOVER_VOLUME, // Space with the smallest volume left after placing the box
+        BEST_SHORT_SIDE // Space with the smallest leftover along its tightest axis
+    }
+
+    private static final int STRIDE = 6;
+
+    private final int width;
+    private final int height;
+    private final int depth;
+
+    // Spaces as consecutive (x, y, z, w, h, d) records
+    private int[] spaces = new int[STRIDE * 64];
+    private int spaceCount;
+
+    // Scratch buffer for the remainders produced by one occupy call
+    private int[] remainders = new int[STRIDE * 64];
+
+    public FreeSpaceIndex(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        reset();
+    }
+
+    /**
+     * Make the whole bin one free space again
+     */
+    public void reset() {
+        spaceCount = 0;
+        spaces = append(spaces, spaceCount++, 0, 0, 0, width, height, depth);
+    }
+
+    /**
+     * Find a space that can hold a w x h x d box according to the rule
+     *
+     * @param out receives the x, y and z coordinates of the chosen position
+     * @return true if some space can hold the box
+     */
+    public boolean find(int w, int h, int d, FitRule rule, int[] out) {
+        int best = -1;
+        long bestScore = Long.MAX_VALUE;
+
+        for (int s = 0; s < spaceCount; s++) {
+            int o = STRIDE * s;
+            int sw = spaces[o + 3], sh = spaces[o + 4], sd = spaces[o + 5];
+            if (w > sw || h > sh || d > sd) {
+                continue;
+            }
+
+            long score;
+            switch (rule) {
+                case LEAST_LEFTOVER_VOLUME:
+                    score = (long) sw * sh * sd - (long) w * h * d;
+                    break;
+                case BEST_SHORT_SIDE:
+                    score = Math.min(sw - w, Math.min(sh - h, sd - d));
+                    break;
+                case BOTTOM_LEFT:
+                default:
+                    score = 0;
+                    break;
+            }
+
+            if (best < 0 || score < bestScore
+                    || (score == bestScore && isLower(o, STRIDE * best))) {
+                best = s;
+                bestScore = score;
+            }
+        }
+
+        if (best < 0) {
+            return false;
+        }
+        out[0] = spaces[STRIDE * best];
+        out[1] = spaces[STRIDE * best + 1];
+        out[2] = spaces[STRIDE * best + 2];
+        return true;
+    }
+
+    /**
+     * Remove the box [x, x+w) x [y, y+h) x [z, z+d) from the free space
+     */
+    public void occupy(int x, int y, int z, int w, int h, int d) {
+        int x2 = x + w, y2 = y + h, z2 = z + d;
+        int kept = 0;
+        int remainderCount = 0;
+
+        for (int s = 0; s < spaceCount; s++) {
+            int o = STRIDE * s;
+            int sx = spaces[o], sy = spaces[o + 1], sz = spaces[o + 2];
+            int sx2 = sx + spaces[o + 3], sy2 = sy + spaces[o + 4], sz2 = sz + spaces[o + 5];
+
+            if (x >= sx2 || x2 <= sx || y >= sy2 || y2 <= sy || z >= sz2 || z2 <= sz) {
+                // Untouched: keep in place
+                if (kept != s) {
+                    System.arraycopy(spaces, o, spaces, STRIDE * kept, STRIDE);
+                }
+                kept++;
+                continue;
+            }
+
+            // Split the space into the parts on each side of the box
+            if (x > sx)
+                remainders = append(remainders, remainderCount++, sx, sy, sz, x - sx, sy2 - sy, sz2 - sz);
+            if (x2 < sx2)
+                remainders = append(remainders, remainderCount++, x2, sy, sz, sx2 - x2, sy2 - sy, sz2 - sz);
+            if (y > sy)
+                remainders = append(remainders, remainderCount++, sx, sy, sz, sx2 - sx, y - sy, sz2 - sz);
+            if (y2 < sy2)
+                remainders = append(remainders, remainderCount++, sx, y2, sz, sx2 - sx, sy2 - y2, sz2 - sz);
+            if (z > sz)
+                remainders = append(remainders, remainderCount++, sx, sy, sz, sx2 - sx, sy2 - sy, z - sz);
+            if (z2 < sz2)
+                remainders = append(remainders, remainderCount++, sx, sy, z2, sx2 - sx, sy2 - sy, sz2 - z2);
+        }
+        spaceCount = kept;
+
+        // Keep only remainders not contained in an untouched space or in another remainder
+        for (int r = 0; r < remainderCount; r++) {
+            int o = STRIDE * r;
+            if (containedInSpaces(remainders, o, kept) || containedInRemainders(o, r, remainderCount)) {
+                continue;
+            }
+            spaces = append(spaces, spaceCount++, remainders[o], remainders[o + 1], remainders[o + 2],
+                    remainders[o + 3], remainders[o + 4], remainders[o + 5]);
+        }
+    }
+
+    public int getSpaceCount() {
+        return spaceCount;
+    }
+
+    /**
+     * Copy space number {@code index} into {@code out} as (x, y, z, w, h, d)
+     */
+    public void getSpace(int index, int[] out) {
+        System.arraycopy(spaces, STRIDE * index, out, 0, STRIDE);
+    }
+
+    /**
+     * Volume of the largest single free cuboid
+     */
+    public long getLargestSpaceVolume() {
+        long largest = 0;
+        for (int s = 0; s < spaceCount; s++) {
+            int o = STRIDE * s;
+            largest = Math.max(largest, (long) spaces[o + 3] * spaces[o + 4] * spaces[o + 5]);
+        }
+        return largest;
+    }
+
+    private boolean containedInSpaces(int[] source, int o, int limit) {
+        for (int s = 0; s < limit; s++) {
+            if (contains(spaces, STRIDE * s, source, o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containedInRemainders(int o, int index, int remainderCount) {
+        for (int r = 0; r < remainderCount; r++) {
+            if (r == index || !contains(remainders, STRIDE * r, remainders, o)) {
+                continue;
+            }
+            // Identical remainders: keep only the first copy
+            if (!contains(remainders, o, remainders, STRIDE * r) || r < index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether box b (in array bs at offset ob) lies inside box a
+     */
+    private static boolean contains(int[] as, int oa, int[] bs, int ob) {
+        return bs[ob] >= as[oa] && bs[ob + 1] >= as[oa + 1] && bs[ob + 2] >= as[oa + 2]
+                && bs[ob] + bs[ob + 3] <= as[oa] + as[oa + 3]
+                && bs[ob + 1] + bs[ob + 4] <= as[oa + 1] + as[oa + 4]
+                && bs[ob + 2] + bs[ob + 5] <= as[oa + 2] + as[oa + 5];
+    }
+
+    private boolean isLower(int o1, int o2) {
+        if (spaces[o1 + 1] != spaces[o2 + 1])
+            return spaces[o1 + 1] < spaces[o2 + 1];
+        if (spaces[o1 + 2] != spaces[o2 + 2])
+            return spaces[o1 + 2] < spaces[o2 + 2];
+        return spaces[o1] < spaces[o2];
+    }
+
+    private static int[] append(int[] target, int index, int x, int y, int z, int w, int h, int d) {
+        int o = STRIDE * index;
+        if (o + STRIDE > target.length) {
+            target = Arrays.copyOf(target, target.length * 2);
+        }
+        target[o] = x;
+        target[o + 1] = y;
+        target[o + 2] = z;
+        target[o + 3] = w;
+        target[o + 4] = h;
+        target[o + 5] = d;
+        return target;
+    }
+}
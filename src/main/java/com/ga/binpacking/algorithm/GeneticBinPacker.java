@@ -1,8 +1,27 @@
 package com.ga.binpacking.algorithm;
 
+import com.ga.binpacking.chromosome.MultisetOrderCrossover;
+import com.ga.binpacking.chromosome.MultisetSwapMutator;
+import com.ga.binpacking.chromosome.TypeGene;
 import com.ga.binpacking.model.*;
 import io.jenetics.*;
 import io.jenetics.engine.*;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
 
 /**
  * Genetic Algorithm engine for solving the 3D bin packing problem
@@ -10,11 +29,47 @@ import io.jenetics.engine.*;
  */
 public class GeneticBinPacker {
 
+    /**
+     * Where fitness evaluation (and the engine's other parallel steps) runs
+     */
+    public enum Execution {
+        COMMON_POOL, // Jenetics default: the shared ForkJoinPool.commonPool()
+        CALLER_THREAD, // Everything on the thread calling optimize(); reproducible with a seeded RNG
+        FORK_JOIN, // A ForkJoinPool owned by this run
+        FIXED_POOL // A fixed thread pool owned by this run
+    }
+
     private final BinPackingProblem problem;
     private final int populationSize;
     private final int maxGenerations;
     private final double mutationRate;
     private final double crossoverRate;
+    private FitnessCache fitnessCache;
+    private IncrementalEvaluator incrementalEvaluator;
+    private DeltaEvaluator deltaEvaluator;
+    private MemeticSearch memeticSearch;
+    private SurrogateScreening surrogateScreening;
+    private BatchEvaluator batchEvaluator;
+    private boolean compactChromosome;
+    private boolean runLength;
+    private Evaluator<TypeGene, Double> evaluator;
+    private Execution execution = Execution.COMMON_POOL;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Executor executor;
+    private IslandModel islandModel;
+    private TerminationPolicy termination = TerminationPolicy.none();
+    private int heuristicSeeds;
+    private boolean seeded;
+    private long seed;
+    private Path checkpointFile;
+    private int checkpointInterval;
+    private Path resumeFile;
+    private PrimitiveGeneticEngine.Storage storage;
+    private Path storageDirectory;
+
+    // Single island of a distributed island model
+    private int island;
+    private Migration<TypeGene> migration;
 
     public GeneticBinPacker(BinPackingProblem problem) {
         this(problem, 100, 50, 0.15, 0.7);
@@ -29,45 +84,701 @@ public class GeneticBinPacker {
         this.crossoverRate = crossoverRate;
     }
 
+    /**
+     * Memoize fitness values by the Zobrist hash of the item-type sequence,
+     * so offspring that decode to an already evaluated sequence are not
+     * packed again
+     */
+    public GeneticBinPacker withFitnessCache(FitnessCache fitnessCache) {
+        this.fitnessCache = fitnessCache;
+        return this;
+    }
+
+    /**
+     * Evaluate offspring by resuming from cached packing states of the
+     * sequence prefixes they share with earlier individuals
+     */
+    public GeneticBinPacker withIncrementalEvaluator(IncrementalEvaluator incrementalEvaluator) {
+        this.incrementalEvaluator = incrementalEvaluator;
+        return this;
+    }
+
+    /**
+     * Evaluate swap-mutated offspring by re-packing only from the first gene
+     * the mutation changed; replaces the plain swap mutator and cannot be
+     * combined with the incremental evaluator
+     */
+    public GeneticBinPacker withDeltaEvaluator(DeltaEvaluator deltaEvaluator) {
+        this.deltaEvaluator = deltaEvaluator;
+        return this;
+    }
+
+    /**
+     * Improve the fittest individuals of every generation by local search
+     * before the next selection
+     */
+    public GeneticBinPacker withLocalSearch(MemeticSearch memeticSearch) {
+        this.memeticSearch = memeticSearch;
+        return this;
+    }
+
+    /**
+     * Evaluate each generation as one batch that packs shared sequence
+     * prefixes once; cannot be combined with the incremental and delta
+     * evaluators, the fitness cache or a custom {@link #withEvaluator evaluator}
+     */
+    public GeneticBinPacker withBatchEvaluator(BatchEvaluator batchEvaluator) {
+        this.batchEvaluator = batchEvaluator;
+        return this;
+    }
+
+    /**
+     * Fully pack only the offspring the surrogate ranks best and give the
+     * others an estimated fitness until they survive a selection
+     */
+    public GeneticBinPacker withSurrogateScreening(SurrogateScreening surrogateScreening) {
+        this.surrogateScreening = surrogateScreening;
+        return this;
+    }
+
+    /**
+     * Evolve compact int[] multiset chromosomes with order crossover and
+     * multiset swap mutation instead of permutations of item-id genes; the
+     * incremental and delta evaluators only work on the permutation encoding
+     */
+    public GeneticBinPacker withCompactChromosome(boolean compactChromosome) {
+        this.compactChromosome = compactChromosome;
+        return this;
+    }
+
+    /**
+     * Evolve {@link BinPackingProblem#runLengthGenotypeFactory run-length}
+     * genotypes, (type, count) runs over integer chromosomes, so every unit
+     * in stock can be placed instead of at most 50 per type
+     *
+     * The best individual is reported as
+     * {@link OptimizationResult#getRunLengthGenotype()}. Only the rates,
+     * termination, seed and execution settings carry over; the other
+     * evaluation options, seeding, islands, checkpoints and anytime solving
+     * need an item-order encoding.
+     */
+    public GeneticBinPacker withRunLengthEncoding() {
+        this.runLength = true;
+        return this;
+    }
+
+    /**
+     * Evaluate the compact encoding with a custom evaluator, e.g. one that
+     * farms batches out to other processes; implies
+     * {@link #withCompactChromosome} and cannot be combined with the fitness
+     * cache or the batch evaluator
+     */
+    public GeneticBinPacker withEvaluator(Evaluator<TypeGene, Double> evaluator) {
+        this.evaluator = evaluator;
+        this.compactChromosome = true;
+        return this;
+    }
+
+    /**
+     * Stop before maxGenerations when the policy says so, e.g. on a time
+     * budget or once the best fitness stops improving
+     */
+    public GeneticBinPacker withTermination(TerminationPolicy termination) {
+        this.termination = termination;
+        return this;
+    }
+
+    /**
+     * Start from {@code individuals} heuristic item sequences instead of
+     * random ones: first-fit-decreasing by volume, value density and largest
+     * face, then GRASP variants; the rest of the first population stays
+     * random. In island mode the seeds are dealt round-robin to the islands.
+     */
+    public GeneticBinPacker withHeuristicSeeding(int individuals) {
+        if (individuals < 0) {
+            throw new IllegalArgumentException("Seed count must not be negative: " + individuals);
+        }
+        this.heuristicSeeds = individuals;
+        return this;
+    }
+
+    /**
+     * Run with a seeded {@link CheckpointRandom} set in the RandomRegistry
+     * for the run's threads only, so checkpoints also capture the random
+     * state; runs are reproducible with CALLER_THREAD execution
+     */
+    public GeneticBinPacker withSeed(long seed) {
+        this.seeded = true;
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Write an {@link EvolutionCheckpoint} to {@code file} every
+     * {@code interval} generations and at the end of the run; not
+     * available in island mode
+     */
+    public GeneticBinPacker withCheckpoints(Path file, int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + interval);
+        }
+        this.checkpointFile = file;
+        this.checkpointInterval = interval;
+        return this;
+    }
+
+    /**
+     * Continue the run saved in a checkpoint file with its population,
+     * generation counter, random state and fitness history
+     *
+     * maxGenerations counts from the start of the original run, so raise it
+     * to extend a finished run. The checkpoint's encoding takes precedence
+     * over {@link #withCompactChromosome}.
+     */
+    public GeneticBinPacker withResume(Path file) {
+        this.resumeFile = file;
+        return this;
+    }
+
+    /**
+     * Run evaluation on a pool created for each optimize() call and shut
+     * down afterwards; {@code threads} is ignored for COMMON_POOL and
+     * CALLER_THREAD
+     */
+    public GeneticBinPacker withExecution(Execution execution, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.execution = execution;
+        this.threads = threads;
+        this.executor = null;
+        return this;
+    }
+
+    /**
+     * Evolve the permutation encoding on {@link PrimitiveGeneticEngine},
+     * with the population rows in the given storage instead of Jenetics
+     * objects, so heap size and GC time stay flat as the population grows
+     *
+     * Only the rates, termination, seed and execution settings carry over;
+     * optimize() rejects any other option with an IllegalStateException.
+     */
+    public GeneticBinPacker withPopulationStorage(PrimitiveGeneticEngine.Storage storage) {
+        this.storage = storage;
+        return this;
+    }
+
+    /**
+     * Keep the population in memory-mapped files in {@code directory}
+     */
+    public GeneticBinPacker withMappedPopulation(Path directory) {
+        this.storage = PrimitiveGeneticEngine.Storage.MAPPED;
+        this.storageDirectory = directory;
+        return this;
+    }
+
+    /**
+     * Run evaluation on an executor managed by the caller
+     */
+    public GeneticBinPacker withExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Evolve {@code islands} independent populations of populationSize on
+     * their own threads, sending copies of the {@code migrants} best
+     * individuals of each island every {@code migrationInterval} generations
+     *
+     * Each island evaluates on its own thread, so this cannot be combined
+     * with {@link #withExecution} or {@link #withExecutor}.
+     */
+    public GeneticBinPacker withIslands(int islands, int migrationInterval, int migrants,
+            MigrationTopology topology) {
+        this.islandModel = new IslandModel(islands, migrationInterval, migrants, topology);
+        return this;
+    }
+
+    /**
+     * Run as island {@code island} of an island model whose other islands
+     * are reached through {@code migration}, e.g. in other processes
+     *
+     * Migrants travel in the compact encoding, so this implies
+     * {@link #withCompactChromosome}.
+     */
+    public GeneticBinPacker withMigration(int island, int migrationInterval, int migrants,
+            Migration<TypeGene> migration) {
+        this.islandModel = new IslandModel(1, migrationInterval, migrants, MigrationTopology.RING);
+        this.island = island;
+        this.migration = migration;
+        this.compactChromosome = true;
+        return this;
+    }
+
     /**
      * Run the genetic algorithm optimization
      */
     public OptimizationResult optimize() {
+        return run(termination, best -> {
+        });
+    }
+
+    /**
+     * Optimize until the deadline or cancellation at the latest and return
+     * the best solution found by then
+     */
+    public OptimizationResult optimize(Instant deadline, CancellationToken cancellation) {
+        return solve(deadline, cancellation).await();
+    }
+
+    /**
+     * Start the optimization on a background thread and return right away
+     *
+     * The returned handle publishes the best solution found so far. The
+     * evolution stops at the deadline, on cancellation or by the configured
+     * termination policy, whichever comes first. The background thread
+     * first packs one random individual as the initial incumbent, so a
+     * solution is available before the first generation completes.
+     */
+    public AnytimeSolve solve(Instant deadline, CancellationToken cancellation) {
+        if (runLength) {
+            throw new IllegalStateException("Anytime solving needs an item-order encoding, not run-length");
+        }
+        AnytimeSolve solve = new AnytimeSolve(problem, deadline, cancellation);
+        TerminationPolicy policy = termination.withDeadline(deadline).withCancellation(cancellation);
+        solve.start(() -> {
+            Genotype<EnumGene<String>> initial = problem.genotypeFactory().newInstance();
+            solve.offer(Phenotype.of(initial, 0, problem.fitness(initial)));
+            run(policy, solve::offer);
+        });
+        return solve;
+    }
+
+    private OptimizationResult run(TerminationPolicy termination,
+            Consumer<Phenotype<EnumGene<String>, Double>> improved) {
+        EvolutionCheckpoint resumed = readCheckpoint();
+        if ((checkpointFile != null || resumed != null) && islandModel != null) {
+            throw new IllegalStateException("Checkpoints are not supported in island mode");
+        }
+        CheckpointRandom random = resumed != null && resumed.isSeeded()
+                ? new CheckpointRandom(resumed.getRandomState())
+                : seeded ? new CheckpointRandom(seed) : null;
+        if (random != null) {
+            // Only for this run: other runs and unrelated Jenetics code keep their generator
+            return RandomRegistry.with(random, r -> run(termination, improved, resumed, random));
+        }
+        return run(termination, improved, resumed, null);
+    }
+
+    private OptimizationResult run(TerminationPolicy termination,
+            Consumer<Phenotype<EnumGene<String>, Double>> improved, EvolutionCheckpoint resumed,
+            CheckpointRandom random) {
+        boolean compact = resumed != null
+                ? resumed.getEncoding() == EvolutionCheckpoint.Encoding.COMPACT
+                : compactChromosome;
+        checkOptions(compact);
+        if (storage != null) {
+            return evolvePrimitive(termination, improved);
+        }
+
         System.out.println("========================================");
         System.out.println("  3D Bin Packing Genetic Algorithm");
         System.out.println("========================================");
         System.out.println("Population Size: " + populationSize);
         System.out.println("Max Generations: " + maxGenerations);
+        if (resumed != null) {
+            System.out.println("Resuming: generation " + resumed.getGeneration() + " from " + resumeFile);
+        }
+        if (!termination.isUnlimited()) {
+            System.out.println("Early Termination: " + termination);
+        }
+        if (heuristicSeeds > 0 && resumed == null) {
+            System.out.println("Heuristic Seeds: " + Math.min(heuristicSeeds, populationSize));
+        }
+        if (runLength) {
+            System.out.println("Encoding: run-length");
+        }
         System.out.println("Mutation Rate: " + (mutationRate * 100) + "%");
         System.out.println("Crossover Rate: " + (crossoverRate * 100) + "%");
+        System.out.println("Execution: " + (evaluator != null ? "custom evaluator"
+                : migration != null ? "island " + island + " of a distributed model"
+                : islandModel != null ? islandModel.getIslands() + " islands"
+                : executor != null ? "custom executor"
+                : execution == Execution.FORK_JOIN || execution == Execution.FIXED_POOL
+                        ? execution + " (" + threads + " threads)"
+                        : execution));
         System.out.println("Bin Dimensions: " + problem.getBin().getWidth() + "x" +
                 problem.getBin().getHeight() + "x" + problem.getBin().getDepth());
         System.out.println("Bin Total Volume: " + problem.getBin().getTotalVolume());
         System.out.println("Available Items: " + problem.getAvailableItems().size());
         System.out.println("========================================\n");
 
+        // Track evolution statistics
+        EvolutionStatistics<Double, ?> statistics = EvolutionStatistics.ofNumber();
+
+        Phenotype<EnumGene<String>, Double> best = null;
+        Phenotype<IntegerGene, Double> bestRuns = null;
+        ExecutorService ownedPool = executor == null && islandModel == null ? createPool() : null;
+        try {
+            Executor runOn = withRandom(islandModel != null ? Runnable::run
+                    : executor != null ? executor
+                    : ownedPool != null ? ownedPool
+                    : execution == Execution.CALLER_THREAD ? Runnable::run
+                    : ForkJoinPool.commonPool(), random);
+            if (runLength) {
+                bestRuns = evolveRunLength(runOn, termination, random);
+            } else {
+                best = compact
+                        ? evolveCompact(runOn, termination, improved, resumed, random)
+                        : evolvePermutation(runOn, termination, improved, resumed, random);
+            }
+        } finally {
+            if (ownedPool != null) {
+                ownedPool.shutdown();
+            }
+        }
+
+        // Stopped before the first generation completed: fall back to one random individual
+        if (runLength && bestRuns == null) {
+            Genotype<IntegerGene> runs = problem.runLengthGenotypeFactory().newInstance();
+            bestRuns = Phenotype.of(runs, 0, problem.runLengthFitness(runs));
+        } else if (!runLength && best == null) {
+            Genotype<EnumGene<String>> genotype = problem.genotypeFactory().newInstance();
+            best = Phenotype.of(genotype, 0, problem.fitness(genotype));
+        }
+
+        PackingSolution solution = bestRuns != null
+                ? summarize(problem, bestRuns.fitness(), problem.convertRunLengthToSolution(bestRuns.genotype()))
+                : summarize(problem, best);
+        if (incrementalEvaluator != null) {
+            System.out.printf("Incremental Evaluation: %d of %d resumed, %.2f%% of genes skipped%n",
+                    incrementalEvaluator.getResumedEvaluations(), incrementalEvaluator.getEvaluations(),
+                    incrementalEvaluator.getSkippedGeneFraction() * 100.0);
+        }
+        if (deltaEvaluator != null) {
+            System.out.printf("Delta Evaluation: %d of %d resumed, %.2f%% of genes skipped%n",
+                    deltaEvaluator.getDeltaEvaluations(), deltaEvaluator.getEvaluations(),
+                    deltaEvaluator.getSkippedGeneFraction() * 100.0);
+        }
+        if (memeticSearch != null) {
+            System.out.printf("Local Search: %d of %d searches improved, %d neighbours, %.2f%% of genes skipped%n",
+                    memeticSearch.getImprovements(), memeticSearch.getSearches(), memeticSearch.getNeighbours(),
+                    memeticSearch.getSkippedGeneFraction() * 100.0);
+        }
+        if (batchEvaluator != null) {
+            System.out.printf("Batch Evaluation: %d packings for %d individuals, %.2f%% of genes skipped%n",
+                    batchEvaluator.getPackings(), batchEvaluator.getEvaluations(),
+                    batchEvaluator.getSkippedGeneFraction() * 100.0);
+        }
+        if (surrogateScreening != null) {
+            System.out.printf("Surrogate Screening: %d of %d packed, %d re-evaluated (%d false rejections), "
+                    + "%.2f%% of pairs ranked wrong%n",
+                    surrogateScreening.getPacked(), surrogateScreening.getScreened(),
+                    surrogateScreening.getReevaluated(), surrogateScreening.getFalseRejections(),
+                    surrogateScreening.getDiscordantPairFraction() * 100.0);
+        }
+        if (fitnessCache != null) {
+            System.out.printf("Fitness Cache: %d hits, %d misses (%.2f%% hit rate)%n",
+                    fitnessCache.getHits(), fitnessCache.getMisses(), fitnessCache.getHitRate() * 100.0);
+        }
+        System.out.println("========================================\n");
+
+        return new OptimizationResult(best, bestRuns != null ? bestRuns.genotype() : null, solution, statistics);
+    }
+
+    /**
+     * Reject option combinations where one option would silently override
+     * or drop another
+     */
+    private void checkOptions(boolean compact) {
+        if (deltaEvaluator != null && incrementalEvaluator != null) {
+            throw new IllegalStateException("The delta and incremental evaluators cannot be combined");
+        }
+        if (compact && (deltaEvaluator != null || incrementalEvaluator != null)) {
+            throw new IllegalStateException(
+                    "The delta and incremental evaluators need the permutation encoding");
+        }
+        if (batchEvaluator != null
+                && (deltaEvaluator != null || incrementalEvaluator != null || fitnessCache != null)) {
+            throw new IllegalStateException(
+                    "The batch evaluator cannot be combined with the delta or incremental evaluator "
+                            + "or the fitness cache");
+        }
+        if (evaluator != null && (batchEvaluator != null || fitnessCache != null)) {
+            throw new IllegalStateException(
+                    "A custom evaluator cannot be combined with the batch evaluator or the fitness cache");
+        }
+        if (islandModel != null && (executor != null || execution != Execution.COMMON_POOL)) {
+            throw new IllegalStateException("Islands evaluate on their own threads; remove the execution setting");
+        }
+        if (runLength && (compact || islandModel != null || checkpointFile != null || resumeFile != null
+                || storage != null || fitnessCache != null || incrementalEvaluator != null
+                || deltaEvaluator != null || batchEvaluator != null || evaluator != null
+                || surrogateScreening != null || memeticSearch != null || heuristicSeeds > 0)) {
+            throw new IllegalStateException("The run-length encoding only supports the rates, termination, "
+                    + "seed and execution settings");
+        }
+        if (storage != null && (compact || islandModel != null || checkpointFile != null || resumeFile != null
+                || fitnessCache != null || incrementalEvaluator != null || deltaEvaluator != null
+                || batchEvaluator != null || evaluator != null || surrogateScreening != null
+                || memeticSearch != null || heuristicSeeds > 0)) {
+            throw new IllegalStateException("Population storage only supports the rates, termination, "
+                    + "seed and execution settings");
+        }
+    }
+
+    /**
+     * Print the outcome of a run and return the packing of its best
+     * individual; the caller adds its own statistics and the closing rule
+     */
+    static PackingSolution summarize(BinPackingProblem problem, Phenotype<EnumGene<String>, Double> best) {
+        // Convert to solution
+        return summarize(problem, best.fitness(), problem.convertToSolution(best.genotype()));
+    }
+
+    private static PackingSolution summarize(BinPackingProblem problem, double fitness, PackingSolution solution) {
+        System.out.println("\n========================================");
+        System.out.println("  Optimization Complete!");
+        System.out.println("========================================");
+        System.out.printf("Best Fitness: %.4f%n", fitness);
+
+        // Calculate detailed metrics
+        int usedVolume = (int) (problem.getBin().getTotalVolume() - solution.getTotalWastage());
+        double utilization = (double) usedVolume / problem.getBin().getTotalVolume() * 100.0;
+
+        System.out.printf("Space Utilization: %.2f%%%n", utilization);
+        System.out.printf("Used Volume: %d / %.0f%n", usedVolume, problem.getBin().getTotalVolume());
+        System.out.printf("Wasted Volume: %d%n", solution.getTotalWastage());
+        System.out.printf("Total Value: $%.2f%n", solution.getTotalCost());
+        System.out.printf("Items Packed: %d%n", solution.getPlacements().size());
+        return solution;
+    }
+
+    private OptimizationResult evolvePrimitive(TerminationPolicy termination,
+            Consumer<Phenotype<EnumGene<String>, Double>> improved) {
+        PrimitiveGeneticEngine engine = new PrimitiveGeneticEngine(problem, populationSize, maxGenerations,
+                mutationRate, crossoverRate)
+                .withTermination(termination);
+        if (storageDirectory != null) {
+            engine.withMappedStorage(storageDirectory);
+        } else {
+            engine.withStorage(storage);
+        }
+
+        ExecutorService ownedPool = executor == null ? createPool() : null;
+        try {
+            engine.withExecutor(executor != null ? executor
+                    : ownedPool != null ? ownedPool
+                    : execution == Execution.CALLER_THREAD ? Runnable::run
+                    : ForkJoinPool.commonPool());
+            return engine.optimize(improved);
+        } finally {
+            if (ownedPool != null) {
+                ownedPool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Executor running every task with a seeded run's generator, as the
+     * RandomRegistry setting of the calling thread does not reach pool threads
+     */
+    static Executor withRandom(Executor executor, RandomGenerator random) {
+        if (random == null) {
+            return executor;
+        }
+        return task -> executor.execute(() -> RandomRegistry.using(random, r -> task.run()));
+    }
+
+    private EvolutionCheckpoint readCheckpoint() {
+        if (resumeFile == null) {
+            return null;
+        }
+        try {
+            return EvolutionCheckpoint.read(resumeFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read checkpoint " + resumeFile, e);
+        }
+    }
+
+    /**
+     * Pool owned by a single optimize() call, or null if none is needed
+     */
+    private ExecutorService createPool() {
+        switch (execution) {
+            case FORK_JOIN:
+                return new ForkJoinPool(threads);
+            case FIXED_POOL:
+                return Executors.newFixedThreadPool(threads);
+            case COMMON_POOL:
+            case CALLER_THREAD:
+            default:
+                return null;
+        }
+    }
+
+    private Phenotype<EnumGene<String>, Double> evolvePermutation(Executor executor, TerminationPolicy termination,
+            Consumer<Phenotype<EnumGene<String>, Double>> improved, EvolutionCheckpoint resumed,
+            CheckpointRandom random) {
+        Function<Genotype<EnumGene<String>>, Double> fitness = problem::fitness;
+        if (incrementalEvaluator != null) {
+            fitness = incrementalEvaluator::fitness;
+        }
+        if (deltaEvaluator != null) {
+            fitness = deltaEvaluator::fitness;
+        }
+        if (fitnessCache != null) {
+            fitness = fitnessCache.memoize(fitness, problem::sequenceHash);
+        }
+
         // Build the GA engine
-        Engine<EnumGene<String>, Double> engine = Engine
-                .builder(problem::fitness, problem.genotypeFactory())
+        Evaluator<EnumGene<String>, Double> packing = batchEvaluator != null
+                ? batchEvaluator.evaluator(executor, problem::typeSequence)
+                : Evaluators.concurrent(fitness, executor);
+        if (surrogateScreening != null) {
+            packing = surrogateScreening.evaluator(packing, problem::typeSequence);
+        }
+        Engine.Builder<EnumGene<String>, Double> builder = (batchEvaluator != null || surrogateScreening != null
+                ? new Engine.Builder<>(packing, problem.genotypeFactory())
+                : Engine.builder(fitness, problem.genotypeFactory()))
                 .populationSize(populationSize)
                 .maximizing() // We want to maximize fitness
                 .alterers(
                         new PartiallyMatchedCrossover<>(crossoverRate),
-                        new SwapMutator<>(mutationRate))
+                        deltaEvaluator != null
+                                ? deltaEvaluator.mutator(mutationRate)
+                                : new SwapMutator<>(mutationRate))
+                .selector(new TournamentSelector<>(5))
+                .executor(executor);
+        if (memeticSearch != null) {
+            builder.interceptor(memeticSearch.interceptor(executor, problem::typeSequence,
+                    sequence -> problem.expand(problem.compactOrder(sequence))));
+        }
+        Engine<EnumGene<String>, Double> engine = builder.build();
+
+        Checkpointer<EnumGene<String>> checkpointer = new Checkpointer<>(checkpointFile, checkpointInterval,
+                EvolutionCheckpoint.Encoding.PERMUTATION, EnumGene::alleleIndex, random);
+        List<Genotype<EnumGene<String>>> seeds = List.of();
+        if (resumed != null) {
+            checkpointer.resume(resumed, problem::permutation);
+        } else if (heuristicSeeds > 0) {
+            seeds = problem.heuristicSeeds(Math.min(heuristicSeeds, populationSize));
+        }
+
+        return evolve(engine, termination, improved, checkpointer, seeds, random);
+    }
+
+    private Phenotype<EnumGene<String>, Double> evolveCompact(Executor executor, TerminationPolicy termination,
+            Consumer<Phenotype<EnumGene<String>, Double>> improved, EvolutionCheckpoint resumed,
+            CheckpointRandom random) {
+        Consumer<Phenotype<TypeGene, Double>> expanded = best -> improved.accept(
+                Phenotype.of(problem.expand(best.genotype()), best.generation(), best.fitness()));
+        Function<Genotype<TypeGene>, Double> fitness = problem::compactFitness;
+        if (fitnessCache != null) {
+            fitness = fitnessCache.memoize(fitness, problem::compactSequenceHash);
+        }
+
+        Evaluator<TypeGene, Double> packing = evaluator != null ? evaluator
+                : batchEvaluator != null ? batchEvaluator.evaluator(executor, problem::compactTypeSequence)
+                : Evaluators.concurrent(fitness, executor);
+        if (surrogateScreening != null) {
+            packing = surrogateScreening.evaluator(packing, problem::compactTypeSequence);
+        }
+        Engine.Builder<TypeGene, Double> builder = evaluator != null || batchEvaluator != null
+                || surrogateScreening != null
+                ? new Engine.Builder<>(packing, problem.compactGenotypeFactory())
+                : Engine.builder(fitness, problem.compactGenotypeFactory());
+        builder.populationSize(populationSize)
+                .maximizing()
+                .alterers(
+                        new MultisetOrderCrossover<>(crossoverRate),
+                        new MultisetSwapMutator<>(mutationRate))
                 .selector(new TournamentSelector<>(5))
+                .executor(executor);
+        if (memeticSearch != null) {
+            builder.interceptor(memeticSearch.interceptor(executor, problem::compactTypeSequence,
+                    problem::compactOrder));
+        }
+        Engine<TypeGene, Double> engine = builder.build();
+
+        Checkpointer<TypeGene> checkpointer = new Checkpointer<>(checkpointFile, checkpointInterval,
+                EvolutionCheckpoint.Encoding.COMPACT, TypeGene::type, random);
+        List<Genotype<TypeGene>> seeds = List.of();
+        if (resumed != null) {
+            checkpointer.resume(resumed, problem::compactOrder);
+        } else if (heuristicSeeds > 0) {
+            seeds = problem.compactHeuristicSeeds(Math.min(heuristicSeeds, populationSize));
+        }
+
+        Phenotype<TypeGene, Double> best;
+        if (migration != null) {
+            System.out.println("Starting evolution of island " + island + "...\n");
+            best = islandModel.evolveIsland(island, engine, maxGenerations, seeds, termination, expanded, migration);
+        } else {
+            best = evolve(engine, termination, expanded, checkpointer, seeds, random);
+        }
+        return Phenotype.of(problem.expand(best.genotype()), best.generation(), best.fitness());
+    }
+
+    private Phenotype<IntegerGene, Double> evolveRunLength(Executor executor, TerminationPolicy termination,
+            CheckpointRandom random) {
+        Engine<IntegerGene, Double> engine = Engine.builder(problem::runLengthFitness,
+                problem.runLengthGenotypeFactory())
+                .populationSize(populationSize)
+                .maximizing()
+                .alterers(
+                        new SinglePointCrossover<>(crossoverRate),
+                        new Mutator<>(mutationRate))
+                .selector(new TournamentSelector<>(5))
+                .executor(executor)
                 .build();
 
-        // Track evolution statistics
-        EvolutionStatistics<Double, ?> statistics = EvolutionStatistics.ofNumber();
+        // Checkpoints are rejected for run-length runs, so nothing is ever written
+        Checkpointer<IntegerGene> checkpointer = new Checkpointer<>(null, 1,
+                EvolutionCheckpoint.Encoding.COMPACT, IntegerGene::intValue, random);
+        return evolve(engine, termination, best -> {
+        }, checkpointer, List.of(), random);
+    }
 
+    /**
+     * Evolve until the generation limit or the termination policy, passing
+     * every new best individual to {@code improved}
+     *
+     * A single population starts from the checkpointer's population if it
+     * restored one, else from the seeds topped up with random individuals,
+     * and is checkpointed along the way.
+     */
+    private <G extends Gene<?, G>> Phenotype<G, Double> evolve(Engine<G, Double> engine,
+            TerminationPolicy termination, Consumer<Phenotype<G, Double>> improved, Checkpointer<G> checkpointer,
+            List<Genotype<G>> seeds, CheckpointRandom random) {
         // Run the evolution
         System.out.println("Starting evolution...\n");
 
-        Phenotype<EnumGene<String>, Double> best = engine.stream()
-                .limit(maxGenerations)
+        if (islandModel != null) {
+            return islandModel.evolve(engine, maxGenerations, seeds, termination, improved, random);
+        }
+
+        TerminationPolicy.Termination proceed = termination.start();
+        final long[] lastGeneration = { 0 };
+        final double[] bestSoFar = { Double.NEGATIVE_INFINITY };
+        AtomicReference<EvolutionResult<G, Double>> last = new AtomicReference<>();
+        ISeq<Phenotype<G, Double>> resumed = checkpointer.population();
+        long startGeneration = checkpointer.generation();
+
+        Phenotype<G, Double> best = (resumed != null ? engine.stream(resumed, startGeneration + 1)
+                : engine.stream(seeds))
+                .limit(proceed)
+                .limit(Math.max(0, maxGenerations - startGeneration))
                 .peek(result -> {
+                    last.set(result);
+                    checkpointer.record(result);
                     long gen = result.generation();
+                    lastGeneration[0] = gen;
                     double bestFitness = result.bestFitness();
+                    if (bestFitness > bestSoFar[0]) {
+                        bestSoFar[0] = bestFitness;
+                        improved.accept(result.bestPhenotype());
+                    }
                     double avgFitness = result.population().stream()
                             .mapToDouble(p -> p.fitness())
                             .average()
@@ -80,26 +791,20 @@ public class GeneticBinPacker {
                 })
                 .collect(EvolutionResult.toBestPhenotype());
 
-        System.out.println("\n========================================");
-        System.out.println("  Optimization Complete!");
-        System.out.println("========================================");
-        System.out.printf("Best Fitness: %.4f%n", best.fitness());
-
-        // Convert to solution
-        PackingSolution solution = problem.convertToSolution(best.genotype());
-
-        // Calculate detailed metrics
-        int usedVolume = (int) (problem.getBin().getTotalVolume() - solution.getTotalWastage());
-        double utilization = (double) usedVolume / problem.getBin().getTotalVolume() * 100.0;
-
-        System.out.printf("Space Utilization: %.2f%%%n", utilization);
-        System.out.printf("Used Volume: %d / %.0f%n", usedVolume, problem.getBin().getTotalVolume());
-        System.out.printf("Wasted Volume: %d%n", solution.getTotalWastage());
-        System.out.printf("Total Value: $%.2f%n", solution.getTotalCost());
-        System.out.printf("Items Packed: %d%n", solution.getPlacements().size());
-        System.out.println("========================================\n");
-
-        return new OptimizationResult(best, solution, statistics);
+        checkpointer.finish(last.get());
+        if (resumed != null) {
+            // The restored population may hold a better individual than any evolved since
+            Phenotype<G, Double> restored = resumed.stream()
+                    .max((a, b) -> Double.compare(a.fitness(), b.fitness()))
+                    .orElse(null);
+            if (best == null || restored != null && restored.fitness() > best.fitness()) {
+                best = restored;
+            }
+        }
+        if (proceed.reason() != null) {
+            System.out.printf("Stopped after generation %d: %s%n", lastGeneration[0], proceed.reason());
+        }
+        return best;
     }
 
     /**
@@ -107,21 +812,40 @@ public class GeneticBinPacker {
      */
     public static class OptimizationResult {
         private final Phenotype<EnumGene<String>, Double> bestPhenotype;
+        private final Genotype<IntegerGene> runLengthGenotype;
         private final PackingSolution solution;
         private final EvolutionStatistics<Double, ?> statistics;
 
         public OptimizationResult(Phenotype<EnumGene<String>, Double> bestPhenotype,
                 PackingSolution solution,
                 EvolutionStatistics<Double, ?> statistics) {
+            this(bestPhenotype, null, solution, statistics);
+        }
+
+        OptimizationResult(Phenotype<EnumGene<String>, Double> bestPhenotype,
+                Genotype<IntegerGene> runLengthGenotype, PackingSolution solution,
+                EvolutionStatistics<Double, ?> statistics) {
             this.bestPhenotype = bestPhenotype;
+            this.runLengthGenotype = runLengthGenotype;
             this.solution = solution;
             this.statistics = statistics;
         }
 
+        /**
+         * Best individual as an item order; null after a run-length run
+         */
         public Phenotype<EnumGene<String>, Double> getBestPhenotype() {
             return bestPhenotype;
         }
 
+        /**
+         * Best run-length genotype; null unless the run used
+         * {@link GeneticBinPacker#withRunLengthEncoding()}
+         */
+        public Genotype<IntegerGene> getRunLengthGenotype() {
+            return runLengthGenotype;
+        }
+
         public PackingSolution getSolution() {
             return solution;
         }
@@ -0,0 +1,125 @@
+package com.ga.binpacking.algorithm;
+
+/**
+ * 2D grid placement used by {@link ImprovedBinPackingProblem}
+ *
+ * Occupancy is a one-cell-deep {@link OccupancyGrid}; the depth argument of
+ * {@link #find} and {@link #commit} is ignored. The scan order depends on
+ * the packing strategy gene:
+ * 0 = bottom-left, 1 = top-left, 2 = closest to the origin, 3 = column-first.
+ */
+class GridPlacement2D implements PlacementEngine {
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final OccupancyGrid occupied;
+
+    // Rectangles written since the last reset, released again on reset
+    private final BoxLog written = new BoxLog();
+
+    private int strategy;
+
+    GridPlacement2D(int gridWidth, int gridHeight) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.occupied = new OccupancyGrid(gridWidth, gridHeight, 1);
+    }
+
+    void setStrategy(int strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < written.size(); i++) {
+            occupied.release(written.x(i), written.y(i), 0, written.w(i), written.h(i), 1);
+        }
+        written.clear();
+    }
+
+    @Override
+    public boolean find(int w, int h, int d, int[] out) {
+        switch (strategy) {
+            case 1:
+                return findTopLeft(w, h, out);
+            case 2:
+                return findBestFit(w, h, out);
+            case 3:
+                return findFirstFit(w, h, out);
+            case 0:
+            default:
+                return findBottomLeft(w, h, out);
+        }
+    }
+
+    @Override
+    public void commit(int x, int y, int z, int w, int h, int d) {
+        occupied.fill(x, y, 0, w, h, 1);
+        written.add(x, y, 0, w, h, 1);
+    }
+
+    @Override
+    public boolean isMonotone() {
+        // Every strategy scans the whole grid
+        return true;
+    }
+
+    private boolean findBottomLeft(int w, int h, int[] out) {
+        for (int y = 0; y <= gridHeight - h; y++) {
+            for (int x = 0; x <= gridWidth - w; x++) {
+                if (occupied.isFree(x, y, 0, w, h, 1)) {
+                    return found(x, y, out);
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean findTopLeft(int w, int h, int[] out) {
+        for (int y = gridHeight - h; y >= 0; y--) {
+            for (int x = 0; x <= gridWidth - w; x++) {
+                if (occupied.isFree(x, y, 0, w, h, 1)) {
+                    return found(x, y, out);
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean findBestFit(int w, int h, int[] out) {
+        int bestX = -1, bestY = -1;
+        double bestScore = Double.MAX_VALUE;
+
+        for (int y = 0; y <= gridHeight - h; y++) {
+            for (int x = 0; x <= gridWidth - w; x++) {
+                if (occupied.isFree(x, y, 0, w, h, 1)) {
+                    double score = Math.sqrt(x * x + y * y);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestX = x;
+                        bestY = y;
+                    }
+                }
+            }
+        }
+        return bestX >= 0 && found(bestX, bestY, out);
+    }
+
+    private boolean findFirstFit(int w, int h, int[] out) {
+        for (int x = 0; x <= gridWidth - w; x++) {
+            for (int y = 0; y <= gridHeight - h; y++) {
+                if (occupied.isFree(x, y, 0, w, h, 1)) {
+                    return found(x, y, out);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean found(int x, int y, int[] out) {
+        out[0] = x;
+        out[1] = y;
+        out[2] = 0;
+        return true;
+    }
+}
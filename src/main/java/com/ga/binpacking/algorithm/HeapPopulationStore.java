@@ -0,0 +1,41 @@
+package com.ga.binpacking.algorithm;
+
+/**
+ * Population store on the heap: one flat int[] matrix and a double[]
+ * fitness column
+ */
+final class HeapPopulationStore extends PopulationStore {
+
+    private final int[] genes;
+    private final double[] fitness;
+
+    HeapPopulationStore(int size, int length) {
+        super(size, length);
+        if ((long) size * length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Population of " + size + " x " + length
+                    + " genes does not fit one array; use off-heap storage");
+        }
+        this.genes = new int[size * length];
+        this.fitness = new double[size];
+    }
+
+    @Override
+    void read(int row, int[] into) {
+        System.arraycopy(genes, row * length, into, 0, length);
+    }
+
+    @Override
+    void write(int row, int[] from) {
+        System.arraycopy(from, 0, genes, row * length, length);
+    }
+
+    @Override
+    double fitness(int row) {
+        return fitness[row];
+    }
+
+    @Override
+    void setFitness(int row, double value) {
+        fitness[row] = value;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Gravity-stacked placement on a heightmap of the bin floor
+ *
+ * The free space is described only by the height of the top surface over
+ * each (x, z) cell of the W x D floor, so memory is O(W*D) instead of
+ * O(W*H*D). A w x d footprint at (x, z) rests on the highest cell under it;
+ * that support height is computed for every footprint position with a
+ * two-pass sliding-window maximum (along x, then along z) using a monotonic
+ * deque, which costs O(W*D) per item regardless of the footprint size. The
+ * item goes to the lowest support, ties broken by z, then x.
+ */
+class HeightmapPlacement implements PlacementEngine {
+
+    private final int binWidth;
+    private final int binHeight;
+    private final int binDepth;
+
+    // Top surface height per floor cell, indexed z * binWidth + x
+    private final int[] heights;
+
+    // Window maxima along x, then along z (same indexing as heights)
+    private final int[] rowMax;
+    private final int[] support;
+
+    // Footprints raised since the last reset, lowered again on reset
+    private final BoxLog written = new BoxLog();
+
+    // Monotonic deque of candidate indices for the sliding-window maximum
+    private final int[] deque;
+
+    HeightmapPlacement(int binWidth, int binHeight, int binDepth) {
+        this.binWidth = binWidth;
+        this.binHeight = binHeight;
+        this.binDepth = binDepth;
+        this.heights = new int[binWidth * binDepth];
+        this.rowMax = new int[binWidth * binDepth];
+        this.support = new int[binWidth * binDepth];
+        this.deque = new int[Math.max(binWidth, binDepth)];
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < written.size(); i++) {
+            int x1 = Math.min(binWidth, written.x(i) + written.w(i));
+            int z1 = Math.min(binDepth, written.z(i) + written.d(i));
+            for (int k = Math.max(0, written.z(i)); k < z1; k++) {
+                Arrays.fill(heights, k * binWidth + Math.max(0, written.x(i)), k * binWidth + x1, 0);
+            }
+        }
+        written.clear();
+    }
+
+    @Override
+    public boolean find(int w, int h, int d, int[] out) {
+        // A box with no width or depth still rests on the cell it stands in
+        w = Math.max(1, w);
+        d = Math.max(1, d);
+        if (w > binWidth || d > binDepth || h > binHeight) {
+            return false;
+        }
+
+        int lastX = binWidth - w;
+        int lastZ = binDepth - d;
+
+        // Pass 1: maximum over [x, x+w) for every row z
+        for (int z = 0; z < binDepth; z++) {
+            slidingMax(heights, z * binWidth, 1, binWidth, w, rowMax, z * binWidth, 1);
+        }
+
+        // Pass 2: maximum over [z, z+d) of the row maxima for every column x
+        for (int x = 0; x <= lastX; x++) {
+            slidingMax(rowMax, x, binWidth, binDepth, d, support, x, binWidth);
+        }
+
+        int bestY = Integer.MAX_VALUE;
+        int bestX = -1, bestZ = -1;
+        for (int z = 0; z <= lastZ; z++) {
+            int row = z * binWidth;
+            for (int x = 0; x <= lastX; x++) {
+                int y = support[row + x];
+                if (y < bestY) {
+                    bestY = y;
+                    bestX = x;
+                    bestZ = z;
+                }
+            }
+        }
+
+        if (bestX < 0 || bestY + h > binHeight) {
+            return false;
+        }
+        out[0] = bestX;
+        out[1] = bestY;
+        out[2] = bestZ;
+        return true;
+    }
+
+    @Override
+    public void commit(int x, int y, int z, int w, int h, int d) {
+        int top = y + h;
+        written.add(x, y, z, w, h, d);
+        int x1 = Math.min(binWidth, x + w);
+        int z1 = Math.min(binDepth, z + d);
+        for (int k = Math.max(0, z); k < z1; k++) {
+            int row = k * binWidth;
+            for (int i = Math.max(0, x); i < x1; i++) {
+                if (heights[row + i] < top) {
+                    heights[row + i] = top;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isMonotone() {
+        // Heights only grow, so support heights never drop
+        return true;
+    }
+
+    /**
+     * Maximum of every window of {@code window} consecutive values
+     *
+     * Reads {@code length} values from {@code src} starting at {@code srcOffset}
+     * with stride {@code srcStride} and writes the maximum of the window that
+     * starts at position i to {@code dst[dstOffset + i * dstStride]} for every
+     * i in [0, length - window]. The window must be at least 1.
+     */
+    private void slidingMax(int[] src, int srcOffset, int srcStride, int length, int window,
+            int[] dst, int dstOffset, int dstStride) {
+        int head = 0, tail = 0;
+        for (int i = 0; i < length; i++) {
+            int value = src[srcOffset + i * srcStride];
+            while (tail > head && src[srcOffset + deque[tail - 1] * srcStride] <= value) {
+                tail--;
+            }
+            deque[tail++] = i;
+            if (deque[head] <= i - window) {
+                head++;
+            }
+            int start = i - window + 1;
+            if (start >= 0) {
+                dst[dstOffset + start * dstStride] = src[srcOffset + deque[head] * srcStride];
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Item-type sequences from constructive packing heuristics, used to seed the
+ * initial population
+ *
+ * The decoders pack types in sequence order and skip whatever no longer
+ * fits, so a sequence sorted by decreasing size is first-fit-decreasing.
+ * Besides the three deterministic rules, GRASP variants build a sequence
+ * greedily but pick each next item at random from the restricted candidate
+ * list: the types with copies left whose score is within {@code alpha} of
+ * the best remaining score, relative to the remaining range. Item copies of
+ * different types thereby interleave, unlike in the sorted sequences.
+ */
+final class HeuristicSeeder {
+
+    /**
+     * Greedy criterion, largest score first
+     */
+    enum Rule {
+        VOLUME, // Volume, or area for 2D items
+        VALUE_DENSITY, // Cost per unit of volume (or area)
+        LARGEST_FACE; // Largest face area, the bounding box area for 2D items
+
+        double score(ItemCatalog catalog, int type) {
+            double size = size(catalog, type);
+            switch (this) {
+                case VALUE_DENSITY:
+                    return size > 0 ? catalog.cost(type) / size : 0.0;
+                case LARGEST_FACE:
+                    double w = catalog.width(type);
+                    double h = catalog.height(type);
+                    double d = catalog.depth(type);
+                    return Math.max(w * h, Math.max(w * d, h * d));
+                case VOLUME:
+                default:
+                    return size;
+            }
+        }
+
+        private static double size(ItemCatalog catalog, int type) {
+            double volume = catalog.volume(type);
+            return volume > 0 ? volume : catalog.area(type);
+        }
+    }
+
+    // Default width of the GRASP candidate list
+    static final double DEFAULT_ALPHA = 0.3;
+
+    private final ItemCatalog catalog;
+    private final double alpha;
+
+    HeuristicSeeder(ItemCatalog catalog, double alpha) {
+        if (alpha < 0.0 || alpha > 1.0) {
+            throw new IllegalArgumentException("GRASP alpha must be within [0, 1]: " + alpha);
+        }
+        this.catalog = catalog;
+        this.alpha = alpha;
+    }
+
+    /**
+     * First-fit-decreasing sequence of {@code copies[type]} items of every
+     * type by a rule; ties keep the catalog order
+     */
+    int[] decreasing(Rule rule, int[] copies) {
+        return sequence(rule, copies, 0.0, null);
+    }
+
+    /**
+     * Randomized greedy sequence of {@code copies[type]} items of every type
+     */
+    int[] grasp(Rule rule, int[] copies, RandomGenerator random) {
+        return sequence(rule, copies, alpha, random);
+    }
+
+    /**
+     * {@code count} sequences: one per rule in declaration order, then GRASP
+     * variants cycling through the rules
+     */
+    List<int[]> sequences(int count, int[] copies, RandomGenerator random) {
+        Rule[] rules = Rule.values();
+        List<int[]> sequences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Rule rule = rules[i % rules.length];
+            sequences.add(i < rules.length ? decreasing(rule, copies) : grasp(rule, copies, random));
+        }
+        return sequences;
+    }
+
+    private int[] sequence(Rule rule, int[] copies, double alpha, RandomGenerator random) {
+        int types = catalog.size();
+        double[] scores = new double[types];
+        int[] left = copies.clone();
+        int length = 0;
+        for (int type = 0; type < types; type++) {
+            scores[type] = rule.score(catalog, type);
+            length += left[type];
+        }
+
+        int[] sequence = new int[length];
+        int[] candidates = new int[types];
+        for (int i = 0; i < length; i++) {
+            double best = Double.NEGATIVE_INFINITY;
+            double worst = Double.POSITIVE_INFINITY;
+            for (int type = 0; type < types; type++) {
+                if (left[type] > 0) {
+                    best = Math.max(best, scores[type]);
+                    worst = Math.min(worst, scores[type]);
+                }
+            }
+
+            double threshold = best - alpha * (best - worst);
+            int count = 0;
+            for (int type = 0; type < types; type++) {
+                if (left[type] > 0 && scores[type] >= threshold) {
+                    candidates[count++] = type;
+                }
+            }
+
+            int next = count == 1 || random == null ? candidates[0] : candidates[random.nextInt(count)];
+            sequence[i] = next;
+            left[next]--;
+        }
+        return sequence;
+    }
+}
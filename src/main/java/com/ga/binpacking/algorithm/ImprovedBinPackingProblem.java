@@ -2,236 +2,270 @@ package com.ga.binpacking.algorithm;
 
 import com.ga.binpacking.model.*;
 import io.jenetics.*;
-import io.jenetics.util.ISeq;
+import io.jenetics.engine.Evaluator;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.RandomRegistry;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.random.RandomGenerator;
 
 public class ImprovedBinPackingProblem {
 
+    private static final int PRIORITY_GENES = 4;
+    private static final int MAX_PRIORITY = 100;
+    private static final int MAX_STRATEGY = 10;
+
+    // Packing strategies selected by strategy gene 0, modulo this count
+    private static final int STRATEGIES = 4;
+
     private final List<Item> availableItems;
     private final Bin bin;
-    private final Map<String, Item> itemMap;
+    private final ItemCatalog catalog;
+
+    // Types ranked by the priority genes, in the order ties are resolved
+    private final int[] rankedTypes;
+
+    // Reusable evaluation state, one per evaluating thread
+    private final ThreadLocal<EvaluationWorkspace> workspaces = ThreadLocal.withInitial(this::createWorkspace);
 
     public ImprovedBinPackingProblem(List<Item> availableItems, Bin bin) {
         this.availableItems = availableItems;
         this.bin = bin;
-        this.itemMap = new HashMap<>();
-        for (Item item : availableItems) {
-            itemMap.put(item.getId(), item);
+        this.catalog = new ItemCatalog(availableItems);
+
+        // Priorities are ranked with a stable sort over a HashMap's entries,
+        // so equal priorities keep the map's iteration order
+        Map<String, Integer> ranked = new HashMap<>();
+        for (int i = 0; i < availableItems.size() && i < PRIORITY_GENES; i++) {
+            ranked.put(availableItems.get(i).getId(), i);
+        }
+        this.rankedTypes = new int[ranked.size()];
+        int index = 0;
+        for (Integer type : ranked.values()) {
+            rankedTypes[index++] = type;
         }
     }
 
     public io.jenetics.util.Factory<Genotype<IntegerGene>> genotypeFactory() {
         return Genotype.of(
-                IntegerChromosome.of(0, 100, 4),
-                IntegerChromosome.of(0, 10, 2));
+                IntegerChromosome.of(0, MAX_PRIORITY, PRIORITY_GENES),
+                IntegerChromosome.of(0, MAX_STRATEGY, 2));
+    }
+
+    /**
+     * Genotypes of {@code count} heuristic type rankings for seeding the
+     * initial population
+     *
+     * Rankings are first-fit-decreasing by area, value density and bounding
+     * box area, then GRASP variants (see {@link HeuristicSeeder}); each is
+     * tried with every packing strategy before the next. GRASP and the
+     * unused layer gene draw from the RandomRegistry.
+     */
+    public List<Genotype<IntegerGene>> heuristicSeeds(int count) {
+        int types = Math.min(catalog.size(), PRIORITY_GENES);
+        int[] once = new int[catalog.size()];
+        Arrays.fill(once, 0, types, 1);
+
+        RandomGenerator random = RandomRegistry.random();
+        HeuristicSeeder seeder = new HeuristicSeeder(catalog, HeuristicSeeder.DEFAULT_ALPHA);
+        List<int[]> rankings = seeder.sequences((count + STRATEGIES - 1) / STRATEGIES, once, random);
+
+        List<Genotype<IntegerGene>> seeds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int[] ranking = rankings.get(i / STRATEGIES);
+            IntegerGene[] priorities = new IntegerGene[PRIORITY_GENES];
+            Arrays.fill(priorities, IntegerGene.of(0, 0, MAX_PRIORITY));
+            // Gene ranges exclude their upper bound; an invalid seed would be
+            // replaced by a random individual
+            for (int r = 0; r < ranking.length; r++) {
+                priorities[ranking[r]] = IntegerGene.of((MAX_PRIORITY - 1) - r * (MAX_PRIORITY - 1) / types,
+                        0, MAX_PRIORITY);
+            }
+            seeds.add(Genotype.of(
+                    IntegerChromosome.of(priorities),
+                    IntegerChromosome.of(
+                            IntegerGene.of(i % STRATEGIES, 0, MAX_STRATEGY),
+                            IntegerGene.of(random.nextInt(MAX_STRATEGY), 0, MAX_STRATEGY))));
+        }
+        return seeds;
     }
 
     public double fitness(Genotype<IntegerGene> genotype) {
         IntegerChromosome priorities = (IntegerChromosome) genotype.get(0);
         IntegerChromosome strategy = (IntegerChromosome) genotype.get(1);
 
-        List<String> itemSequence = createItemSequence(priorities);
-
-        int packingStrategy = strategy.get(0).intValue() % 4;
-        int layerPreference = strategy.get(1).intValue() % 3;
-
-        List<PlacedItem> placedItems = packItems(itemSequence, packingStrategy, layerPreference);
-
-        double usedArea = placedItems.stream()
-                .mapToDouble(pi -> pi.getItem().getArea())
-                .sum();
-
-        double occupiedArea = placedItems.stream()
-                .mapToDouble(pi -> pi.getItem().getBoundingBoxArea())
-                .sum();
-
-        double wastedArea = occupiedArea - usedArea;
-
-        double totalValue = placedItems.stream()
-                .mapToDouble(pi -> pi.getItem().getCost())
-                .sum();
+        int packingStrategy = strategy.get(0).intValue() % STRATEGIES;
 
-        double totalArea = bin.getTotalArea();
+        EvaluationWorkspace workspace = workspaces.get();
+        packItems(priorities, packingStrategy, workspace);
 
-        double utilizationScore = (usedArea / totalArea) * 100.0;
-        double valueScore = totalValue / 10.0;
-        double wastePenalty = (wastedArea / totalArea) * 50.0;
-
-        return utilizationScore + valueScore - wastePenalty;
+        return score(workspace);
     }
 
-    private List<String> createItemSequence(IntegerChromosome priorities) {
-        Map<String, Integer> itemPriorities = new HashMap<>();
-        int index = 0;
-        for (Item item : availableItems) {
-            if (index < priorities.length()) {
-                itemPriorities.put(item.getId(), priorities.get(index).intValue());
-                index++;
-            }
+    /**
+     * Evaluator for a whole generation at once
+     *
+     * The fitness depends only on the decoded type ranking and packing
+     * strategy, and a population holds few distinct ones, so individuals
+     * are grouped by them and each group is packed once. The groups are
+     * packed in chunks of {@code chunkSize} on the executor. Results are
+     * identical to {@link #fitness}.
+     */
+    public Evaluator<IntegerGene, Double> batchEvaluator(Executor executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
         }
-
-        List<String> sequence = new ArrayList<>();
-
-        List<Map.Entry<String, Integer>> sortedEntries = itemPriorities.entrySet()
-                .stream()
-                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-                .collect(Collectors.toList());
-
-        for (Map.Entry<String, Integer> entry : sortedEntries) {
-            String itemId = entry.getKey();
-            Item item = itemMap.get(itemId);
-            int quantity = Math.min(item.getAvailableQuantity(), 100);
-
-            for (int i = 0; i < quantity; i++) {
-                sequence.add(itemId);
+        return population -> {
+            MSeq<Phenotype<IntegerGene, Double>> result = MSeq.of(population);
+            EvaluationWorkspace workspace = workspaces.get();
+            Map<List<Integer>, List<Integer>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < result.length(); i++) {
+                if (result.get(i).isEvaluated()) {
+                    continue;
+                }
+                Genotype<IntegerGene> genotype = result.get(i).genotype();
+
+                // Key: the strategy followed by the ranked types
+                int count = rankTypes((IntegerChromosome) genotype.get(0), workspace);
+                List<Integer> key = new ArrayList<>(count + 1);
+                key.add(genotype.get(1).get(0).intValue() % STRATEGIES);
+                for (int r = 0; r < count; r++) {
+                    key.add(workspace.typeOrder()[r]);
+                }
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
             }
-        }
-
-        return sequence;
-    }
 
-    private List<PlacedItem> packItems(List<String> sequence, int strategy, int layerPref) {
-        List<PlacedItem> packed = new ArrayList<>();
-        int gridWidth = (int) Math.ceil(bin.getWidth());
-        int gridHeight = (int) Math.ceil(bin.getHeight());
-        boolean[][] occupied = new boolean[gridWidth][gridHeight];
-
-        for (String itemId : sequence) {
-            Item item = itemMap.get(itemId);
-            if (item == null)
-                continue;
-
-            Position2D position = findPosition(item, occupied, strategy);
+            List<List<Integer>> keys = new ArrayList<>(groups.keySet());
+            double[] fitness = new double[keys.size()];
+            BatchEvaluator.runChunks(keys.size(), chunkSize, executor, (from, to) -> {
+                EvaluationWorkspace own = workspaces.get();
+                for (int k = from; k < to; k++) {
+                    List<Integer> key = keys.get(k);
+                    int[] order = new int[key.size() - 1];
+                    for (int r = 0; r < order.length; r++) {
+                        order[r] = key.get(r + 1);
+                    }
+                    packRanked(order, order.length, key.get(0), own);
+                    fitness[k] = score(own);
+                }
+            });
 
-            if (position != null) {
-                PlacedItem placedItem = new PlacedItem(item, position, 0);
-                packed.add(placedItem);
-                markOccupied(occupied, position, item);
+            for (int k = 0; k < keys.size(); k++) {
+                for (int i : groups.get(keys.get(k))) {
+                    result.set(i, result.get(i).withFitness(fitness[k]));
+                }
             }
-        }
-
-        return packed;
+            return result.toISeq();
+        };
     }
 
-    private Position2D findPosition(Item item, boolean[][] occupied, int strategy) {
-        switch (strategy) {
-            case 0:
-                return findBottomLeft(item, occupied);
-            case 1:
-                return findTopLeft(item, occupied);
-            case 2:
-                return findBestFit(item, occupied);
-            case 3:
-                return findFirstFit(item, occupied);
-            default:
-                return findBottomLeft(item, occupied);
+    /**
+     * Fitness of the placements currently recorded in a workspace
+     */
+    private double score(EvaluationWorkspace workspace) {
+        double usedArea = 0;
+        double occupiedArea = 0;
+        double totalValue = 0;
+        for (int i = 0; i < workspace.placedCount(); i++) {
+            int type = workspace.placedType(i);
+            usedArea += catalog.area(type);
+            occupiedArea += catalog.boundingBoxArea(type);
+            totalValue += catalog.cost(type);
         }
-    }
 
-    private Position2D findBottomLeft(Item item, boolean[][] occupied) {
-        int itemWidth = (int) Math.ceil(item.getWidth());
-        int itemHeight = (int) Math.ceil(item.getHeight());
+        double wastedArea = occupiedArea - usedArea;
 
-        for (int y = 0; y <= occupied[0].length - itemHeight; y++) {
-            for (int x = 0; x <= occupied.length - itemWidth; x++) {
-                if (canPlace(item, x, y, occupied)) {
-                    return new Position2D(x, y);
-                }
-            }
-        }
-        return null;
-    }
+        double totalArea = bin.getTotalArea();
 
-    private Position2D findTopLeft(Item item, boolean[][] occupied) {
-        int itemWidth = (int) Math.ceil(item.getWidth());
-        int itemHeight = (int) Math.ceil(item.getHeight());
+        double utilizationScore = (usedArea / totalArea) * 100.0;
+        double valueScore = totalValue / 10.0;
+        double wastePenalty = (wastedArea / totalArea) * 50.0;
 
-        for (int y = occupied[0].length - itemHeight; y >= 0; y--) {
-            for (int x = 0; x <= occupied.length - itemWidth; x++) {
-                if (canPlace(item, x, y, occupied)) {
-                    return new Position2D(x, y);
-                }
-            }
-        }
-        return null;
+        return utilizationScore + valueScore - wastePenalty;
     }
 
-    private Position2D findBestFit(Item item, boolean[][] occupied) {
-        Position2D bestPos = null;
-        double bestScore = Double.MAX_VALUE;
-        int itemWidth = (int) Math.ceil(item.getWidth());
-        int itemHeight = (int) Math.ceil(item.getHeight());
-
-        for (int y = 0; y <= occupied[0].length - itemHeight; y++) {
-            for (int x = 0; x <= occupied.length - itemWidth; x++) {
-                if (canPlace(item, x, y, occupied)) {
-                    double score = Math.sqrt(x * x + y * y);
-                    if (score < bestScore) {
-                        bestScore = score;
-                        bestPos = new Position2D(x, y);
-                    }
-                }
-            }
-        }
-        return bestPos;
-    }
+    /**
+     * Rank item types by descending priority gene into the workspace's type
+     * order and return how many types were ranked
+     */
+    private int rankTypes(IntegerChromosome priorities, EvaluationWorkspace workspace) {
+        int[] order = workspace.typeOrder();
+        int[] scores = workspace.typeScores();
+        int count = 0;
+
+        for (int type : rankedTypes) {
+            if (type >= priorities.length())
+                continue;
 
-    private Position2D findFirstFit(Item item, boolean[][] occupied) {
-        int itemWidth = (int) Math.ceil(item.getWidth());
-        int itemHeight = (int) Math.ceil(item.getHeight());
+            int score = priorities.get(type).intValue();
 
-        for (int x = 0; x <= occupied.length - itemWidth; x++) {
-            for (int y = 0; y <= occupied[0].length - itemHeight; y++) {
-                if (canPlace(item, x, y, occupied)) {
-                    return new Position2D(x, y);
-                }
+            // Stable insertion sort, highest priority first
+            int at = count;
+            while (at > 0 && scores[at - 1] < score) {
+                order[at] = order[at - 1];
+                scores[at] = scores[at - 1];
+                at--;
             }
+            order[at] = type;
+            scores[at] = score;
+            count++;
         }
-        return null;
+        return count;
     }
 
-    private boolean canPlace(Item item, int x, int y, boolean[][] occupied) {
-        int itemWidth = (int) Math.ceil(item.getWidth());
-        int itemHeight = (int) Math.ceil(item.getHeight());
-
-        if (x + itemWidth > occupied.length || y + itemHeight > occupied[0].length) {
-            return false;
-        }
+    private void packItems(IntegerChromosome priorities, int strategy, EvaluationWorkspace workspace) {
+        int rankedCount = rankTypes(priorities, workspace);
+        packRanked(workspace.typeOrder(), rankedCount, strategy, workspace);
+    }
 
-        for (int i = x; i < x + itemWidth; i++) {
-            for (int j = y; j < y + itemHeight; j++) {
-                if (occupied[i][j]) {
-                    return false;
-                }
+    /**
+     * Pack all units of the first {@code rankedCount} types of
+     * {@code order}, type by type
+     */
+    private void packRanked(int[] order, int rankedCount, int strategy, EvaluationWorkspace workspace) {
+        workspace.reset();
+        GridPlacement2D engine = (GridPlacement2D) workspace.engine();
+        engine.setStrategy(strategy);
+        int[] position = workspace.position();
+
+        for (int r = 0; r < rankedCount; r++) {
+            int type = order[r];
+            int quantity = catalog.quantity(type);
+            int w = catalog.extentX(type, 0);
+            int h = catalog.extentY(type, 0);
+
+            // Units are expanded lazily; once one does not fit, the grid is
+            // unchanged and no further unit of the type can fit either
+            for (int i = 0; i < quantity; i++) {
+                if (!engine.find(w, h, 1, position))
+                    break;
+                engine.commit(position[0], position[1], 0, w, h, 1);
+                workspace.recordPlacement(type);
             }
         }
-        return true;
     }
 
-    private void markOccupied(boolean[][] occupied, Position2D position, Item item) {
-        int x = (int) position.getX();
-        int y = (int) position.getY();
-        int itemWidth = (int) Math.ceil(item.getWidth());
-        int itemHeight = (int) Math.ceil(item.getHeight());
-
-        for (int i = x; i < x + itemWidth && i < occupied.length; i++) {
-            for (int j = y; j < y + itemHeight && j < occupied[0].length; j++) {
-                occupied[i][j] = true;
-            }
-        }
+    private EvaluationWorkspace createWorkspace() {
+        int gridWidth = (int) Math.ceil(bin.getWidth());
+        int gridHeight = (int) Math.ceil(bin.getHeight());
+        return new EvaluationWorkspace(new GridPlacement2D(gridWidth, gridHeight), catalog.size());
     }
 
     public PackingSolution convertToSolution(Genotype<IntegerGene> genotype) {
         IntegerChromosome priorities = (IntegerChromosome) genotype.get(0);
         IntegerChromosome strategy = (IntegerChromosome) genotype.get(1);
 
-        List<String> itemSequence = createItemSequence(priorities);
-        int packingStrategy = strategy.get(0).intValue() % 4;
-        int layerPreference = strategy.get(1).intValue() % 3;
+        int packingStrategy = strategy.get(0).intValue() % STRATEGIES;
 
-        List<PlacedItem> placedItems = packItems(itemSequence, packingStrategy, layerPreference);
+        EvaluationWorkspace workspace = workspaces.get();
+        packItems(priorities, packingStrategy, workspace);
+
+        List<PlacedItem> placedItems = new ArrayList<>(workspace.placedCount());
+        for (int i = 0; i < workspace.placedCount(); i++) {
+            placedItems.add(new PlacedItem(catalog.item(workspace.placedType(i)),
+                    new Position2D(workspace.placedX(i), workspace.placedY(i)), 0));
+        }
 
         PackingSolution solution = new PackingSolution();
 
@@ -0,0 +1,150 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fitness evaluation that resumes from cached packing states of shared
+ * sequence prefixes
+ *
+ * Packing is strictly sequential, so two sequences with the same first k
+ * genes have the same packing state after k genes. Every
+ * {@code checkpointInterval} genes the state is stored in a bounded LRU map
+ * keyed by the Zobrist hash of the prefix. An evaluation looks for the
+ * deepest cached prefix of its sequence, restores it, and only packs the
+ * remaining tail. Offspring of PMX crossover and swap mutation share long
+ * prefixes with their parents, so most evaluations become short re-packs.
+ *
+ * Results are identical to {@link BinPackingProblem#fitness}.
+ */
+public class IncrementalEvaluator {
+
+    private final BinPackingProblem problem;
+    private final int checkpointInterval;
+    private final int maxCheckpoints;
+    private final Map<Long, PackingCheckpoint> checkpoints;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder resumedEvaluations = new LongAdder();
+    private final LongAdder genesTotal = new LongAdder();
+    private final LongAdder genesSkipped = new LongAdder();
+
+    public IncrementalEvaluator(BinPackingProblem problem) {
+        this(problem, 16, 4096);
+    }
+
+    /**
+     * @param checkpointInterval number of genes between two stored states
+     * @param maxCheckpoints     maximum number of stored states (least recently
+     *                           used ones are dropped first)
+     */
+    public IncrementalEvaluator(BinPackingProblem problem, int checkpointInterval, int maxCheckpoints) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.problem = problem;
+        this.checkpointInterval = checkpointInterval;
+        this.maxCheckpoints = maxCheckpoints;
+        this.checkpoints = Collections.synchronizedMap(
+                new LinkedHashMap<Long, PackingCheckpoint>(256, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, PackingCheckpoint> eldest) {
+                        return size() > IncrementalEvaluator.this.maxCheckpoints;
+                    }
+                });
+    }
+
+    /**
+     * Same value as {@link BinPackingProblem#fitness}, packing only the part
+     * of the sequence after the deepest cached prefix
+     */
+    public double fitness(Genotype<EnumGene<String>> genotype) {
+        EvaluationWorkspace workspace = problem.workspace();
+        int length = problem.encode(genotype.chromosome(), workspace);
+        int[] sequence = workspace.sequence(length);
+
+        // Prefix hashes at every checkpoint boundary
+        ZobristHash hasher = problem.sequenceHasher();
+        int boundaries = length / checkpointInterval;
+        long[] prefixHashes = new long[boundaries + 1];
+        long hash = 0;
+        for (int i = 0; i < boundaries * checkpointInterval; i++) {
+            if (sequence[i] >= 0) {
+                hash ^= hasher.key(i, sequence[i]);
+            }
+            if ((i + 1) % checkpointInterval == 0) {
+                prefixHashes[(i + 1) / checkpointInterval] = hash;
+            }
+        }
+
+        // Resume from the deepest cached prefix
+        int resumed = 0;
+        for (int b = boundaries; b > 0; b--) {
+            PackingCheckpoint checkpoint = checkpoints.get(prefixHashes[b]);
+            if (checkpoint != null && checkpoint.geneIndex() == b * checkpointInterval) {
+                problem.restore(checkpoint, workspace);
+                resumed = b;
+                break;
+            }
+        }
+        if (resumed == 0) {
+            problem.startPacking(workspace);
+        }
+
+        // Pack the tail, storing the state at each new boundary
+        int position = resumed * checkpointInterval;
+        for (int b = resumed + 1; b <= boundaries && !workspace.allTypesDead(); b++) {
+            int end = b * checkpointInterval;
+            problem.packSequence(sequence, position, end, workspace);
+            position = end;
+            if (!checkpoints.containsKey(prefixHashes[b])) {
+                checkpoints.put(prefixHashes[b], workspace.checkpoint(end));
+            }
+        }
+        problem.packSequence(sequence, position, length, workspace);
+
+        evaluations.increment();
+        genesTotal.add(length);
+        if (resumed > 0) {
+            resumedEvaluations.increment();
+            genesSkipped.add((long) resumed * checkpointInterval);
+        }
+
+        return problem.score(workspace);
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Number of evaluations that started from a cached prefix
+     */
+    public long getResumedEvaluations() {
+        return resumedEvaluations.sum();
+    }
+
+    /**
+     * Fraction of all genes that did not have to be packed again
+     */
+    public double getSkippedGeneFraction() {
+        long total = genesTotal.sum();
+        return total == 0 ? 0.0 : (double) genesSkipped.sum() / total;
+    }
+
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IncrementalEvaluator[evaluations=%d, resumed=%d, genesSkipped=%.2f%%, checkpoints=%d]",
+                getEvaluations(), getResumedEvaluations(), getSkippedGeneFraction() * 100.0,
+                getCheckpointCount());
+    }
+}
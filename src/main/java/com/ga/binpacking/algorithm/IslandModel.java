@@ -0,0 +1,195 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Gene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Engine;
+import io.jenetics.engine.EvolutionResult;
+import io.jenetics.engine.EvolutionStart;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+
+/**
+ * Island-model evolution: independent populations on separate threads that
+ * exchange their best individuals every few generations
+ *
+ * All islands share one (stateless) {@link Engine} but evolve their own
+ * population on their own thread, so no island waits at another's
+ * generation boundary. Every {@code migrationInterval} generations an island
+ * sends copies of its {@code migrants} fittest individuals over a
+ * {@link Migration} and replaces its worst individuals with whatever
+ * migrants have arrived. Fitness is maximized.
+ *
+ * In-process islands use a {@link MigrationChannel}; a single island can
+ * also run against any other transport with {@link #evolveIsland}. Each
+ * island applies the termination policy to its own progress, and every
+ * new global best is reported to a listener from the island that found it.
+ */
+final class IslandModel {
+
+    private static final Comparator<Phenotype<?, Double>> BY_FITNESS = Comparator.comparingDouble(Phenotype::fitness);
+
+    private final int islands;
+    private final int migrationInterval;
+    private final int migrants;
+    private final MigrationTopology topology;
+
+    IslandModel(int islands, int migrationInterval, int migrants, MigrationTopology topology) {
+        if (islands <= 0) {
+            throw new IllegalArgumentException("Island count must be positive: " + islands);
+        }
+        if (migrationInterval <= 0) {
+            throw new IllegalArgumentException("Migration interval must be positive: " + migrationInterval);
+        }
+        if (migrants < 0) {
+            throw new IllegalArgumentException("Migrant count must not be negative: " + migrants);
+        }
+        this.islands = islands;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+        this.topology = topology;
+    }
+
+    int getIslands() {
+        return islands;
+    }
+
+    /**
+     * Evolve every island for the given number of generations and return the
+     * best individual found on any island; the seeds are dealt round-robin
+     * to the islands' first populations. The island threads draw from
+     * {@code random}, or from their own generators if it is null.
+     */
+    <G extends Gene<?, G>> Phenotype<G, Double> evolve(Engine<G, Double> engine, long generations,
+            List<Genotype<G>> seeds, TerminationPolicy termination, Consumer<Phenotype<G, Double>> improved,
+            RandomGenerator random) {
+        Migration<G> channel = new MigrationChannel<>(islands, topology);
+        AtomicReference<Phenotype<G, Double>> best = new AtomicReference<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(islands);
+        try {
+            List<Future<?>> running = new ArrayList<>(islands);
+            for (int island = 0; island < islands; island++) {
+                int id = island;
+                List<Genotype<G>> share = new ArrayList<>();
+                for (int i = island; i < seeds.size(); i += islands) {
+                    share.add(seeds.get(i));
+                }
+                Runnable task = () -> runIsland(id, engine, generations, share, termination, improved, channel, best);
+                running.add(pool.submit(random == null ? task : () -> RandomRegistry.using(random, r -> task.run())));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Island evolution failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the islands", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return best.get();
+    }
+
+    /**
+     * Evolve one island on the calling thread, starting from the given seeds
+     * and exchanging migrants over the given transport, and return its best
+     * individual
+     */
+    <G extends Gene<?, G>> Phenotype<G, Double> evolveIsland(int island, Engine<G, Double> engine, long generations,
+            List<Genotype<G>> seeds, TerminationPolicy termination, Consumer<Phenotype<G, Double>> improved,
+            Migration<G> migration) {
+        AtomicReference<Phenotype<G, Double>> best = new AtomicReference<>();
+        runIsland(island, engine, generations, seeds, termination, improved, migration, best);
+        return best.get();
+    }
+
+    private <G extends Gene<?, G>> void runIsland(int island, Engine<G, Double> engine, long generations,
+            List<Genotype<G>> seeds, TerminationPolicy termination, Consumer<Phenotype<G, Double>> improved,
+            Migration<G> channel, AtomicReference<Phenotype<G, Double>> best) {
+        EvolutionStart<G, Double> start = seeds.isEmpty() ? EvolutionStart.empty() : seeded(engine, seeds);
+        TerminationPolicy.Termination proceed = termination.start();
+
+        for (long generation = 1; generation <= generations; generation++) {
+            EvolutionResult<G, Double> result = engine.evolve(start);
+            Phenotype<G, Double> candidate = result.bestPhenotype();
+            if (best.accumulateAndGet(candidate,
+                    (current, next) -> current == null || next.fitness() > current.fitness()
+                            ? next
+                            : current) == candidate) {
+                improved.accept(candidate);
+            }
+            if (!proceed.test(result)) {
+                System.out.printf("Island %d stopped at generation %d: %s%n", island, generation, proceed.reason());
+                return;
+            }
+
+            ISeq<Phenotype<G, Double>> population = result.population();
+            if (generation % migrationInterval == 0 && generation < generations && migrants > 0) {
+                channel.send(island, fittest(population, migrants));
+                population = integrate(population, channel.receive(island));
+            }
+
+            if (island == 0 && (generation % 10 == 0 || generation == 1)) {
+                System.out.printf("Generation %3d: Best Fitness = %8.4f (all islands), Avg Fitness = %8.4f (island 0)%n",
+                        generation, best.get().fitness(),
+                        population.stream().mapToDouble(Phenotype::fitness).average().orElse(0.0));
+            }
+
+            start = EvolutionStart.of(population, result.generation() + 1);
+        }
+    }
+
+    /**
+     * First population made of the seeds, topped up with random individuals
+     */
+    private static <G extends Gene<?, G>> EvolutionStart<G, Double> seeded(Engine<G, Double> engine,
+            List<Genotype<G>> seeds) {
+        ISeq<Phenotype<G, Double>> population = Stream.concat(seeds.stream(), engine.genotypeFactory().instances())
+                .limit(engine.populationSize())
+                .map(genotype -> Phenotype.<G, Double>of(genotype, 1))
+                .collect(ISeq.toISeq());
+        return EvolutionStart.of(population, 1);
+    }
+
+    private static <G extends Gene<?, G>> List<Phenotype<G, Double>> fittest(ISeq<Phenotype<G, Double>> population,
+            int count) {
+        List<Phenotype<G, Double>> sorted = new ArrayList<>(population.asList());
+        sorted.sort(BY_FITNESS.reversed());
+        return new ArrayList<>(sorted.subList(0, Math.min(count, sorted.size())));
+    }
+
+    /**
+     * Replace the worst individuals with the best immigrants, at most half
+     * of the population
+     */
+    private static <G extends Gene<?, G>> ISeq<Phenotype<G, Double>> integrate(
+            ISeq<Phenotype<G, Double>> population, List<Phenotype<G, Double>> immigrants) {
+        if (immigrants.isEmpty()) {
+            return population;
+        }
+
+        immigrants.sort(BY_FITNESS.reversed());
+        List<Phenotype<G, Double>> next = new ArrayList<>(population.asList());
+        next.sort(BY_FITNESS);
+        int replaced = Math.min(immigrants.size(), next.size() / 2);
+        for (int i = 0; i < replaced; i++) {
+            next.set(i, immigrants.get(i));
+        }
+        return ISeq.of(next);
+    }
+}
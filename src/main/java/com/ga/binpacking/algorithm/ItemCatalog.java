@@ -0,0 +1,162 @@
+package com.ga.binpacking.algorithm;
+
+import com.ga.binpacking.model.Item;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled view of an item list for the fitness hot loop
+ *
+ * Every item type gets a dense int id (its index in the list) and its
+ * dimensions, volume, area, cost and quantity are stored in primitive
+ * arrays, so evaluation never hashes an id string or goes through the
+ * shape switch of {@link Item#getArea()}.
+ *
+ * The grid extents (cells covered along x, y and z) are precomputed for all
+ * six axis-aligned orientations. Orientation 0 is the item as given; the
+ * others permute (width, height, depth) as
+ * 1 = (d, h, w), 2 = (w, d, h), 3 = (h, w, d), 4 = (h, d, w), 5 = (d, w, h).
+ * For 2D items orientation 3 is the 90 degree rotation.
+ */
+public final class ItemCatalog {
+
+    public static final int ORIENTATIONS = 6;
+
+    // Source dimension (0 = width, 1 = height, 2 = depth) along x, y, z per orientation
+    private static final int[][] AXES = {
+            { 0, 1, 2 }, { 2, 1, 0 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 }
+    };
+
+    private final Item[] items;
+    private final Map<String, Integer> typeIndex;
+
+    private final double[] widths;
+    private final double[] heights;
+    private final double[] depths;
+    private final double[] volumes;
+    private final double[] areas;
+    private final double[] boundingBoxAreas;
+    private final double[] costs;
+    private final int[] quantities;
+
+    // Cells covered along x, y, z as consecutive triples, per type and orientation
+    private final int[] extents;
+
+    public ItemCatalog(List<Item> items) {
+        int count = items.size();
+        this.items = items.toArray(new Item[0]);
+        this.typeIndex = new HashMap<>();
+        this.widths = new double[count];
+        this.heights = new double[count];
+        this.depths = new double[count];
+        this.volumes = new double[count];
+        this.areas = new double[count];
+        this.boundingBoxAreas = new double[count];
+        this.costs = new double[count];
+        this.quantities = new int[count];
+        this.extents = new int[count * ORIENTATIONS * 3];
+
+        for (int type = 0; type < count; type++) {
+            Item item = this.items[type];
+            typeIndex.put(item.getId(), type);
+            widths[type] = item.getWidth();
+            heights[type] = item.getHeight();
+            depths[type] = item.getDepth();
+            volumes[type] = item.getVolume();
+            areas[type] = item.getArea();
+            boundingBoxAreas[type] = item.getBoundingBoxArea();
+            costs[type] = item.getCost();
+            quantities[type] = item.getAvailableQuantity();
+
+            int[] cells = { extent(widths[type]), extent(heights[type]), extent(depths[type]) };
+            for (int o = 0; o < ORIENTATIONS; o++) {
+                int at = 3 * (type * ORIENTATIONS + o);
+                extents[at] = cells[AXES[o][0]];
+                extents[at + 1] = cells[AXES[o][1]];
+                extents[at + 2] = cells[AXES[o][2]];
+            }
+        }
+    }
+
+    /**
+     * Number of grid cells covered by an item dimension
+     */
+    private static int extent(double size) {
+        return (int) Math.ceil(size);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Dense id of an item id string, or -1 if the id is unknown
+     */
+    public int typeOf(String itemId) {
+        Integer type = typeIndex.get(itemId);
+        return type == null ? -1 : type;
+    }
+
+    public Item item(int type) {
+        return items[type];
+    }
+
+    public String id(int type) {
+        return items[type].getId();
+    }
+
+    public double width(int type) {
+        return widths[type];
+    }
+
+    public double height(int type) {
+        return heights[type];
+    }
+
+    public double depth(int type) {
+        return depths[type];
+    }
+
+    public double volume(int type) {
+        return volumes[type];
+    }
+
+    public double area(int type) {
+        return areas[type];
+    }
+
+    public double boundingBoxArea(int type) {
+        return boundingBoxAreas[type];
+    }
+
+    public double cost(int type) {
+        return costs[type];
+    }
+
+    public int quantity(int type) {
+        return quantities[type];
+    }
+
+    /**
+     * Cells covered along x in the given orientation
+     */
+    public int extentX(int type, int orientation) {
+        return extents[3 * (type * ORIENTATIONS + orientation)];
+    }
+
+    /**
+     * Cells covered along y in the given orientation
+     */
+    public int extentY(int type, int orientation) {
+        return extents[3 * (type * ORIENTATIONS + orientation) + 1];
+    }
+
+    /**
+     * Cells covered along z in the given orientation
+     */
+    public int extentZ(int type, int orientation) {
+        return extents[3 * (type * ORIENTATIONS + orientation) + 2];
+    }
+}
@@ -0,0 +1,39 @@
+package com.ga.binpacking.algorithm;
+
+/**
+ * Placement on the maximal empty spaces of a {@link FreeSpaceIndex}
+ *
+ * Each item goes to the origin of the space picked by the fit rule, so the
+ * cost per item is proportional to the number of maximal spaces.
+ */
+class MaximalSpacePlacement implements PlacementEngine {
+
+    private final FreeSpaceIndex freeSpace;
+    private final FreeSpaceIndex.FitRule fitRule;
+
+    MaximalSpacePlacement(int binWidth, int binHeight, int binDepth, FreeSpaceIndex.FitRule fitRule) {
+        this.freeSpace = new FreeSpaceIndex(binWidth, binHeight, binDepth);
+        this.fitRule = fitRule;
+    }
+
+    @Override
+    public void reset() {
+        freeSpace.reset();
+    }
+
+    @Override
+    public boolean find(int w, int h, int d, int[] out) {
+        return freeSpace.find(w, h, d, fitRule, out);
+    }
+
+    @Override
+    public void commit(int x, int y, int z, int w, int h, int d) {
+        freeSpace.occupy(x, y, z, w, h, d);
+    }
+
+    @Override
+    public boolean isMonotone() {
+        // Free space only shrinks and every fit lies in some maximal space
+        return true;
+    }
+}
@@ -0,0 +1,313 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Gene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionInterceptor;
+import io.jenetics.engine.EvolutionResult;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.RandomRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Memetic stage: bounded local search on the elite of every generation
+ *
+ * After each generation the {@code elites} fittest distinct individuals are
+ * improved in parallel by first-improvement local search over their
+ * item-type sequence. Each step draws a neighbour from one of three
+ * neighbourhoods: swapping two items, moving one item elsewhere (insertion)
+ * or moving a block of up to {@value #MAX_BLOCK} items. No move changes the
+ * genes before its first changed position, so a neighbour is scored by
+ * restoring the current sequence's packing checkpoint before that position
+ * and re-packing only the tail; checkpoints are kept every
+ * {@code checkpointInterval} genes. Every individual gets at most
+ * {@code evaluations} neighbours, and an improved sequence replaces it in
+ * the population with its fitness already set.
+ *
+ * Installed as the engine's {@link EvolutionInterceptor}. Scores are those
+ * of {@link BinPackingProblem#fitness}, which is maximized.
+ */
+public class MemeticSearch {
+
+    // Longest block moved by a block move
+    private static final int MAX_BLOCK = 16;
+
+    private final BinPackingProblem problem;
+    private final int elites;
+    private final int evaluations;
+    private final int checkpointInterval;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder improvements = new LongAdder();
+    private final LongAdder neighbours = new LongAdder();
+    private final LongAdder genesTotal = new LongAdder();
+    private final LongAdder genesSkipped = new LongAdder();
+
+    public MemeticSearch(BinPackingProblem problem) {
+        this(problem, 4, 100, 8);
+    }
+
+    /**
+     * @param elites             number of fittest individuals searched per generation
+     * @param evaluations        neighbours evaluated per individual
+     * @param checkpointInterval number of genes between two stored states
+     */
+    public MemeticSearch(BinPackingProblem problem, int elites, int evaluations, int checkpointInterval) {
+        if (elites < 0 || evaluations < 0) {
+            throw new IllegalArgumentException("Elites and evaluations must not be negative: "
+                    + elites + ", " + evaluations);
+        }
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.problem = problem;
+        this.elites = elites;
+        this.evaluations = evaluations;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Interceptor running the search after every generation on the given
+     * executor, for an encoding whose genotypes map to and from item-type
+     * sequences
+     */
+    <G extends Gene<?, G>> EvolutionInterceptor<G, Double> interceptor(Executor executor,
+            Function<Genotype<G>, int[]> sequence, Function<int[], Genotype<G>> genotype) {
+        return EvolutionInterceptor.ofAfter(result -> improve(result, executor, sequence, genotype));
+    }
+
+    private <G extends Gene<?, G>> EvolutionResult<G, Double> improve(EvolutionResult<G, Double> result,
+            Executor executor, Function<Genotype<G>, int[]> sequence, Function<int[], Genotype<G>> genotype) {
+        ISeq<Phenotype<G, Double>> population = result.population();
+        List<Integer> ranked = IntStream.range(0, population.size()).boxed()
+                .sorted(Comparator.comparingDouble(i -> -population.get(i).fitness()))
+                .collect(Collectors.toList());
+
+        // Seeds are drawn here, in rank order, so searches running in
+        // parallel stay reproducible with a seeded RandomRegistry
+        Set<Long> seen = new HashSet<>();
+        List<Integer> searched = new ArrayList<>();
+        List<CompletableFuture<Improvement>> tasks = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && searched.size() < elites; i++) {
+            int index = ranked.get(i);
+            int[] types = sequence.apply(population.get(index).genotype());
+            if (!seen.add(problem.sequenceHash(types))) {
+                continue;
+            }
+            SplittableRandom random = new SplittableRandom(RandomRegistry.random().nextLong());
+            searched.add(index);
+            tasks.add(CompletableFuture.supplyAsync(() -> search(types, random), executor));
+        }
+
+        MSeq<Phenotype<G, Double>> next = null;
+        for (int i = 0; i < tasks.size(); i++) {
+            Improvement improved = tasks.get(i).join();
+            if (improved != null) {
+                if (next == null) {
+                    next = population.copy();
+                }
+                next.set(searched.get(i), Phenotype.of(genotype.apply(improved.sequence), result.generation(),
+                        improved.fitness));
+            }
+        }
+        if (next == null) {
+            return result;
+        }
+        return EvolutionResult.of(result.optimize(), next.toISeq(), result.generation(), result.totalGenerations(),
+                result.durations(), result.killCount(), result.invalidCount(), result.alterCount());
+    }
+
+    /**
+     * Better sequence found by a search, with its fitness
+     */
+    private static final class Improvement {
+        final int[] sequence;
+        final double fitness;
+
+        Improvement(int[] sequence, double fitness) {
+            this.sequence = sequence;
+            this.fitness = fitness;
+        }
+    }
+
+    /**
+     * Local search from one sequence; null if no neighbour was better
+     */
+    private Improvement search(int[] start, SplittableRandom random) {
+        int length = start.length;
+        int boundaries = length / checkpointInterval;
+        EvaluationWorkspace workspace = problem.workspace();
+
+        int[] current = start.clone();
+        int[] candidate = new int[length];
+        PackingCheckpoint[] checkpoints = new PackingCheckpoint[boundaries + 1];
+        PackingCheckpoint[] trial = new PackingCheckpoint[boundaries + 1];
+        repack(current, 0, checkpoints, checkpoints, workspace);
+        double best = problem.score(workspace);
+        boolean improved = false;
+
+        for (int e = 0; e < evaluations && length > 1; e++) {
+            System.arraycopy(current, 0, candidate, 0, length);
+            int first = move(current, candidate, random);
+            if (first < 0) {
+                continue;
+            }
+
+            int resumed = repack(candidate, first, checkpoints, trial, workspace);
+            neighbours.increment();
+            genesTotal.add(length);
+            genesSkipped.add((long) resumed * checkpointInterval);
+
+            double score = problem.score(workspace);
+            if (score > best) {
+                best = score;
+                improved = true;
+                int[] swap = current;
+                current = candidate;
+                candidate = swap;
+                System.arraycopy(trial, resumed + 1, checkpoints, resumed + 1, boundaries - resumed);
+            }
+        }
+
+        searches.increment();
+        if (!improved) {
+            return null;
+        }
+        improvements.increment();
+        return new Improvement(current, best);
+    }
+
+    /**
+     * Apply a random move of {@code from} to {@code to}, a copy of it, and
+     * return the first changed position, or -1 if the move changed nothing
+     */
+    private static int move(int[] from, int[] to, SplittableRandom random) {
+        int length = from.length;
+        switch (random.nextInt(3)) {
+            case 0: {
+                // Swap
+                int i = random.nextInt(length);
+                int j = random.nextInt(length);
+                if (from[i] == from[j]) {
+                    return -1;
+                }
+                to[i] = from[j];
+                to[j] = from[i];
+                return Math.min(i, j);
+            }
+            case 1: {
+                // Insertion: move one item
+                return moveBlock(from, to, random.nextInt(length), 1, random.nextInt(length));
+            }
+            default: {
+                // Block move
+                int block = 2 + random.nextInt(Math.max(1, Math.min(MAX_BLOCK, length) - 1));
+                block = Math.min(block, length - 1);
+                return moveBlock(from, to, random.nextInt(length - block + 1), block,
+                        random.nextInt(length - block + 1));
+            }
+        }
+    }
+
+    /**
+     * Move {@code from[start, start + block)} so that it starts at
+     * {@code target} in {@code to}
+     */
+    private static int moveBlock(int[] from, int[] to, int start, int block, int target) {
+        if (start == target) {
+            return -1;
+        }
+        if (target < start) {
+            System.arraycopy(from, start, to, target, block);
+            System.arraycopy(from, target, to, target + block, start - target);
+        } else {
+            System.arraycopy(from, start + block, to, start, target - start);
+            System.arraycopy(from, start, to, target, block);
+        }
+        return Math.min(start, target);
+    }
+
+    /**
+     * Pack a sequence whose genes before {@code first} equal those of the
+     * sequence {@code checkpoints} belong to, resuming from the deepest of
+     * them before {@code first} and storing the new ones in {@code own};
+     * returns the boundary resumed from
+     */
+    private int repack(int[] sequence, int first, PackingCheckpoint[] checkpoints, PackingCheckpoint[] own,
+            EvaluationWorkspace workspace) {
+        int length = sequence.length;
+        int boundaries = own.length - 1;
+        int resumed = Math.min(first / checkpointInterval, boundaries);
+        while (resumed > 0 && checkpoints[resumed] == null) {
+            resumed--;
+        }
+        if (resumed > 0) {
+            problem.restore(checkpoints[resumed], workspace);
+        } else {
+            problem.startPacking(workspace);
+        }
+
+        int position = resumed * checkpointInterval;
+        for (int b = resumed + 1; b <= boundaries; b++) {
+            if (workspace.allTypesDead()) {
+                own[b] = null;
+                continue;
+            }
+            int end = b * checkpointInterval;
+            problem.packSequence(sequence, position, end, workspace);
+            position = end;
+            own[b] = workspace.checkpoint(end);
+        }
+        problem.packSequence(sequence, position, length, workspace);
+        return resumed;
+    }
+
+    /**
+     * Number of individuals searched
+     */
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    /**
+     * Number of searches that found a better sequence
+     */
+    public long getImprovements() {
+        return improvements.sum();
+    }
+
+    /**
+     * Number of neighbours evaluated
+     */
+    public long getNeighbours() {
+        return neighbours.sum();
+    }
+
+    /**
+     * Fraction of the genes of all neighbours that did not have to be
+     * packed again
+     */
+    public double getSkippedGeneFraction() {
+        long total = genesTotal.sum();
+        return total == 0 ? 0.0 : (double) genesSkipped.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MemeticSearch[searches=%d, improved=%d, neighbours=%d, genesSkipped=%.2f%%]",
+                getSearches(), getImprovements(), getNeighbours(), getSkippedGeneFraction() * 100.0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Gene;
+import io.jenetics.Phenotype;
+
+import java.util.List;
+
+/**
+ * Transport for migrants between the islands of an island model
+ *
+ * Implementations must not block: {@link #receive} returns whatever has
+ * arrived so far, possibly nothing.
+ */
+public interface Migration<G extends Gene<?, G>> {
+
+    /**
+     * Send emigrants of an island to the islands its topology connects it to
+     */
+    void send(int island, List<Phenotype<G, Double>> emigrants);
+
+    /**
+     * Take every migrant that has arrived at an island
+     */
+    List<Phenotype<G, Double>> receive(int island);
+}
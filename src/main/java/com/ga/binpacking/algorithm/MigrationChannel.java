@@ -0,0 +1,51 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Gene;
+import io.jenetics.Phenotype;
+import io.jenetics.util.RandomRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lock-free mailboxes for migrants between islands
+ *
+ * Every island has an unbounded {@link ConcurrentLinkedQueue} inbox. Senders
+ * never block and receivers drain whatever has arrived, so islands that run
+ * at different speeds never wait for each other.
+ */
+final class MigrationChannel<G extends Gene<?, G>> implements Migration<G> {
+
+    private final MigrationTopology topology;
+    private final List<Queue<Phenotype<G, Double>>> inboxes;
+
+    MigrationChannel(int islands, MigrationTopology topology) {
+        this.topology = topology;
+        this.inboxes = new ArrayList<>(islands);
+        for (int i = 0; i < islands; i++) {
+            inboxes.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Deliver emigrants of an island according to the topology
+     */
+    @Override
+    public void send(int from, List<Phenotype<G, Double>> emigrants) {
+        for (int to : topology.targets(from, inboxes.size(), RandomRegistry.random())) {
+            inboxes.get(to).addAll(emigrants);
+        }
+    }
+
+    @Override
+    public List<Phenotype<G, Double>> receive(int island) {
+        Queue<Phenotype<G, Double>> inbox = inboxes.get(island);
+        List<Phenotype<G, Double>> immigrants = new ArrayList<>();
+        for (Phenotype<G, Double> migrant = inbox.poll(); migrant != null; migrant = inbox.poll()) {
+            immigrants.add(migrant);
+        }
+        return immigrants;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Which islands receive the emigrants of an island in the island model
+ */
+public enum MigrationTopology {
+    RING, // Island i sends to island i + 1, the last one to island 0
+    STAR, // Island 0 is the hub: it sends to every island, the others only to the hub
+    RANDOM; // Every migration goes to a randomly chosen other island
+
+    /**
+     * Islands that receive a migration from island {@code from}
+     */
+    public int[] targets(int from, int islands, RandomGenerator random) {
+        if (islands < 2) {
+            return new int[0];
+        }
+
+        switch (this) {
+            case STAR:
+                if (from != 0) {
+                    return new int[] { 0 };
+                }
+                int[] spokes = new int[islands - 1];
+                for (int i = 0; i < spokes.length; i++) {
+                    spokes[i] = i + 1;
+                }
+                return spokes;
+            case RANDOM:
+                int to = random.nextInt(islands - 1);
+                return new int[] { to >= from ? to + 1 : to };
+            case RING:
+            default:
+                return new int[] { (from + 1) % islands };
+        }
+    }
+}
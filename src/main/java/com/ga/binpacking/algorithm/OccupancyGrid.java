@@ -0,0 +1,167 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Bit-packed 3D occupancy grid used by the packing algorithm
+ *
+ * Every (y, z) pair owns one row of bits along the x axis, stored in
+ * consecutive long words. A box footprint is tested and marked one row at a
+ * time with masked word operations instead of one cell at a time.
+ */
+public class OccupancyGrid {
+
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    public OccupancyGrid(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height * depth];
+    }
+
+    /**
+     * Check that the box [x, x+w) x [y, y+h) x [z, z+d) lies inside the grid
+     * and does not touch any occupied cell
+     */
+    public boolean isFree(int x, int y, int z, int w, int h, int d) {
+        if (x < 0 || y < 0 || z < 0 || x + w > width || y + h > height || z + d > depth) {
+            return false;
+        }
+        if (w <= 0 || h <= 0 || d <= 0) {
+            return true;
+        }
+
+        int firstWord = x >>> 6;
+        int lastWord = (x + w - 1) >>> 6;
+        long firstMask = -1L << (x & 63);
+        long lastMask = -1L >>> (63 - ((x + w - 1) & 63));
+
+        for (int j = y; j < y + h; j++) {
+            for (int k = z; k < z + d; k++) {
+                int base = rowOffset(j, k);
+                if (firstWord == lastWord) {
+                    if ((words[base + firstWord] & firstMask & lastMask) != 0) {
+                        return false;
+                    }
+                    continue;
+                }
+                if ((words[base + firstWord] & firstMask) != 0) {
+                    return false;
+                }
+                for (int wi = firstWord + 1; wi < lastWord; wi++) {
+                    if (words[base + wi] != 0) {
+                        return false;
+                    }
+                }
+                if ((words[base + lastWord] & lastMask) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark the box [x, x+w) x [y, y+h) x [z, z+d) as occupied
+     * (clipped to the grid bounds)
+     */
+    public void fill(int x, int y, int z, int w, int h, int d) {
+        int x0 = Math.max(0, x);
+        int x1 = Math.min(width, x + w);
+        int y1 = Math.min(height, y + h);
+        int z1 = Math.min(depth, z + d);
+        if (x0 >= x1) {
+            return;
+        }
+
+        int firstWord = x0 >>> 6;
+        int lastWord = (x1 - 1) >>> 6;
+        long firstMask = -1L << (x0 & 63);
+        long lastMask = -1L >>> (63 - ((x1 - 1) & 63));
+
+        for (int j = Math.max(0, y); j < y1; j++) {
+            for (int k = Math.max(0, z); k < z1; k++) {
+                int base = rowOffset(j, k);
+                if (firstWord == lastWord) {
+                    words[base + firstWord] |= firstMask & lastMask;
+                    continue;
+                }
+                words[base + firstWord] |= firstMask;
+                for (int wi = firstWord + 1; wi < lastWord; wi++) {
+                    words[base + wi] = -1L;
+                }
+                words[base + lastWord] |= lastMask;
+            }
+        }
+    }
+
+    /**
+     * Mark the box [x, x+w) x [y, y+h) x [z, z+d) as free again
+     * (clipped to the grid bounds)
+     */
+    public void release(int x, int y, int z, int w, int h, int d) {
+        int x0 = Math.max(0, x);
+        int x1 = Math.min(width, x + w);
+        int y1 = Math.min(height, y + h);
+        int z1 = Math.min(depth, z + d);
+        if (x0 >= x1) {
+            return;
+        }
+
+        int firstWord = x0 >>> 6;
+        int lastWord = (x1 - 1) >>> 6;
+        long firstMask = -1L << (x0 & 63);
+        long lastMask = -1L >>> (63 - ((x1 - 1) & 63));
+
+        for (int j = Math.max(0, y); j < y1; j++) {
+            for (int k = Math.max(0, z); k < z1; k++) {
+                int base = rowOffset(j, k);
+                if (firstWord == lastWord) {
+                    words[base + firstWord] &= ~(firstMask & lastMask);
+                    continue;
+                }
+                words[base + firstWord] &= ~firstMask;
+                for (int wi = firstWord + 1; wi < lastWord; wi++) {
+                    words[base + wi] = 0L;
+                }
+                words[base + lastWord] &= ~lastMask;
+            }
+        }
+    }
+
+    /**
+     * Check whether a single cell is occupied
+     */
+    public boolean isOccupied(int x, int y, int z) {
+        return (words[rowOffset(y, z) + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    /**
+     * Release every cell in the grid
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private int rowOffset(int y, int z) {
+        return (y * depth + z) * wordsPerRow;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ga.binpacking.algorithm;
+
+/**
+ * Immutable snapshot of a packing after a prefix of the item sequence
+ *
+ * Placement engines are deterministic in the order of their commits, so
+ * the placements made so far (plus the dead item types) describe the whole
+ * packing state. Restoring a checkpoint replays those commits without
+ * searching for positions again.
+ */
+final class PackingCheckpoint {
+
+    private final int geneIndex;
+    private final int[] placements;
+    private final boolean[] deadTypes;
+    private final int liveTypes;
+
+    PackingCheckpoint(int geneIndex, int[] placements, boolean[] deadTypes, int liveTypes) {
+        this.geneIndex = geneIndex;
+        this.placements = placements;
+        this.deadTypes = deadTypes;
+        this.liveTypes = liveTypes;
+    }
+
+    /**
+     * Number of genes of the sequence already processed
+     */
+    int geneIndex() {
+        return geneIndex;
+    }
+
+    /**
+     * Placements as consecutive (type, x, y, z) records
+     */
+    int[] placements() {
+        return placements;
+    }
+
+    int placedCount() {
+        return placements.length / 4;
+    }
+
+    boolean[] deadTypes() {
+        return deadTypes;
+    }
+
+    int liveTypes() {
+        return liveTypes;
+    }
+}
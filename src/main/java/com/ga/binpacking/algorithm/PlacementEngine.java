@@ -0,0 +1,46 @@
+package com.ga.binpacking.algorithm;
+
+/**
+ * Strategy that decides where the next box goes inside the bin
+ *
+ * An engine keeps its own record of the space used so far. The packer asks
+ * it for a position with {@link #find} and, when it accepts the position,
+ * reports the placement back with {@link #commit}.
+ *
+ * The state of an engine must depend only on the sequence of commits since
+ * the last reset, so that it can be rebuilt by replaying those commits.
+ */
+interface PlacementEngine {
+
+    /**
+     * Forget every placement and start from an empty bin
+     */
+    void reset();
+
+    /**
+     * Find a position for a box of the given size
+     *
+     * @param out receives the x, y and z coordinates when a position is found
+     * @return true if the box fits somewhere
+     */
+    boolean find(int w, int h, int d, int[] out);
+
+    /**
+     * Record a box placed at the given position
+     */
+    void commit(int x, int y, int z, int w, int h, int d);
+
+    /**
+     * Record a box placed at the given position, where {@code width} is the
+     * item's true width and {@code w} the cells it covers
+     */
+    default void commit(int x, int y, int z, int w, int h, int d, double width) {
+        commit(x, y, z, w, h, d);
+    }
+
+    /**
+     * Whether a box size that failed to fit keeps failing after further
+     * commits. When true the packer may skip later items of the same type.
+     */
+    boolean isMonotone();
+}
@@ -0,0 +1,61 @@
+package com.ga.binpacking.algorithm;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+
+/**
+ * Population of fixed-length integer genotypes with a parallel fitness
+ * column, addressed by row
+ *
+ * Rows are read into and written from caller-provided arrays, so any number
+ * of threads may work on distinct rows at the same time. Implementations
+ * keep the genes on the heap ({@link HeapPopulationStore}) or outside it
+ * ({@link BufferPopulationStore}).
+ */
+abstract class PopulationStore implements Closeable {
+
+    final int size;
+    final int length;
+
+    PopulationStore(int size, int length) {
+        this.size = size;
+        this.length = length;
+    }
+
+    /**
+     * Store of {@code size} rows of {@code length} genes; mapped stores
+     * create their files in {@code directory}
+     */
+    static PopulationStore create(PrimitiveGeneticEngine.Storage storage, Path directory, int size, int length) {
+        switch (storage) {
+            case DIRECT:
+                return BufferPopulationStore.direct(size, length);
+            case MAPPED:
+                return BufferPopulationStore.mapped(directory, size, length);
+            case HEAP:
+            default:
+                return new HeapPopulationStore(size, length);
+        }
+    }
+
+    /**
+     * Copy the genes of a row into {@code genes[0, length)}
+     */
+    abstract void read(int row, int[] genes);
+
+    /**
+     * Overwrite the genes of a row with {@code genes[0, length)}
+     */
+    abstract void write(int row, int[] genes);
+
+    abstract double fitness(int row);
+
+    abstract void setFitness(int row, double fitness);
+
+    /**
+     * Release the storage; the store must not be used afterwards
+     */
+    @Override
+    public void close() {
+    }
+}
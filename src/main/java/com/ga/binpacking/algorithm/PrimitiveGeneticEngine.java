@@ -0,0 +1,514 @@
+package com.ga.binpacking.algorithm;
+
+import com.ga.binpacking.algorithm.GeneticBinPacker.OptimizationResult;
+import com.ga.binpacking.model.PackingSolution;
+import io.jenetics.EnumGene;
+import io.jenetics.Optimize;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionStatistics;
+import io.jenetics.util.RandomRegistry;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Genetic algorithm for the permutation encoding on primitive arrays,
+ * without Jenetics' per-gene objects
+ *
+ * The population is a matrix of allele indices, one row of
+ * {@link BinPackingProblem#alleleCount()} genes per individual, with a
+ * parallel fitness column: a flat {@code int[]} and {@code double[]} on the
+ * heap, or direct or memory-mapped buffers outside it (see
+ * {@link Storage}). Each generation is bred into a second matrix, which
+ * then becomes the current one, so no individual is ever allocated; rows
+ * are bred in two scratch arrays and written back. The {@code elites}
+ * fittest individuals are copied over unchanged; the others are bred from
+ * parents picked by tournament selection, recombined in pairs by in-place
+ * PMX or OX crossover and mutated gene by gene with swap or insert moves.
+ * Only rows that changed are evaluated again, in chunks on the executor;
+ * breeding draws from the RandomRegistry on the calling thread.
+ *
+ * Fitness values are those of {@link BinPackingProblem#fitness}, which is
+ * maximized.
+ */
+public class PrimitiveGeneticEngine {
+
+    /**
+     * Crossover of two parent rows
+     */
+    public enum Crossover {
+        PMX, // Partially matched: the segment is exchanged, clashes resolved by swaps
+        OX // Order: a segment of one parent, the rest in the other parent's order
+    }
+
+    /**
+     * Where the population rows live
+     */
+    public enum Storage {
+        HEAP, // int[] and double[] arrays on the heap
+        DIRECT, // Direct ByteBuffers, bounded by -XX:MaxDirectMemorySize
+        MAPPED // Memory-mapped temporary files, paged in and out by the OS
+    }
+
+    // Individuals evaluated by one task
+    private static final int CHUNK_SIZE = 64;
+
+    private final BinPackingProblem problem;
+    private final int populationSize;
+    private final int maxGenerations;
+    private final double mutationRate;
+    private final double crossoverRate;
+    private Crossover crossover = Crossover.PMX;
+    private int tournamentSize = 5;
+    private int elites = 1;
+    private TerminationPolicy termination = TerminationPolicy.none();
+    private Executor executor = ForkJoinPool.commonPool();
+    private Storage storage = Storage.HEAP;
+    private Path directory;
+
+    public PrimitiveGeneticEngine(BinPackingProblem problem) {
+        this(problem, 100, 50, 0.15, 0.7);
+    }
+
+    /**
+     * @param mutationRate  probability of each gene to be swapped with or
+     *                      moved to a random position
+     * @param crossoverRate probability of each pair of offspring to be
+     *                      recombined
+     */
+    public PrimitiveGeneticEngine(BinPackingProblem problem, int populationSize,
+            int maxGenerations, double mutationRate, double crossoverRate) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2: " + populationSize);
+        }
+        this.problem = problem;
+        this.populationSize = populationSize;
+        this.maxGenerations = maxGenerations;
+        this.mutationRate = mutationRate;
+        this.crossoverRate = crossoverRate;
+    }
+
+    public PrimitiveGeneticEngine withCrossover(Crossover crossover) {
+        this.crossover = crossover;
+        return this;
+    }
+
+    public PrimitiveGeneticEngine withTournamentSize(int tournamentSize) {
+        if (tournamentSize <= 0) {
+            throw new IllegalArgumentException("Tournament size must be positive: " + tournamentSize);
+        }
+        this.tournamentSize = tournamentSize;
+        return this;
+    }
+
+    /**
+     * Number of fittest individuals copied unchanged into the next generation
+     */
+    public PrimitiveGeneticEngine withElites(int elites) {
+        if (elites < 0 || elites >= populationSize) {
+            throw new IllegalArgumentException("Elites must be within [0, population size): " + elites);
+        }
+        this.elites = elites;
+        return this;
+    }
+
+    public PrimitiveGeneticEngine withTermination(TerminationPolicy termination) {
+        this.termination = termination;
+        return this;
+    }
+
+    /**
+     * Keep the population off the heap, so heap size and GC time do not
+     * grow with it; MAPPED creates its files in the default temporary
+     * directory
+     */
+    public PrimitiveGeneticEngine withStorage(Storage storage) {
+        this.storage = storage;
+        return this;
+    }
+
+    /**
+     * Keep the population in memory-mapped files in {@code directory}
+     */
+    public PrimitiveGeneticEngine withMappedStorage(Path directory) {
+        this.storage = Storage.MAPPED;
+        this.directory = directory;
+        return this;
+    }
+
+    /**
+     * Run evaluation on an executor managed by the caller
+     */
+    public PrimitiveGeneticEngine withExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Run the genetic algorithm optimization
+     */
+    public OptimizationResult optimize() {
+        return optimize(best -> {
+        });
+    }
+
+    /**
+     * Optimize, passing every new best individual to {@code improved}
+     */
+    OptimizationResult optimize(Consumer<Phenotype<EnumGene<String>, Double>> improved) {
+        System.out.println("========================================");
+        System.out.println("  3D Bin Packing Genetic Algorithm");
+        System.out.println("========================================");
+        System.out.println("Engine: primitive arrays, " + crossover + " crossover, " + storage + " storage");
+        System.out.println("Population Size: " + populationSize);
+        System.out.println("Max Generations: " + maxGenerations);
+        if (!termination.isUnlimited()) {
+            System.out.println("Early Termination: " + termination);
+        }
+        System.out.println("Mutation Rate: " + (mutationRate * 100) + "%");
+        System.out.println("Crossover Rate: " + (crossoverRate * 100) + "%");
+        System.out.println("========================================\n");
+
+        Run run = new Run(RandomRegistry.random(), improved);
+        run.evolve();
+
+        Phenotype<EnumGene<String>, Double> best = run.best();
+        PackingSolution solution = GeneticBinPacker.summarize(problem, best);
+        System.out.println("========================================\n");
+
+        return new OptimizationResult(best, solution, EvolutionStatistics.ofNumber());
+    }
+
+    /**
+     * State of one optimize() call; package-private so tests can drive the
+     * operators directly
+     */
+    final class Run {
+        final RandomGenerator random;
+        final int length = problem.alleleCount();
+
+        // Current and next generation, swapped after breeding
+        PopulationStore current;
+        PopulationStore next;
+
+        // Rows bred this generation that need evaluating
+        final int[] changed = new int[populationSize];
+        int changedCount;
+
+        // Rows being bred, and crossover scratch: gene positions of both
+        // parents, or parent copies and a stamp of genes used (OX)
+        final int[] childA = new int[length];
+        final int[] childB = new int[length];
+        final int[] first = new int[length];
+        final int[] second = new int[length];
+        final int[] used = new int[length];
+        int stamp;
+
+        final Consumer<Phenotype<EnumGene<String>, Double>> improved;
+        int[] bestGenes;
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        long bestGeneration;
+
+        Run(RandomGenerator random, Consumer<Phenotype<EnumGene<String>, Double>> improved) {
+            this.random = random;
+            this.improved = improved;
+        }
+
+        void evolve() {
+            current = PopulationStore.create(storage, directory, populationSize, length);
+            try {
+                next = PopulationStore.create(storage, directory, populationSize, length);
+                generations();
+            } finally {
+                current.close();
+                if (next != null) {
+                    next.close();
+                }
+            }
+        }
+
+        private void generations() {
+            for (int row = 0; row < populationSize; row++) {
+                for (int i = 0; i < length; i++) {
+                    childA[i] = i;
+                }
+                for (int i = length - 1; i > 0; i--) {
+                    swap(childA, i, random.nextInt(i + 1));
+                }
+                current.write(row, childA);
+                changed[row] = row;
+            }
+            changedCount = populationSize;
+            evaluate(current);
+            record(0);
+
+            System.out.println("Starting evolution...\n");
+            TerminationPolicy.Termination proceed = termination.start();
+            long generation = 0;
+            while (generation < maxGenerations) {
+                generation++;
+                breed();
+                evaluate(next);
+
+                PopulationStore swap = current;
+                current = next;
+                next = swap;
+
+                double generationBest = record(generation);
+                if (generation % 10 == 0 || generation == 1) {
+                    System.out.printf("Generation %3d: Best Fitness = %8.4f, Avg Fitness = %8.4f%n",
+                            generation, generationBest, average());
+                }
+                if (!proceed.test(generationBest, Optimize.MAXIMUM, this::average)) {
+                    System.out.printf("Stopped after generation %d: %s%n", generation, proceed.reason());
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Fill the next generation: elites first, then offspring in pairs
+         */
+        void breed() {
+            changedCount = 0;
+            int row = 0;
+            for (int elite : elites()) {
+                current.read(elite, childA);
+                next.write(row, childA);
+                next.setFitness(row++, current.fitness(elite));
+            }
+
+            while (row < populationSize) {
+                int a = row;
+                int b = row + 1 < populationSize ? row + 1 : -1;
+                int parentA = select();
+                current.read(parentA, childA);
+                boolean changedA = false;
+                boolean changedB = false;
+                if (b >= 0) {
+                    int parentB = select();
+                    current.read(parentB, childB);
+                    if (random.nextDouble() < crossoverRate) {
+                        if (crossover == Crossover.PMX) {
+                            pmx(childA, childB);
+                        } else {
+                            ox(childA, childB);
+                        }
+                        changedA = true;
+                        changedB = true;
+                    }
+                    changedB |= mutate(childB);
+                    next.write(b, childB);
+                    next.setFitness(b, current.fitness(parentB));
+                }
+                changedA |= mutate(childA);
+                next.write(a, childA);
+                next.setFitness(a, current.fitness(parentA));
+
+                if (changedA) {
+                    changed[changedCount++] = a;
+                }
+                if (changedB) {
+                    changed[changedCount++] = b;
+                }
+                row += 2;
+            }
+        }
+
+        /**
+         * Rows of the {@code elites} fittest individuals, fittest first
+         */
+        int[] elites() {
+            int[] top = new int[elites];
+            double[] topFitness = new double[elites];
+            int count = 0;
+            for (int row = 0; row < populationSize; row++) {
+                double value = current.fitness(row);
+                if (count == elites && (count == 0 || value <= topFitness[count - 1])) {
+                    continue;
+                }
+                int at = count < elites ? count++ : count - 1;
+                while (at > 0 && topFitness[at - 1] < value) {
+                    top[at] = top[at - 1];
+                    topFitness[at] = topFitness[at - 1];
+                    at--;
+                }
+                top[at] = row;
+                topFitness[at] = value;
+            }
+            return top;
+        }
+
+        /**
+         * Row of the fittest of {@code tournamentSize} random individuals
+         */
+        int select() {
+            int winner = random.nextInt(populationSize);
+            double winnerFitness = current.fitness(winner);
+            for (int k = 1; k < tournamentSize; k++) {
+                int challenger = random.nextInt(populationSize);
+                double challengerFitness = current.fitness(challenger);
+                if (challengerFitness > winnerFitness) {
+                    winner = challenger;
+                    winnerFitness = challengerFitness;
+                }
+            }
+            return winner;
+        }
+
+        /**
+         * Partially matched crossover: each gene of the segment is swapped
+         * into place within its own row
+         */
+        void pmx(int[] a, int[] b) {
+            int[] positionA = first;
+            int[] positionB = second;
+            for (int i = 0; i < length; i++) {
+                positionA[a[i]] = i;
+                positionB[b[i]] = i;
+            }
+
+            int from = random.nextInt(length);
+            int to = random.nextInt(length);
+            for (int i = Math.min(from, to); i <= Math.max(from, to); i++) {
+                int geneA = a[i];
+                int geneB = b[i];
+                if (geneA == geneB) {
+                    continue;
+                }
+                int j = positionA[geneB];
+                a[j] = geneA;
+                positionA[geneA] = j;
+                a[i] = geneB;
+                positionA[geneB] = i;
+
+                j = positionB[geneA];
+                b[j] = geneB;
+                positionB[geneB] = j;
+                b[i] = geneA;
+                positionB[geneA] = i;
+            }
+        }
+
+        /**
+         * Order crossover: each child keeps its segment and takes the
+         * remaining genes in the order they follow the segment in the other
+         * parent
+         */
+        void ox(int[] a, int[] b) {
+            System.arraycopy(a, 0, first, 0, length);
+            System.arraycopy(b, 0, second, 0, length);
+            int from = random.nextInt(length);
+            int to = random.nextInt(length);
+            int low = Math.min(from, to);
+            int high = Math.max(from, to) + 1;
+            fill(a, first, second, low, high);
+            fill(b, second, first, low, high);
+        }
+
+        private void fill(int[] child, int[] keep, int[] order, int low, int high) {
+            stamp++;
+            for (int i = low; i < high; i++) {
+                used[keep[i]] = stamp;
+            }
+            int at = high % length;
+            for (int k = 0; k < length; k++) {
+                int gene = order[(high + k) % length];
+                if (used[gene] != stamp) {
+                    child[at] = gene;
+                    at = (at + 1) % length;
+                }
+            }
+        }
+
+        /**
+         * Swap or move each gene of a row with probability mutationRate;
+         * whether anything changed
+         */
+        boolean mutate(int[] genes) {
+            boolean mutated = false;
+            for (int i = 0; i < length; i++) {
+                if (random.nextDouble() >= mutationRate) {
+                    continue;
+                }
+                int j = random.nextInt(length);
+                if (i == j) {
+                    continue;
+                }
+                if (random.nextBoolean()) {
+                    swap(genes, i, j);
+                } else {
+                    // Insert: move gene i to position j
+                    int gene = genes[i];
+                    if (i < j) {
+                        System.arraycopy(genes, i + 1, genes, i, j - i);
+                    } else {
+                        System.arraycopy(genes, j, genes, j + 1, i - j);
+                    }
+                    genes[j] = gene;
+                }
+                mutated = true;
+            }
+            return mutated;
+        }
+
+        /**
+         * Evaluate the changed rows of a generation in parallel
+         */
+        void evaluate(PopulationStore population) {
+            BatchEvaluator.runChunks(changedCount, CHUNK_SIZE, executor, (from, to) -> {
+                int[] genes = new int[length];
+                for (int k = from; k < to; k++) {
+                    int row = changed[k];
+                    population.read(row, genes);
+                    population.setFitness(row, problem.alleleFitness(genes, 0));
+                }
+            });
+        }
+
+        /**
+         * Track the best individual so far; the best fitness of the
+         * current generation
+         */
+        double record(long generation) {
+            int best = 0;
+            double generationBest = current.fitness(0);
+            for (int row = 1; row < populationSize; row++) {
+                double value = current.fitness(row);
+                if (value > generationBest) {
+                    best = row;
+                    generationBest = value;
+                }
+            }
+            if (generationBest > bestFitness) {
+                bestFitness = generationBest;
+                bestGenes = new int[length];
+                current.read(best, bestGenes);
+                bestGeneration = generation;
+                improved.accept(best());
+            }
+            return generationBest;
+        }
+
+        Phenotype<EnumGene<String>, Double> best() {
+            return Phenotype.of(problem.permutation(bestGenes), bestGeneration, bestFitness);
+        }
+
+        double average() {
+            double sum = 0;
+            for (int row = 0; row < populationSize; row++) {
+                sum += current.fitness(row);
+            }
+            return sum / populationSize;
+        }
+
+        private void swap(int[] array, int i, int j) {
+            int value = array[i];
+            array[i] = array[j];
+            array[j] = value;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Gene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Evaluator;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.Seq;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Surrogate pre-screening: only the most promising offspring are packed
+ *
+ * Every unevaluated individual is first scored with
+ * {@link BinPackingProblem#surrogateFitness}, the score of the longest
+ * sequence prefix that fits the bin's volume, which costs one pass over the
+ * sequence. Only the best {@code fraction} of them by that proxy are handed
+ * to the wrapped evaluator for a full packing. The others get an estimated
+ * fitness: their proxy scaled by the mean ratio of true to proxy fitness of
+ * the packed ones, capped at the lowest fitness among those, so an estimate
+ * never outranks an individual that was actually packed.
+ *
+ * Estimated individuals are remembered, and any of them that survives
+ * selection into the next generation is packed then and gets its true
+ * fitness. The best individual of a generation therefore always has a true
+ * fitness.
+ *
+ * The statistics compare the two rankings: over all pairs of packed
+ * offspring, how often the proxy orders them differently from the true
+ * fitness, and how many re-evaluated individuals turned out better than
+ * the worst packed offspring of the generation that screened them out.
+ */
+public class SurrogateScreening {
+
+    private final BinPackingProblem problem;
+    private final double fraction;
+
+    // Individuals estimated in the last generation, with their screening
+    // threshold, by identity: hashing a permutation genotype costs more than
+    // the proxy. Per evolution thread, as islands share one engine.
+    private final ThreadLocal<Map<Phenotype<?, Double>, Double>> estimated =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private final LongAdder screened = new LongAdder();
+    private final LongAdder packed = new LongAdder();
+    private final LongAdder reevaluated = new LongAdder();
+    private final LongAdder falseRejections = new LongAdder();
+    private final LongAdder pairs = new LongAdder();
+    private final LongAdder discordantPairs = new LongAdder();
+
+    /**
+     * @param fraction share of the unevaluated individuals of a generation
+     *                 that is fully packed, in (0, 1]
+     */
+    public SurrogateScreening(BinPackingProblem problem, double fraction) {
+        if (!(fraction > 0.0 && fraction <= 1.0)) {
+            throw new IllegalArgumentException("Packed fraction must be within (0, 1]: " + fraction);
+        }
+        this.problem = problem;
+        this.fraction = fraction;
+    }
+
+    /**
+     * Evaluator screening with the surrogate and packing through
+     * {@code delegate}, for an encoding whose genotypes map to item-type
+     * sequences
+     */
+    <G extends Gene<?, G>> Evaluator<G, Double> evaluator(Evaluator<G, Double> delegate,
+            Function<Genotype<G>, int[]> sequence) {
+        return population -> eval(population, delegate, sequence);
+    }
+
+    private <G extends Gene<?, G>> ISeq<Phenotype<G, Double>> eval(Seq<Phenotype<G, Double>> population,
+            Evaluator<G, Double> delegate, Function<Genotype<G>, int[]> sequence) {
+        MSeq<Phenotype<G, Double>> result = MSeq.of(population);
+        Map<Phenotype<?, Double>, Double> previous = estimated.get();
+        List<Integer> offspring = new ArrayList<>();
+        List<Integer> survivors = new ArrayList<>();
+        Map<Integer, Double> thresholds = new HashMap<>();
+        for (int i = 0; i < result.length(); i++) {
+            Phenotype<G, Double> individual = result.get(i);
+            if (individual.nonEvaluated()) {
+                offspring.add(i);
+            } else {
+                Double threshold = previous.get(individual);
+                if (threshold != null) {
+                    survivors.add(i);
+                    thresholds.put(i, threshold);
+                }
+            }
+        }
+        if (offspring.isEmpty() && survivors.isEmpty()) {
+            return result.toISeq();
+        }
+        Map<Phenotype<?, Double>, Double> next = new IdentityHashMap<>();
+        estimated.set(next);
+
+        // Rank the offspring by the proxy
+        double[] proxy = new double[result.length()];
+        for (int i : offspring) {
+            proxy[i] = problem.surrogateFitness(sequence.apply(result.get(i).genotype()));
+        }
+        offspring.sort((a, b) -> Double.compare(proxy[b], proxy[a]));
+        int keep = offspring.isEmpty() ? 0 : Math.max(1, (int) Math.ceil(fraction * offspring.size()));
+        List<Integer> full = new ArrayList<>(offspring.subList(0, keep));
+        full.addAll(survivors);
+
+        // Pack the chosen ones once each, as selection may have copied
+        // survivors; the delegate may reorder, so match by genotype
+        List<Phenotype<G, Double>> unevaluated = new ArrayList<>(full.size());
+        Map<Genotype<G>, List<Integer>> positions = new IdentityHashMap<>();
+        for (int i : full) {
+            Phenotype<G, Double> individual = result.get(i);
+            positions.computeIfAbsent(individual.genotype(), genotype -> {
+                unevaluated.add(individual.nonEvaluated() ? individual
+                        : Phenotype.of(genotype, individual.generation()));
+                return new ArrayList<>();
+            }).add(i);
+        }
+        for (Phenotype<G, Double> individual : delegate.eval(ISeq.of(unevaluated))) {
+            for (int i : positions.getOrDefault(individual.genotype(), List.of())) {
+                result.set(i, individual);
+            }
+        }
+
+        // Calibrate the estimates on the packed offspring
+        double trueSum = 0;
+        double proxySum = 0;
+        double worst = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < keep; k++) {
+            int i = offspring.get(k);
+            double fitness = result.get(i).fitness();
+            trueSum += fitness;
+            proxySum += proxy[i];
+            worst = Math.min(worst, fitness);
+        }
+        double ratio = proxySum > 0 ? trueSum / proxySum : 0.0;
+        for (int k = keep; k < offspring.size(); k++) {
+            int i = offspring.get(k);
+            Phenotype<G, Double> individual = result.get(i).withFitness(Math.min(proxy[i] * ratio, worst));
+            result.set(i, individual);
+            next.put(individual, worst);
+        }
+
+        for (int i : survivors) {
+            if (result.get(i).fitness() > thresholds.get(i)) {
+                falseRejections.increment();
+            }
+        }
+        countDiscordantPairs(result, offspring.subList(0, keep), proxy);
+        screened.add(offspring.size());
+        packed.add(keep);
+        reevaluated.add(survivors.size());
+        return result.toISeq();
+    }
+
+    private <G extends Gene<?, G>> void countDiscordantPairs(MSeq<Phenotype<G, Double>> result,
+            List<Integer> packedOffspring, double[] proxy) {
+        long discordant = 0;
+        int count = packedOffspring.size();
+        for (int a = 0; a < count; a++) {
+            int i = packedOffspring.get(a);
+            for (int b = a + 1; b < count; b++) {
+                int j = packedOffspring.get(b);
+                double byProxy = Math.signum(proxy[i] - proxy[j]);
+                double byFitness = Math.signum(result.get(i).fitness() - result.get(j).fitness());
+                if (byProxy * byFitness < 0) {
+                    discordant++;
+                }
+            }
+        }
+        pairs.add((long) count * (count - 1) / 2);
+        discordantPairs.add(discordant);
+    }
+
+    /**
+     * Number of offspring scored by the surrogate
+     */
+    public long getScreened() {
+        return screened.sum();
+    }
+
+    /**
+     * Number of offspring fully packed after screening
+     */
+    public long getPacked() {
+        return packed.sum();
+    }
+
+    /**
+     * Number of estimated individuals packed after surviving selection
+     */
+    public long getReevaluated() {
+        return reevaluated.sum();
+    }
+
+    /**
+     * Number of re-evaluated individuals that would have passed the
+     * screening on their true fitness
+     */
+    public long getFalseRejections() {
+        return falseRejections.sum();
+    }
+
+    /**
+     * Fraction of the pairs of packed offspring that the surrogate ranks in
+     * the opposite order of their true fitness
+     */
+    public double getDiscordantPairFraction() {
+        long total = pairs.sum();
+        return total == 0 ? 0.0 : (double) discordantPairs.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SurrogateScreening[screened=%d, packed=%d, reevaluated=%d, falseRejections=%d, "
+                + "discordantPairs=%.2f%%]", getScreened(), getPacked(), getReevaluated(), getFalseRejections(),
+                getDiscordantPairFraction() * 100.0);
+    }
+}
@@ -0,0 +1,202 @@
+package com.ga.binpacking.algorithm;
+
+import io.jenetics.Optimize;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+
+/**
+ * When to stop an evolution before its generation limit
+ *
+ * Combines any of a wall-clock budget, an absolute deadline, a
+ * {@link CancellationToken}, steady-fitness detection (no improvement of the
+ * best fitness for a number of generations) and a convergence threshold on
+ * the relative gap between the best and the average fitness of a
+ * generation. The evolution stops as soon as any enabled criterion is met;
+ * all of them are checked between generations.
+ *
+ * A policy is an immutable description; {@link #start()} creates the
+ * stateful predicate for one run, to be used with
+ * {@code engine.stream().limit(...)}.
+ */
+public final class TerminationPolicy {
+
+    private static final TerminationPolicy NONE = new TerminationPolicy(null, null, null, 0, 0.0);
+
+    private final Duration maxTime;
+    private final Instant deadline;
+    private final CancellationToken cancellation;
+    private final int steadyGenerations;
+    private final double convergenceThreshold;
+
+    private TerminationPolicy(Duration maxTime, Instant deadline, CancellationToken cancellation,
+            int steadyGenerations, double convergenceThreshold) {
+        this.maxTime = maxTime;
+        this.deadline = deadline;
+        this.cancellation = cancellation;
+        this.steadyGenerations = steadyGenerations;
+        this.convergenceThreshold = convergenceThreshold;
+    }
+
+    /**
+     * Run until the generation limit
+     */
+    public static TerminationPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Also stop once the run has taken {@code maxTime}
+     */
+    public TerminationPolicy withMaxTime(Duration maxTime) {
+        if (maxTime.isNegative() || maxTime.isZero()) {
+            throw new IllegalArgumentException("Time budget must be positive: " + maxTime);
+        }
+        return new TerminationPolicy(maxTime, deadline, cancellation, steadyGenerations, convergenceThreshold);
+    }
+
+    /**
+     * Also stop at a point in time
+     */
+    public TerminationPolicy withDeadline(Instant deadline) {
+        return new TerminationPolicy(maxTime, deadline, cancellation, steadyGenerations, convergenceThreshold);
+    }
+
+    /**
+     * Also stop once the token is cancelled
+     */
+    public TerminationPolicy withCancellation(CancellationToken cancellation) {
+        return new TerminationPolicy(maxTime, deadline, cancellation, steadyGenerations, convergenceThreshold);
+    }
+
+    /**
+     * Also stop once the best fitness has not improved for
+     * {@code steadyGenerations} generations
+     */
+    public TerminationPolicy withSteadyFitness(int steadyGenerations) {
+        if (steadyGenerations <= 0) {
+            throw new IllegalArgumentException("Steady generations must be positive: " + steadyGenerations);
+        }
+        return new TerminationPolicy(maxTime, deadline, cancellation, steadyGenerations, convergenceThreshold);
+    }
+
+    /**
+     * Also stop once (best - average) / |best| of a generation is at most
+     * {@code threshold}
+     */
+    public TerminationPolicy withConvergence(double threshold) {
+        if (threshold <= 0.0) {
+            throw new IllegalArgumentException("Convergence threshold must be positive: " + threshold);
+        }
+        return new TerminationPolicy(maxTime, deadline, cancellation, steadyGenerations, threshold);
+    }
+
+    public boolean isUnlimited() {
+        return maxTime == null && deadline == null && cancellation == null
+                && steadyGenerations == 0 && convergenceThreshold == 0.0;
+    }
+
+    /**
+     * Fresh predicate for one run; the time budget starts now
+     */
+    public Termination start() {
+        return new Termination();
+    }
+
+    @Override
+    public String toString() {
+        if (isUnlimited()) {
+            return "generation limit only";
+        }
+        StringBuilder text = new StringBuilder();
+        if (maxTime != null) {
+            text.append("max ").append(maxTime.toMillis() / 1000.0).append(" s");
+        }
+        if (deadline != null) {
+            text.append(text.length() > 0 ? ", " : "").append("deadline ").append(deadline);
+        }
+        if (cancellation != null) {
+            text.append(text.length() > 0 ? ", " : "").append("cancellable");
+        }
+        if (steadyGenerations > 0) {
+            text.append(text.length() > 0 ? ", " : "").append("steady for ").append(steadyGenerations)
+                    .append(" generations");
+        }
+        if (convergenceThreshold > 0.0) {
+            text.append(text.length() > 0 ? ", " : "").append("converged within ").append(convergenceThreshold);
+        }
+        return text.toString();
+    }
+
+    /**
+     * State of a policy during one run; tests true while the evolution
+     * should continue
+     */
+    public final class Termination implements Predicate<EvolutionResult<?, Double>> {
+
+        private final long startNanos = System.nanoTime();
+        private double best = Double.NaN;
+        private int steady;
+        private String reason;
+
+        private Termination() {
+        }
+
+        @Override
+        public boolean test(EvolutionResult<?, Double> result) {
+            return test(result.bestFitness(), result.optimize(), () -> average(result, result.bestFitness()));
+        }
+
+        /**
+         * Same test for an engine that only has the best fitness of the
+         * generation and a way to compute its average fitness
+         */
+        boolean test(double bestFitness, Optimize optimize, DoubleSupplier average) {
+            if (reason != null) {
+                return false;
+            }
+
+            if (Double.isNaN(best) || optimize.compare(bestFitness, best) > 0) {
+                best = bestFitness;
+                steady = 0;
+            } else {
+                steady++;
+            }
+
+            if (cancellation != null && cancellation.isCancelled()) {
+                reason = "cancelled";
+            } else if (deadline != null && !Instant.now().isBefore(deadline)) {
+                reason = "deadline reached";
+            } else if (maxTime != null && System.nanoTime() - startNanos >= maxTime.toNanos()) {
+                reason = "time budget of " + maxTime.toMillis() / 1000.0 + " s used";
+            } else if (steadyGenerations > 0 && steady >= steadyGenerations) {
+                reason = "no improvement for " + steady + " generations";
+            } else if (convergenceThreshold > 0.0 && gap(bestFitness, average.getAsDouble()) <= convergenceThreshold) {
+                reason = "population converged";
+            }
+            return reason == null;
+        }
+
+        private double average(EvolutionResult<?, Double> result, double bestFitness) {
+            return result.population().stream()
+                    .mapToDouble(Phenotype::fitness)
+                    .average()
+                    .orElse(bestFitness);
+        }
+
+        private double gap(double bestFitness, double average) {
+            return Math.abs(bestFitness - average) / Math.max(Math.abs(bestFitness), Double.MIN_NORMAL);
+        }
+
+        /**
+         * Why the evolution was stopped, or null if it has not been
+         */
+        public String reason() {
+            return reason;
+        }
+    }
+}
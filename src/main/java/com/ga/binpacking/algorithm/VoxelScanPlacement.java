@@ -0,0 +1,99 @@
+package com.ga.binpacking.algorithm;
+
+/**
+ * Layer-based first-fit placement over every integer cell of the bin
+ *
+ * Scans y, then z, then x starting from a hint that follows the previous
+ * placement, and falls back to a scan from the origin. Cost per item grows
+ * with the bin volume.
+ */
+class VoxelScanPlacement implements PlacementEngine {
+
+    private final int binWidth;
+    private final int binHeight;
+    private final int binDepth;
+    private final OccupancyGrid occupied;
+
+    // Boxes written since the last reset, released again on reset
+    private final BoxLog written = new BoxLog();
+
+    // Next available position hint for faster packing
+    private int currentX, currentY, currentZ;
+
+    VoxelScanPlacement(int binWidth, int binHeight, int binDepth) {
+        this.binWidth = binWidth;
+        this.binHeight = binHeight;
+        this.binDepth = binDepth;
+        this.occupied = new OccupancyGrid(binWidth, binHeight, binDepth);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < written.size(); i++) {
+            occupied.release(written.x(i), written.y(i), written.z(i), written.w(i), written.h(i), written.d(i));
+        }
+        written.clear();
+        currentX = 0;
+        currentY = 0;
+        currentZ = 0;
+    }
+
+    @Override
+    public boolean find(int w, int h, int d, int[] out) {
+        // First, try positions starting from the hint
+        if (tryPlacementFromPosition(w, h, d, currentX, currentY, currentZ, out))
+            return true;
+
+        // If that didn't work, try from the beginning
+        return tryPlacementFromPosition(w, h, d, 0, 0, 0, out);
+    }
+
+    @Override
+    public void commit(int x, int y, int z, int w, int h, int d) {
+        commit(x, y, z, w, h, d, w);
+    }
+
+    @Override
+    public void commit(int x, int y, int z, int w, int h, int d, double width) {
+        occupied.fill(x, y, z, w, h, d);
+        written.add(x, y, z, w, h, d);
+
+        // Update current position hint for next item; a fractional width
+        // rounds down here although the box covers the cell it ends in
+        currentX = (int) (x + width);
+        if (currentX >= binWidth) {
+            currentX = 0;
+            currentZ += 5; // Move to next layer
+            if (currentZ >= binDepth) {
+                currentZ = 0;
+                currentY += 5;
+            }
+        }
+    }
+
+    @Override
+    public boolean isMonotone() {
+        // The fallback scan from the origin covers every cell
+        return true;
+    }
+
+    /**
+     * Try to place a box starting from given coordinates, layer by layer
+     */
+    private boolean tryPlacementFromPosition(int w, int h, int d, int startX, int startY, int startZ,
+            int[] out) {
+        for (int y = startY; y <= binHeight - h; y++) {
+            for (int z = (y == startY ? startZ : 0); z <= binDepth - d; z++) {
+                for (int x = (y == startY && z == startZ ? startX : 0); x <= binWidth - w; x++) {
+                    if (occupied.isFree(x, y, z, w, h, d)) {
+                        out[0] = x;
+                        out[1] = y;
+                        out[2] = z;
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
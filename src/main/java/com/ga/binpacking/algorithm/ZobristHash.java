@@ -0,0 +1,79 @@
+package com.ga.binpacking.algorithm;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing of item-type sequences
+ *
+ * Every (position, type) pair gets a fixed random 64-bit key and a sequence
+ * hashes to the XOR of the keys of its genes. Equal type sequences always
+ * get equal hashes, no matter which duplicate of a type sits at a position,
+ * and changing a few genes only needs a few XORs (see {@link #swap} and
+ * {@link #replace}).
+ */
+public class ZobristHash {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int length;
+    private final int typeCount;
+    private final long[] keys;
+
+    public ZobristHash(int length, int typeCount) {
+        this.length = length;
+        this.typeCount = typeCount;
+        this.keys = new long[length * typeCount];
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Key of a single gene
+     */
+    public long key(int position, int type) {
+        if (position < 0 || position >= length || type < 0 || type >= typeCount) {
+            throw new IllegalArgumentException(
+                    "Gene (" + position + ", " + type + ") outside " + length + "x" + typeCount + " table");
+        }
+        return keys[position * typeCount + type];
+    }
+
+    /**
+     * Hash of the first {@code count} types of a sequence
+     */
+    public long hash(int[] types, int count) {
+        long hash = 0;
+        for (int i = 0; i < count; i++) {
+            hash ^= key(i, types[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Hash after swapping the genes at positions i and j
+     */
+    public long swap(long hash, int i, int j, int typeAtI, int typeAtJ) {
+        if (typeAtI == typeAtJ) {
+            return hash;
+        }
+        return hash ^ key(i, typeAtI) ^ key(j, typeAtJ) ^ key(i, typeAtJ) ^ key(j, typeAtI);
+    }
+
+    /**
+     * Hash after replacing the type at one position
+     */
+    public long replace(long hash, int position, int oldType, int newType) {
+        return hash ^ key(position, oldType) ^ key(position, newType);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getTypeCount() {
+        return typeCount;
+    }
+}
@@ -0,0 +1,217 @@
+package com.ga.binpacking.chromosome;
+
+import io.jenetics.Chromosome;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Compact permutation of a multiset of item types
+ *
+ * The packing order is stored as an {@code int[]} of dense type ids, four
+ * bytes per gene, instead of one {@code EnumGene} object per copy of an
+ * item. Every chromosome of a population shares its composition (how many
+ * copies of each type) and the flyweight {@link TypeGene} per type, so the
+ * only per-individual state is the order array.
+ *
+ * Instances are immutable; the order array is never modified after
+ * construction.
+ */
+public final class MultisetChromosome implements Chromosome<TypeGene> {
+
+    private final int[] types;
+
+    // Shared by all chromosomes of the same composition
+    private final int[] counts;
+    private final TypeGene[] genes;
+
+    private MultisetChromosome(int[] types, int[] counts, TypeGene[] genes) {
+        this.types = types;
+        this.counts = counts;
+        this.genes = genes;
+    }
+
+    /**
+     * Random order of a multiset with {@code counts[t]} copies of type t
+     */
+    public static MultisetChromosome of(int[] counts) {
+        int[] shared = counts.clone();
+        TypeGene[] genes = new TypeGene[shared.length];
+        int length = 0;
+        for (int type = 0; type < shared.length; type++) {
+            if (shared[type] < 0) {
+                throw new IllegalArgumentException("Negative count for type " + type + ": " + shared[type]);
+            }
+            genes[type] = TypeGene.of(type, shared.length);
+            length += shared[type];
+        }
+
+        int[] types = new int[length];
+        int at = 0;
+        for (int type = 0; type < shared.length; type++) {
+            for (int i = 0; i < shared[type]; i++) {
+                types[at++] = type;
+            }
+        }
+        shuffle(types, RandomRegistry.random());
+
+        return new MultisetChromosome(types, shared, genes);
+    }
+
+    /**
+     * Chromosome with the given order over {@code typeCount} item types; the
+     * composition is taken from the order itself
+     */
+    public static MultisetChromosome ofOrder(int[] order, int typeCount) {
+        int[] counts = new int[typeCount];
+        for (int type : order) {
+            if (type < 0 || type >= typeCount) {
+                throw new IllegalArgumentException("Type out of range: " + type);
+            }
+            counts[type]++;
+        }
+        TypeGene[] genes = new TypeGene[typeCount];
+        for (int type = 0; type < typeCount; type++) {
+            genes[type] = TypeGene.of(type, typeCount);
+        }
+        return new MultisetChromosome(order.clone(), counts, genes);
+    }
+
+    /**
+     * Chromosome of the same composition with the given order; the caller
+     * hands over the array and must not modify it afterwards
+     */
+    MultisetChromosome withOrder(int[] order) {
+        return new MultisetChromosome(order, counts, genes);
+    }
+
+    /**
+     * Chromosome of the same composition with a copy of the given order
+     */
+    public MultisetChromosome newInstance(int[] order) {
+        return withOrder(order.clone());
+    }
+
+    private static void shuffle(int[] array, RandomGenerator random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    /**
+     * Item type at a position
+     */
+    public int type(int index) {
+        return types[index];
+    }
+
+    /**
+     * Copy the order into {@code target}, which must hold at least
+     * {@link #length()} elements
+     */
+    public void copyTypes(int[] target) {
+        System.arraycopy(types, 0, target, 0, types.length);
+    }
+
+    public int[] toArray() {
+        return types.clone();
+    }
+
+    public int typeCount() {
+        return counts.length;
+    }
+
+    /**
+     * Number of copies of a type in the multiset
+     */
+    public int count(int type) {
+        return counts[type];
+    }
+
+    /**
+     * Whether another chromosome permutes the same multiset
+     */
+    public boolean sameComposition(MultisetChromosome other) {
+        return counts == other.counts || Arrays.equals(counts, other.counts);
+    }
+
+    int[] counts() {
+        return counts;
+    }
+
+    int[] types() {
+        return types;
+    }
+
+    @Override
+    public TypeGene get(int index) {
+        return genes[types[index]];
+    }
+
+    @Override
+    public int length() {
+        return types.length;
+    }
+
+    @Override
+    public boolean isValid() {
+        int[] seen = new int[counts.length];
+        for (int type : types) {
+            if (type < 0 || type >= counts.length || ++seen[type] > counts[type]) {
+                return false;
+            }
+        }
+        return Arrays.equals(seen, counts);
+    }
+
+    @Override
+    public MultisetChromosome newInstance() {
+        int[] order = types.clone();
+        shuffle(order, RandomRegistry.random());
+        return withOrder(order);
+    }
+
+    /**
+     * Chromosome with the order of the given genes
+     *
+     * @throws IllegalArgumentException if the genes are not a permutation of
+     *         this chromosome's multiset, e.g. after a crossover that is not
+     *         multiset-aware
+     */
+    @Override
+    public MultisetChromosome newInstance(ISeq<TypeGene> genes) {
+        int[] order = new int[genes.length()];
+        int[] left = counts.clone();
+        for (int i = 0; i < order.length; i++) {
+            order[i] = genes.get(i).type();
+            if (order[i] < 0 || order[i] >= left.length || --left[order[i]] < 0) {
+                throw new IllegalArgumentException("Genes do not permute the multiset: " + genes);
+            }
+        }
+        if (order.length != types.length) {
+            throw new IllegalArgumentException("Genes do not permute the multiset: " + genes);
+        }
+        return withOrder(order);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MultisetChromosome
+                && Arrays.equals(((MultisetChromosome) other).types, types);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(types);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(types);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ga.binpacking.chromosome;
+
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.Recombinator;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.RandomRegistry;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Order crossover (OX) for {@link MultisetChromosome}s
+ *
+ * Each child keeps a random segment of one parent in place and fills the
+ * remaining positions, starting after the segment and wrapping around, with
+ * the types of the other parent in its order. A type is only taken while
+ * copies of it are left over after the segment, so the child permutes the
+ * same multiset as its parents. Works directly on the order arrays.
+ */
+public class MultisetOrderCrossover<C extends Comparable<? super C>> extends Recombinator<TypeGene, C> {
+
+    public MultisetOrderCrossover(double probability) {
+        super(probability, 2);
+    }
+
+    @Override
+    protected int recombine(MSeq<Phenotype<TypeGene, C>> population, int[] individuals, long generation) {
+        MultisetChromosome first = (MultisetChromosome) population.get(individuals[0]).genotype().chromosome();
+        MultisetChromosome second = (MultisetChromosome) population.get(individuals[1]).genotype().chromosome();
+        int length = first.length();
+        if (length < 2 || second.length() != length || !first.sameComposition(second)) {
+            return 0;
+        }
+
+        RandomGenerator random = RandomRegistry.random();
+        int a = random.nextInt(length);
+        int b = random.nextInt(length);
+        int from = Math.min(a, b);
+        int to = Math.max(a, b) + 1;
+
+        int[] firstChild = cross(first, second, from, to);
+        int[] secondChild = cross(second, first, from, to);
+
+        population.set(individuals[0], Phenotype.of(Genotype.of(first.withOrder(firstChild)), generation));
+        population.set(individuals[1], Phenotype.of(Genotype.of(second.withOrder(secondChild)), generation));
+
+        return changed(first.types(), firstChild) + changed(second.types(), secondChild);
+    }
+
+    /**
+     * Child with {@code keep}'s segment [from, to) and {@code fill}'s order elsewhere
+     */
+    static int[] cross(MultisetChromosome keep, MultisetChromosome fill, int from, int to) {
+        int[] kept = keep.types();
+        int[] donor = fill.types();
+        int length = kept.length;
+
+        int[] left = keep.counts().clone();
+        int[] child = new int[length];
+        for (int i = from; i < to; i++) {
+            child[i] = kept[i];
+            left[kept[i]]--;
+        }
+
+        int at = to % length;
+        for (int k = 0; k < length && at != from; k++) {
+            int type = donor[(to + k) % length];
+            if (left[type] > 0) {
+                left[type]--;
+                child[at] = type;
+                at = (at + 1) % length;
+            }
+        }
+        return child;
+    }
+
+    private static int changed(int[] parent, int[] child) {
+        int changed = 0;
+        for (int i = 0; i < parent.length; i++) {
+            if (parent[i] != child[i]) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ga.binpacking.chromosome;
+
+import io.jenetics.Chromosome;
+import io.jenetics.Mutator;
+import io.jenetics.MutatorResult;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Swap mutation for {@link MultisetChromosome}s
+ *
+ * Like {@link io.jenetics.SwapMutator}, every gene is swapped with a random
+ * partner with probability p. Swapping two copies of the same type would
+ * leave the packing order unchanged, so the partner is drawn among genes of
+ * a different type.
+ */
+public class MultisetSwapMutator<C extends Comparable<? super C>> extends Mutator<TypeGene, C> {
+
+    // Draws before giving up on finding a partner of a different type
+    private static final int PARTNER_ATTEMPTS = 8;
+
+    public MultisetSwapMutator(double probability) {
+        super(probability);
+    }
+
+    @Override
+    protected MutatorResult<Chromosome<TypeGene>> mutate(Chromosome<TypeGene> chromosome, double p,
+            RandomGenerator random) {
+        MultisetChromosome multiset = (MultisetChromosome) chromosome;
+        int length = multiset.length();
+        if (length < 2) {
+            return new MutatorResult<>(chromosome, 0);
+        }
+
+        int[] order = null;
+        int mutations = 0;
+        for (int i = 0; i < length; i++) {
+            if (random.nextDouble() >= p) {
+                continue;
+            }
+            if (order == null) {
+                order = multiset.toArray();
+            }
+            for (int attempt = 0; attempt < PARTNER_ATTEMPTS; attempt++) {
+                int j = random.nextInt(length);
+                if (order[j] != order[i]) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    mutations++;
+                    break;
+                }
+            }
+        }
+
+        return mutations == 0
+                ? new MutatorResult<>(chromosome, 0)
+                : new MutatorResult<>(multiset.withOrder(order), mutations);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MultisetSwapMutator[p=%f]", _probability);
+    }
+}
@@ -10,6 +10,10 @@ package com.ga.binpacking.chromosome;
  * - Each gene contains an item ID (String)
  * - The order determines the packing sequence
  * - First-fit algorithm places items in this order
+ *
+ * {@link MultisetChromosome} is the compact alternative: the same order as
+ * an int[] of item-type ids, evolved with {@link MultisetOrderCrossover} and
+ * {@link MultisetSwapMutator}.
  */
 public class PackingChromosome {
 
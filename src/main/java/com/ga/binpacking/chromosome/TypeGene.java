@@ -0,0 +1,77 @@
+package com.ga.binpacking.chromosome;
+
+import io.jenetics.Gene;
+
+/**
+ * Gene holding a dense item-type id
+ *
+ * Genes are flyweights: a {@link MultisetChromosome} stores its order as an
+ * {@code int[]} and hands out one shared instance per type from
+ * {@link MultisetChromosome#get}.
+ */
+public final class TypeGene implements Gene<Integer, TypeGene> {
+
+    private final int type;
+    private final int typeCount;
+
+    private TypeGene(int type, int typeCount) {
+        this.type = type;
+        this.typeCount = typeCount;
+    }
+
+    /**
+     * Gene for one of {@code typeCount} item types
+     */
+    public static TypeGene of(int type, int typeCount) {
+        return new TypeGene(type, typeCount);
+    }
+
+    public int type() {
+        return type;
+    }
+
+    public int typeCount() {
+        return typeCount;
+    }
+
+    @Override
+    public Integer allele() {
+        return type;
+    }
+
+    /**
+     * This gene: a random type would change how many copies of each type
+     * the chromosome holds, so generic mutators leave the multiset intact
+     */
+    @Override
+    public TypeGene newInstance() {
+        return this;
+    }
+
+    @Override
+    public TypeGene newInstance(Integer allele) {
+        return new TypeGene(allele, typeCount);
+    }
+
+    @Override
+    public boolean isValid() {
+        return type >= 0 && type < typeCount;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TypeGene
+                && ((TypeGene) other).type == type
+                && ((TypeGene) other).typeCount == typeCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type + typeCount;
+    }
+
+    @Override
+    public String toString() {
+        return Integer.toString(type);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ga.binpacking.config;
+
+import com.ga.binpacking.algorithm.TerminationPolicy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Typed access to config.properties
+ *
+ * Keys that are missing or not parseable fall back to the given default,
+ * so a partial (or absent) file behaves like the SystemConfig constants.
+ */
+public final class ConfigLoader {
+
+    public static final String DEFAULT_FILE = "config.properties";
+
+    private final Properties properties;
+
+    private ConfigLoader(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Load config.properties from the working directory, or use defaults
+     * only if there is no such file
+     */
+    public static ConfigLoader load() {
+        Path path = Paths.get(DEFAULT_FILE);
+        return Files.isRegularFile(path) ? load(path) : new ConfigLoader(new Properties());
+    }
+
+    public static ConfigLoader load(Path path) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read configuration " + path, e);
+        }
+        return new ConfigLoader(properties);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getString(key, Integer.toString(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(getString(key, Double.toString(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Termination policy from the optimization.* keys
+     *
+     * optimization.max.time.seconds sets the time budget (0 for none); with
+     * optimization.early.stopping.enabled the run also stops after
+     * optimization.steady.generations without improvement or once the best
+     * and average fitness are within optimization.convergence.threshold.
+     */
+    public TerminationPolicy terminationPolicy() {
+        TerminationPolicy policy = TerminationPolicy.none();
+
+        int maxSeconds = getInt("optimization.max.time.seconds", 0);
+        if (maxSeconds > 0) {
+            policy = policy.withMaxTime(Duration.ofSeconds(maxSeconds));
+        }
+
+        if (getBoolean("optimization.early.stopping.enabled", false)) {
+            int steadyGenerations = getInt("optimization.steady.generations", 20);
+            if (steadyGenerations > 0) {
+                policy = policy.withSteadyFitness(steadyGenerations);
+            }
+            double threshold = getDouble("optimization.convergence.threshold", 0.0);
+            if (threshold > 0.0) {
+                policy = policy.withConvergence(threshold);
+            }
+        }
+        return policy;
+    }
+}
@@ -0,0 +1,559 @@
+package com.ga.binpacking.distributed;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Evaluator;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.Seq;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Evaluator that ships compact genotypes to a pool of worker processes
+ *
+ * Each generation's unevaluated individuals are split into batches that
+ * are dealt round-robin onto per-worker deques. Every {@link FitnessWorker}
+ * process is served by a dispatcher thread, which keeps up to
+ * {@value #IN_FLIGHT} batches outstanding so the worker finds its next
+ * batch waiting when it finishes one, and by a reader thread, which
+ * matches the replies to their batches by id. The dispatcher takes batches
+ * from the front of its own deque; when that is empty it steals from the
+ * back of another worker's deque, so fast workers take more batches and a
+ * slow one never holds back the others. Workers are reached over loopback
+ * TCP and run in their own heaps.
+ *
+ * Per-worker health is tracked: a worker that fails or leaves a batch
+ * unanswered past the timeout is retired, its outstanding batches go back
+ * to the front of its deque, from where the remaining workers steal them
+ * along with the rest of that deque, and if no worker is left the
+ * remaining batches are evaluated in the calling thread. Use with
+ * {@link com.ga.binpacking.algorithm.GeneticBinPacker#withEvaluator} and
+ * close the farm afterwards.
+ */
+public class FitnessFarm implements Evaluator<TypeGene, Double>, Closeable {
+
+    // How often the evaluating and dispatcher threads check for failed workers
+    private static final long POLL_MILLIS = 50;
+
+    // Batches sent to a worker before it has answered the first of them
+    static final int IN_FLIGHT = 2;
+
+    private final BinPackingProblem problem;
+    private final int workers;
+    private int batchSize = 4;
+    private int timeoutMillis = 60_000;
+
+    private final List<Worker> pool = new ArrayList<>();
+
+    // One permit per batch queued on any worker's deque
+    private final Semaphore queued = new Semaphore(0);
+
+    private final AtomicInteger alive = new AtomicInteger();
+    private final AtomicInteger batchIds = new AtomicInteger();
+    private GenotypeCodec codec;
+
+    public FitnessFarm(BinPackingProblem problem, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        this.problem = problem;
+        this.workers = workers;
+    }
+
+    /**
+     * Genotypes per message; larger batches amortize the round trip, smaller
+     * ones balance load better
+     */
+    public FitnessFarm withBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * How long to wait for a worker to connect or to answer a batch before
+     * it is retired
+     */
+    public FitnessFarm withTimeout(int timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + timeoutMillis);
+        }
+        this.timeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    /**
+     * Launch the worker processes and wait until all of them have connected
+     */
+    public FitnessFarm start() throws IOException {
+        if (codec != null) {
+            throw new IllegalStateException("Fitness farm already started");
+        }
+        codec = new GenotypeCodec(problem);
+        byte[] spec = new ProblemSpec(problem.getAvailableItems(), problem.getBin(), problem.getPlacementMode(),
+                0, 0, 0.0, 0.0, 0, 0).encode();
+
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(timeoutMillis);
+            for (int id = 0; id < workers; id++) {
+                pool.add(new Worker(id, WorkerProcesses.launch(FitnessWorker.class, server.getLocalPort(), id)));
+            }
+
+            for (int i = 0; i < workers; i++) {
+                Socket socket = server.accept();
+                socket.setSoTimeout(timeoutMillis);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                Wire.Frame hello = Wire.read(in);
+                int id = hello.tag == Wire.HELLO ? ByteBuffer.wrap(hello.payload).getInt() : -1;
+                if (id < 0 || id >= workers || pool.get(id).socket != null) {
+                    socket.close();
+                    throw new IOException("Unexpected handshake from a worker");
+                }
+                pool.get(id).connect(socket, in, spec);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+
+        for (Worker worker : pool) {
+            alive.incrementAndGet();
+            worker.dispatcher.start();
+            worker.reader.start();
+        }
+        return this;
+    }
+
+    @Override
+    public ISeq<Phenotype<TypeGene, Double>> eval(Seq<Phenotype<TypeGene, Double>> population) {
+        if (codec == null) {
+            throw new IllegalStateException("Fitness farm not started");
+        }
+
+        MSeq<Phenotype<TypeGene, Double>> evaluated = MSeq.of(population);
+        List<Integer> unevaluated = new ArrayList<>();
+        for (int i = 0; i < evaluated.length(); i++) {
+            if (evaluated.get(i).nonEvaluated()) {
+                unevaluated.add(i);
+            }
+        }
+        if (unevaluated.isEmpty()) {
+            return evaluated.toISeq();
+        }
+
+        double[] fitness = new double[evaluated.length()];
+        int batches = (unevaluated.size() + batchSize - 1) / batchSize;
+        CountDownLatch done = new CountDownLatch(batches);
+        try {
+            int next = 0;
+            for (int from = 0; from < unevaluated.size(); from += batchSize) {
+                List<Integer> positions = unevaluated.subList(from, Math.min(from + batchSize, unevaluated.size()));
+                List<Genotype<TypeGene>> genotypes = new ArrayList<>(positions.size());
+                for (int position : positions) {
+                    genotypes.add(evaluated.get(position).genotype());
+                }
+                Batch batch = new Batch(batchIds.incrementAndGet(), positions, genotypes, fitness, done);
+
+                // Deal to the next live worker; retired ones are only stolen from
+                Worker worker = pool.get(next);
+                for (int k = 0; k < pool.size() && worker.retired; k++) {
+                    next = (next + 1) % pool.size();
+                    worker = pool.get(next);
+                }
+                next = (next + 1) % pool.size();
+                worker.queue.addLast(batch);
+                queued.release();
+            }
+
+            while (!done.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (alive.get() == 0) {
+                    while (queued.tryAcquire()) {
+                        pollAny().evaluateLocally();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode a batch", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for fitness values", e);
+        }
+
+        for (int position : unevaluated) {
+            evaluated.set(position, evaluated.get(position).withFitness(fitness[position]));
+        }
+        return evaluated.toISeq();
+    }
+
+    /**
+     * A batch from any worker's deque; the caller holds a permit for it
+     */
+    private Batch pollAny() {
+        while (true) {
+            for (Worker worker : pool) {
+                Batch batch = worker.queue.pollFirst();
+                if (batch != null) {
+                    return batch;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Snapshot of every worker's health, in worker order
+     */
+    public List<WorkerHealth> health() {
+        List<WorkerHealth> health = new ArrayList<>(pool.size());
+        for (Worker worker : pool) {
+            health.add(worker.health());
+        }
+        return health;
+    }
+
+    /**
+     * Stop the dispatchers and the worker processes
+     */
+    @Override
+    public void close() {
+        for (Worker worker : pool) {
+            worker.retire();
+            worker.dispatcher.interrupt();
+            worker.reader.interrupt();
+        }
+    }
+
+    /**
+     * Genotypes sent to a worker in one message, with the positions in the
+     * population their fitness values belong to
+     */
+    private final class Batch {
+        final int id;
+        final int[] positions;
+        final List<Genotype<TypeGene>> genotypes;
+        final byte[] payload;
+        final double[] fitness;
+        final CountDownLatch done;
+
+        Batch(int id, List<Integer> positions, List<Genotype<TypeGene>> genotypes, double[] fitness,
+                CountDownLatch done) throws IOException {
+            this.id = id;
+            this.positions = positions.stream().mapToInt(Integer::intValue).toArray();
+            this.genotypes = genotypes;
+            this.fitness = fitness;
+            this.done = done;
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(id);
+            out.write(codec.encodeGenotypes(genotypes));
+            out.flush();
+            this.payload = bytes.toByteArray();
+        }
+
+        /**
+         * Whether a reply, positioned after the batch id, holds one value per
+         * genotype
+         */
+        boolean matches(ByteBuffer values) {
+            return values.remaining() == Integer.BYTES + positions.length * Double.BYTES
+                    && values.getInt(values.position()) == positions.length;
+        }
+
+        void complete(ByteBuffer values) {
+            values.getInt();
+            for (int position : positions) {
+                fitness[position] = values.getDouble();
+            }
+            done.countDown();
+        }
+
+        void evaluateLocally() {
+            for (int i = 0; i < positions.length; i++) {
+                fitness[positions[i]] = problem.compactFitness(genotypes.get(i));
+            }
+            done.countDown();
+        }
+    }
+
+    /**
+     * One worker process, its connection and the threads feeding it and
+     * reading its replies
+     */
+    private final class Worker {
+        final int id;
+        final Process process;
+        final Thread dispatcher;
+        final Thread reader;
+        final BlockingDeque<Batch> queue = new LinkedBlockingDeque<>();
+
+        // Batches sent and not yet answered, by id, and their send times
+        final Map<Integer, Batch> inFlight = new ConcurrentHashMap<>();
+        final Map<Integer, Long> sentAt = new ConcurrentHashMap<>();
+        final Semaphore slots = new Semaphore(IN_FLIGHT);
+
+        Socket socket;
+        DataInputStream in;
+        DataOutputStream out;
+
+        volatile boolean retired;
+        volatile int batches;
+        volatile int evaluations;
+        volatile int failures;
+        volatile int stolen;
+        volatile long busyNanos;
+
+        Worker(int id, Process process) {
+            this.id = id;
+            this.process = process;
+            this.dispatcher = new Thread(this::dispatch, "fitness-farm-" + id);
+            this.dispatcher.setDaemon(true);
+            this.reader = new Thread(this::receive, "fitness-farm-reader-" + id);
+            this.reader.setDaemon(true);
+        }
+
+        void connect(Socket socket, DataInputStream in, byte[] spec) throws IOException {
+            this.socket = socket;
+            this.in = in;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            socket.setTcpNoDelay(true);
+            // Replies are awaited without a read timeout; the dispatcher retires overdue workers
+            socket.setSoTimeout(0);
+            Wire.write(out, Wire.SPEC, spec);
+        }
+
+        private void dispatch() {
+            try {
+                while (!retired) {
+                    if (overdue()) {
+                        fail(new IOException("No reply within " + timeoutMillis + " ms"));
+                        return;
+                    }
+                    if (!slots.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        continue;
+                    }
+                    if (!queued.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        slots.release();
+                        continue;
+                    }
+                    Batch batch = take();
+                    synchronized (this) {
+                        // A failure after this point finds the batch in flight and re-queues it
+                        if (retired) {
+                            queue.addFirst(batch);
+                            queued.release();
+                            return;
+                        }
+                        sentAt.put(batch.id, System.nanoTime());
+                        inFlight.put(batch.id, batch);
+                    }
+                    try {
+                        Wire.write(out, Wire.EVALUATE, batch.payload);
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Closed
+            }
+        }
+
+        /**
+         * Match replies to the batches in flight until the connection fails
+         */
+        private void receive() {
+            while (!retired) {
+                try {
+                    Wire.Frame reply = Wire.read(in);
+                    if (reply.tag != Wire.FITNESS) {
+                        throw new IOException("Expected fitness values, got message " + reply.tag);
+                    }
+                    ByteBuffer values = ByteBuffer.wrap(reply.payload);
+                    int batchId = values.getInt();
+                    Batch batch = inFlight.get(batchId);
+                    if (batch == null || !batch.matches(values)) {
+                        throw new IOException("Reply does not match a batch in flight: " + batchId);
+                    }
+                    if (inFlight.remove(batchId) == null) {
+                        continue; // Re-queued by a failure in the meantime
+                    }
+                    batch.complete(values);
+                    busyNanos += System.nanoTime() - sentAt.remove(batchId);
+                    evaluations += batch.positions.length;
+                    batches++;
+                    slots.release();
+                } catch (IOException | RuntimeException e) {
+                    fail(e);
+                }
+            }
+        }
+
+        /**
+         * Whether some batch has been in flight for longer than the timeout
+         */
+        private boolean overdue() {
+            long now = System.nanoTime();
+            for (long sent : sentAt.values()) {
+                if (now - sent > TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Retire this worker and leave its unanswered batches for the others
+         * to steal
+         */
+        private synchronized void fail(Exception cause) {
+            if (retired) {
+                return;
+            }
+            failures++;
+            System.err.println("Retiring fitness worker " + id + ": " + cause);
+            retire();
+            for (Integer batchId : inFlight.keySet()) {
+                Batch batch = inFlight.remove(batchId);
+                if (batch != null) {
+                    sentAt.remove(batchId);
+                    queue.addFirst(batch);
+                    queued.release();
+                }
+            }
+        }
+
+        /**
+         * The batch at the front of this worker's deque, or else one stolen
+         * from the back of another's
+         *
+         * The caller holds a permit, so some deque has a batch for it.
+         */
+        private Batch take() {
+            while (true) {
+                Batch batch = queue.pollFirst();
+                if (batch != null) {
+                    return batch;
+                }
+                for (int k = 1; k < pool.size(); k++) {
+                    batch = pool.get((id + k) % pool.size()).queue.pollLast();
+                    if (batch != null) {
+                        stolen++;
+                        return batch;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        synchronized void retire() {
+            if (retired) {
+                return;
+            }
+            retired = true;
+            if (socket != null) {
+                alive.decrementAndGet();
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Already closed
+                }
+            }
+            process.destroy();
+        }
+
+        WorkerHealth health() {
+            return new WorkerHealth(id, !retired && process.isAlive(), batches, evaluations, failures, stolen,
+                    batches == 0 ? 0.0 : busyNanos / 1e6 / batches);
+        }
+    }
+
+    /**
+     * Health of one worker process
+     */
+    public static final class WorkerHealth {
+        private final int worker;
+        private final boolean alive;
+        private final int batches;
+        private final int evaluations;
+        private final int failures;
+        private final int stolen;
+        private final double meanBatchMillis;
+
+        WorkerHealth(int worker, boolean alive, int batches, int evaluations, int failures, int stolen,
+                double meanBatchMillis) {
+            this.worker = worker;
+            this.alive = alive;
+            this.batches = batches;
+            this.evaluations = evaluations;
+            this.failures = failures;
+            this.stolen = stolen;
+            this.meanBatchMillis = meanBatchMillis;
+        }
+
+        public int getWorker() {
+            return worker;
+        }
+
+        public boolean isAlive() {
+            return alive;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public int getEvaluations() {
+            return evaluations;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        /**
+         * Batches taken from other workers' deques
+         */
+        public int getStolenBatches() {
+            return stolen;
+        }
+
+        /**
+         * Mean round trip of a batch, including transfer
+         */
+        public double getMeanBatchMillis() {
+            return meanBatchMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Worker %d: %s, %d batches (%d stolen), %d evaluations, %d failures, %.1f ms/batch",
+                    worker, alive ? "alive" : "retired", batches, stolen, evaluations, failures, meanBatchMillis);
+        }
+    }
+}
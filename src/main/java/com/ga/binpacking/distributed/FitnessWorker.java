@@ -0,0 +1,83 @@
+package com.ga.binpacking.distributed;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.Genotype;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Worker process of a {@link FitnessFarm}
+ *
+ * Connects to the farm, receives the problem and then evaluates batches of
+ * compact genotypes until the farm closes the connection.
+ *
+ * Usage: FitnessWorker &lt;host&gt; &lt;port&gt; &lt;worker&gt;
+ */
+public final class FitnessWorker {
+
+    private FitnessWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: FitnessWorker <host> <port> <worker>");
+            System.exit(2);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int worker = Integer.parseInt(args[2]);
+
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            Wire.write(out, Wire.HELLO, ByteBuffer.allocate(Integer.BYTES).putInt(worker).array());
+            Wire.Frame frame = Wire.read(in);
+            if (frame.tag != Wire.SPEC) {
+                throw new IOException("Expected the problem spec, got message " + frame.tag);
+            }
+            BinPackingProblem problem = ProblemSpec.decode(frame.payload).problem();
+            GenotypeCodec codec = new GenotypeCodec(problem);
+
+            while (true) {
+                try {
+                    frame = Wire.read(in);
+                } catch (EOFException e) {
+                    return; // Farm closed
+                }
+                if (frame.tag == Wire.EVALUATE) {
+                    Wire.write(out, Wire.FITNESS, evaluate(problem, codec, frame.payload));
+                }
+            }
+        }
+    }
+
+    private static byte[] evaluate(BinPackingProblem problem, GenotypeCodec codec, byte[] payload)
+            throws IOException {
+        int batch = ByteBuffer.wrap(payload).getInt();
+        List<Genotype<TypeGene>> genotypes = codec.decodeGenotypes(
+                Arrays.copyOfRange(payload, Integer.BYTES, payload.length));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(batch);
+        out.writeInt(genotypes.size());
+        for (Genotype<TypeGene> genotype : genotypes) {
+            out.writeDouble(problem.compactFitness(genotype));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
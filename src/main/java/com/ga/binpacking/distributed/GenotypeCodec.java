@@ -0,0 +1,117 @@
+package com.ga.binpacking.distributed;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.chromosome.MultisetChromosome;
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format for batches of compact genotypes
+ *
+ * A batch is a count followed by, per individual, its fitness and
+ * generation (evaluated phenotypes only) and order length, then the
+ * item-type order at one byte per gene (two when there are more than 256
+ * item types). Decoded chromosomes share the problem's composition.
+ */
+final class GenotypeCodec {
+
+    private final MultisetChromosome prototype;
+    private final boolean wideTypes;
+
+    GenotypeCodec(BinPackingProblem problem) {
+        this.prototype = (MultisetChromosome) problem.compactGenotypeFactory().newInstance().chromosome();
+        if (prototype.typeCount() > 1 << 16) {
+            throw new IllegalArgumentException("Too many item types for the wire format: " + prototype.typeCount());
+        }
+        this.wideTypes = prototype.typeCount() > 1 << 8;
+    }
+
+    byte[] encode(List<Phenotype<TypeGene, Double>> individuals) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(individuals.size());
+        for (Phenotype<TypeGene, Double> individual : individuals) {
+            out.writeDouble(individual.fitness());
+            out.writeLong(individual.generation());
+            writeOrder(out, individual.genotype());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encode genotypes that have not been evaluated yet
+     */
+    byte[] encodeGenotypes(List<Genotype<TypeGene>> genotypes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(genotypes.size());
+        for (Genotype<TypeGene> genotype : genotypes) {
+            writeOrder(out, genotype);
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeOrder(DataOutputStream out, Genotype<TypeGene> genotype) throws IOException {
+        MultisetChromosome chromosome = (MultisetChromosome) genotype.chromosome();
+        out.writeInt(chromosome.length());
+        for (int i = 0; i < chromosome.length(); i++) {
+            if (wideTypes) {
+                out.writeShort(chromosome.type(i));
+            } else {
+                out.writeByte(chromosome.type(i));
+            }
+        }
+    }
+
+    List<Phenotype<TypeGene, Double>> decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int count = in.readInt();
+        List<Phenotype<TypeGene, Double>> individuals = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            double fitness = in.readDouble();
+            long generation = in.readLong();
+            individuals.add(Phenotype.of(readOrder(in), generation, fitness));
+        }
+        return individuals;
+    }
+
+    List<Genotype<TypeGene>> decodeGenotypes(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int count = in.readInt();
+        List<Genotype<TypeGene>> genotypes = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            genotypes.add(readOrder(in));
+        }
+        return genotypes;
+    }
+
+    private Genotype<TypeGene> readOrder(DataInputStream in) throws IOException {
+        int[] order = new int[in.readInt()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = wideTypes ? in.readUnsignedShort() : in.readUnsignedByte();
+        }
+
+        MultisetChromosome chromosome = prototype.newInstance(order);
+        if (!chromosome.isValid()) {
+            throw new IOException("Received order is not a permutation of the problem's items");
+        }
+        return Genotype.of(chromosome);
+    }
+}
@@ -0,0 +1,217 @@
+package com.ga.binpacking.distributed;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.algorithm.GeneticBinPacker;
+import com.ga.binpacking.algorithm.MigrationTopology;
+import com.ga.binpacking.chromosome.TypeGene;
+import com.ga.binpacking.model.PackingSolution;
+import io.jenetics.EnumGene;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionStatistics;
+import io.jenetics.util.RandomRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Island model across worker JVMs on the local machine
+ *
+ * The coordinator listens on an ephemeral loopback TCP port and launches one
+ * {@link IslandWorker} process per island with the current java binary and
+ * class path. Each worker receives the problem at handshake and evolves its
+ * own population; every migration interval it sends its best individuals
+ * to the coordinator, which relays the encoded batch unchanged to the
+ * islands selected by the topology. When all workers have finished, the
+ * best individual reported by any of them becomes the result.
+ *
+ * Needs nothing but loopback networking, so it runs on a single box. TCP
+ * rather than a Unix domain socket keeps the blocking socket streams of
+ * {@link Wire} and the workers' host and port arguments, which also reach
+ * another machine.
+ */
+public class IslandCoordinator {
+
+    private final BinPackingProblem problem;
+    private final int populationSize;
+    private final int maxGenerations;
+    private final double mutationRate;
+    private final double crossoverRate;
+
+    private int workers = 2;
+    private int migrationInterval = 10;
+    private int migrants = 2;
+    private MigrationTopology topology = MigrationTopology.RING;
+    private int connectTimeoutMillis = 60_000;
+
+    public IslandCoordinator(BinPackingProblem problem, int populationSize, int maxGenerations,
+            double mutationRate, double crossoverRate) {
+        this.problem = problem;
+        this.populationSize = populationSize;
+        this.maxGenerations = maxGenerations;
+        this.mutationRate = mutationRate;
+        this.crossoverRate = crossoverRate;
+    }
+
+    /**
+     * Number of worker processes (one island each) and how they migrate
+     */
+    public IslandCoordinator withWorkers(int workers, int migrationInterval, int migrants,
+            MigrationTopology topology) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        this.workers = workers;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+        this.topology = topology;
+        return this;
+    }
+
+    /**
+     * How long to wait for each worker to connect
+     */
+    public IslandCoordinator withConnectTimeout(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * One connected worker
+     */
+    private static final class Connection {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+
+    /**
+     * Launch the workers, relay migrants until every worker is done and
+     * return the global best
+     */
+    public GeneticBinPacker.OptimizationResult optimize() throws IOException {
+        System.out.println("========================================");
+        System.out.println("  Distributed Island Model");
+        System.out.println("========================================");
+        System.out.println("Worker Processes: " + workers);
+        System.out.println("Topology: " + topology + ", every " + migrationInterval + " generations, "
+                + migrants + " migrants");
+        System.out.println("========================================\n");
+
+        byte[] spec = new ProblemSpec(problem.getAvailableItems(), problem.getBin(), problem.getPlacementMode(),
+                populationSize, maxGenerations, mutationRate, crossoverRate, migrationInterval, migrants).encode();
+        GenotypeCodec codec = new GenotypeCodec(problem);
+
+        AtomicReference<Phenotype<TypeGene, Double>> best = new AtomicReference<>();
+        List<Process> processes = new ArrayList<>();
+        Connection[] connections = new Connection[workers];
+
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(connectTimeoutMillis);
+            for (int island = 0; island < workers; island++) {
+                processes.add(WorkerProcesses.launch(IslandWorker.class, server.getLocalPort(), island));
+            }
+
+            // Handshake: every worker names its island and gets the spec
+            for (int i = 0; i < workers; i++) {
+                Connection connection = new Connection(server.accept());
+                connection.socket.setTcpNoDelay(true);
+                Wire.Frame hello = Wire.read(connection.in);
+                int island = hello.tag == Wire.HELLO ? ByteBuffer.wrap(hello.payload).getInt() : -1;
+                if (island < 0 || island >= workers || connections[island] != null) {
+                    connection.socket.close();
+                    throw new IOException("Unexpected handshake from a worker");
+                }
+                connections[island] = connection;
+                Wire.write(connection.out, Wire.SPEC, spec);
+            }
+
+            CountDownLatch finished = new CountDownLatch(workers);
+            for (int island = 0; island < workers; island++) {
+                int from = island;
+                Thread relay = new Thread(() -> relay(from, connections, codec, best, finished),
+                        "island-relay-" + island);
+                relay.setDaemon(true);
+                relay.start();
+            }
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the workers", e);
+        } finally {
+            for (Connection connection : connections) {
+                if (connection != null) {
+                    connection.socket.close();
+                }
+            }
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+
+        if (best.get() == null) {
+            throw new IOException("No worker reported a result");
+        }
+
+        Phenotype<TypeGene, Double> compact = best.get();
+        Phenotype<EnumGene<String>, Double> bestPhenotype = Phenotype.of(problem.expand(compact.genotype()),
+                compact.generation(), compact.fitness());
+        PackingSolution solution = problem.convertToSolution(bestPhenotype.genotype());
+
+        System.out.printf("Best Fitness: %.4f%n", bestPhenotype.fitness());
+        System.out.printf("Items Packed: %d%n", solution.getPlacements().size());
+
+        return new GeneticBinPacker.OptimizationResult(bestPhenotype, solution, EvolutionStatistics.ofNumber());
+    }
+
+    /**
+     * Forward one worker's migrants to their target islands until it
+     * reports its result or disconnects
+     */
+    private void relay(int from, Connection[] connections, GenotypeCodec codec,
+            AtomicReference<Phenotype<TypeGene, Double>> best, CountDownLatch finished) {
+        try {
+            while (true) {
+                Wire.Frame frame = Wire.read(connections[from].in);
+                if (frame.tag == Wire.MIGRANTS) {
+                    for (int to : topology.targets(from, workers, RandomRegistry.random())) {
+                        try {
+                            Wire.write(connections[to].out, Wire.MIGRANTS, frame.payload);
+                        } catch (IOException e) {
+                            // Target already finished; its migrants are no longer needed
+                        }
+                    }
+                } else if (frame.tag == Wire.DONE) {
+                    for (Phenotype<TypeGene, Double> result : codec.decode(frame.payload)) {
+                        best.accumulateAndGet(result,
+                                (current, candidate) -> current == null || candidate.fitness() > current.fitness()
+                                        ? candidate
+                                        : current);
+                        System.out.printf("Island %d finished: Best Fitness = %.4f%n", from, result.fitness());
+                    }
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Lost connection to island " + from + ": " + e.getMessage());
+        } finally {
+            finished.countDown();
+        }
+    }
+}
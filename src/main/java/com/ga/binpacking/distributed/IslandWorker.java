@@ -0,0 +1,67 @@
+package com.ga.binpacking.distributed;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.algorithm.GeneticBinPacker;
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.Phenotype;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+/**
+ * Worker process of the distributed island model
+ *
+ * Connects to the coordinator, receives the problem and GA settings, evolves
+ * one island with {@link GeneticBinPacker}, exchanging migrants through the
+ * coordinator, and reports its best individual before exiting.
+ *
+ * Usage: IslandWorker &lt;host&gt; &lt;port&gt; &lt;island&gt;
+ */
+public final class IslandWorker {
+
+    private IslandWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: IslandWorker <host> <port> <island>");
+            System.exit(2);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int island = Integer.parseInt(args[2]);
+
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            Wire.write(out, Wire.HELLO, ByteBuffer.allocate(Integer.BYTES).putInt(island).array());
+            Wire.Frame frame = Wire.read(in);
+            if (frame.tag != Wire.SPEC) {
+                throw new IOException("Expected the problem spec, got message " + frame.tag);
+            }
+            ProblemSpec spec = ProblemSpec.decode(frame.payload);
+
+            BinPackingProblem problem = spec.problem();
+            GenotypeCodec codec = new GenotypeCodec(problem);
+            RemoteMigration migration = new RemoteMigration(in, out, codec);
+
+            GeneticBinPacker.OptimizationResult result = new GeneticBinPacker(problem, spec.populationSize,
+                    spec.maxGenerations, spec.mutationRate, spec.crossoverRate)
+                    .withMigration(island, spec.migrationInterval, spec.migrants, migration)
+                    .optimize();
+
+            Phenotype<?, Double> best = result.getBestPhenotype();
+            Phenotype<TypeGene, Double> compact = Phenotype.of(problem.compact(result.getBestPhenotype().genotype()),
+                    best.generation(), best.fitness());
+            Wire.write(out, Wire.DONE, codec.encode(Collections.singletonList(compact)));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ga.binpacking.distributed;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.model.Bin;
+import com.ga.binpacking.model.Item;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Problem instance and GA settings sent to every worker at handshake, so
+ * workers need no configuration of their own
+ */
+final class ProblemSpec {
+
+    final List<Item> items;
+    final Bin bin;
+    final BinPackingProblem.PlacementMode placementMode;
+    final int populationSize;
+    final int maxGenerations;
+    final double mutationRate;
+    final double crossoverRate;
+    final int migrationInterval;
+    final int migrants;
+
+    ProblemSpec(List<Item> items, Bin bin, BinPackingProblem.PlacementMode placementMode, int populationSize,
+            int maxGenerations, double mutationRate, double crossoverRate, int migrationInterval, int migrants) {
+        this.items = items;
+        this.bin = bin;
+        this.placementMode = placementMode;
+        this.populationSize = populationSize;
+        this.maxGenerations = maxGenerations;
+        this.mutationRate = mutationRate;
+        this.crossoverRate = crossoverRate;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+    }
+
+    BinPackingProblem problem() {
+        return new BinPackingProblem(items, bin, placementMode);
+    }
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeDouble(bin.getWidth());
+        out.writeDouble(bin.getHeight());
+        out.writeDouble(bin.getDepth());
+        out.writeUTF(placementMode.name());
+
+        out.writeInt(items.size());
+        for (Item item : items) {
+            out.writeUTF(item.getId());
+            out.writeDouble(item.getWidth());
+            out.writeDouble(item.getHeight());
+            out.writeDouble(item.getDepth());
+            out.writeInt(item.getAvailableQuantity());
+            out.writeDouble(item.getCost());
+        }
+
+        out.writeInt(populationSize);
+        out.writeInt(maxGenerations);
+        out.writeDouble(mutationRate);
+        out.writeDouble(crossoverRate);
+        out.writeInt(migrationInterval);
+        out.writeInt(migrants);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static ProblemSpec decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+        Bin bin = new Bin(in.readDouble(), in.readDouble(), in.readDouble());
+        BinPackingProblem.PlacementMode placementMode = BinPackingProblem.PlacementMode.valueOf(in.readUTF());
+
+        int itemCount = in.readInt();
+        List<Item> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Item(in.readUTF(), in.readDouble(), in.readDouble(), in.readDouble(), in.readInt(),
+                    in.readDouble()));
+        }
+
+        return new ProblemSpec(items, bin, placementMode, in.readInt(), in.readInt(), in.readDouble(),
+                in.readDouble(), in.readInt(), in.readInt());
+    }
+}
@@ -0,0 +1,66 @@
+package com.ga.binpacking.distributed;
+
+import com.ga.binpacking.algorithm.Migration;
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.Phenotype;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Worker side of the migration transport: emigrants go to the coordinator,
+ * which routes them by topology; immigrants are read by a background thread
+ * into a lock-free inbox
+ */
+final class RemoteMigration implements Migration<TypeGene> {
+
+    private final DataOutputStream out;
+    private final GenotypeCodec codec;
+    private final Queue<Phenotype<TypeGene, Double>> inbox = new ConcurrentLinkedQueue<>();
+
+    RemoteMigration(DataInputStream in, DataOutputStream out, GenotypeCodec codec) {
+        this.out = out;
+        this.codec = codec;
+
+        Thread reader = new Thread(() -> readMigrants(in), "migration-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readMigrants(DataInputStream in) {
+        try {
+            while (true) {
+                Wire.Frame frame = Wire.read(in);
+                if (frame.tag == Wire.MIGRANTS) {
+                    inbox.addAll(codec.decode(frame.payload));
+                }
+            }
+        } catch (IOException e) {
+            // Coordinator closed the connection; no more immigrants
+        }
+    }
+
+    @Override
+    public void send(int island, List<Phenotype<TypeGene, Double>> emigrants) {
+        try {
+            Wire.write(out, Wire.MIGRANTS, codec.encode(emigrants));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not send migrants to the coordinator", e);
+        }
+    }
+
+    @Override
+    public List<Phenotype<TypeGene, Double>> receive(int island) {
+        List<Phenotype<TypeGene, Double>> immigrants = new ArrayList<>();
+        for (Phenotype<TypeGene, Double> migrant = inbox.poll(); migrant != null; migrant = inbox.poll()) {
+            immigrants.add(migrant);
+        }
+        return immigrants;
+    }
+}
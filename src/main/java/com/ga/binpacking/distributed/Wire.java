@@ -0,0 +1,66 @@
+package com.ga.binpacking.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Framing of the coordinator/worker protocol
+ *
+ * Every message is a one-byte tag, a four-byte payload length and the
+ * payload. A worker opens with HELLO (its island id), the coordinator
+ * answers with SPEC (the problem and GA settings), after which both sides
+ * exchange MIGRANTS; a worker ends with DONE (its best individual).
+ *
+ * Fitness-farm workers use the same handshake, then answer every EVALUATE
+ * (a batch id and genotypes) with FITNESS (the batch id and one value per
+ * genotype).
+ */
+final class Wire {
+
+    static final byte HELLO = 1;
+    static final byte SPEC = 2;
+    static final byte MIGRANTS = 3;
+    static final byte DONE = 4;
+    static final byte EVALUATE = 5;
+    static final byte FITNESS = 6;
+
+    // Upper bound on a payload, to fail fast on a corrupt stream
+    private static final int MAX_PAYLOAD = 64 << 20;
+
+    private Wire() {
+    }
+
+    /**
+     * One received message
+     */
+    static final class Frame {
+        final byte tag;
+        final byte[] payload;
+
+        Frame(byte tag, byte[] payload) {
+            this.tag = tag;
+            this.payload = payload;
+        }
+    }
+
+    static void write(DataOutputStream out, byte tag, byte[] payload) throws IOException {
+        synchronized (out) {
+            out.writeByte(tag);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        }
+    }
+
+    static Frame read(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PAYLOAD) {
+            throw new IOException("Invalid payload length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(tag, payload);
+    }
+}
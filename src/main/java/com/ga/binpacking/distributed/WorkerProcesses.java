@@ -0,0 +1,29 @@
+package com.ga.binpacking.distributed;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Paths;
+
+/**
+ * Launches worker JVMs on the local machine with the current java binary
+ * and class path
+ */
+final class WorkerProcesses {
+
+    private WorkerProcesses() {
+    }
+
+    /**
+     * Start {@code mainClass} with arguments host, port and worker id; its
+     * standard output is discarded and errors go to this process's stderr
+     */
+    static Process launch(Class<?> mainClass, int port, int id) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                mainClass.getName(), InetAddress.getLoopbackAddress().getHostAddress(),
+                Integer.toString(port), Integer.toString(id));
+        builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return builder.start();
+    }
+}
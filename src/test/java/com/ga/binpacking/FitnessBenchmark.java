@@ -0,0 +1,222 @@
+package com.ga.binpacking;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.algorithm.DeltaEvaluator;
+import com.ga.binpacking.algorithm.ImprovedBinPackingProblem;
+import com.ga.binpacking.config.SystemConfig;
+import com.ga.binpacking.model.*;
+import io.jenetics.*;
+import io.jenetics.util.Factory;
+import io.jenetics.util.ISeq;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micro-benchmark for the fitness evaluation hot path, run from the test
+ * classpath
+ *
+ * Reports evaluations per second and heap bytes allocated per evaluation
+ * (measured with the thread's allocated-bytes counter) on the default
+ * BinPackingMain and ImprovedBinPackingMain instances. After warm-up the
+ * allocation per evaluation is expected to be zero.
+ *
+ * A second section compares full and delta evaluation of swap-mutated
+ * offspring on the default instance, and a third measures how throughput
+ * scales with the number of evaluating threads.
+ */
+public class FitnessBenchmark {
+
+    private static final int GENOTYPES = 16;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("  FITNESS EVALUATION BENCHMARK");
+        System.out.println("=".repeat(60) + "\n");
+
+        Bin bin = SystemConfig.createBin();
+        List<Item> items = SystemConfig.createItems();
+
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = new BinPackingProblem(items, bin, mode);
+            run("3D " + mode, problem.genotypeFactory(), problem::fitness);
+        }
+
+        BinPackingProblem compact = new BinPackingProblem(items, bin);
+        run("3D compact chromosome", compact.compactGenotypeFactory(), compact::compactFitness);
+        run("3D run-length", compact.runLengthGenotypeFactory(), compact::runLengthFitness);
+
+        ImprovedBinPackingProblem improved = new ImprovedBinPackingProblem(createShapeItems(), new Bin(200, 200));
+        run("2D shapes", improved.genotypeFactory(), improved::fitness);
+
+        System.out.println();
+        runSwapMutants(new BinPackingProblem(items, bin));
+
+        System.out.println();
+        runThreadScaling(new BinPackingProblem(items, bin));
+
+        System.out.println("\n" + "=".repeat(60) + "\n");
+    }
+
+    private static <G extends Gene<?, G>> void run(String name, Factory<Genotype<G>> factory,
+            ToDoubleFunction<Genotype<G>> fitness) {
+        List<Genotype<G>> genotypes = new ArrayList<>();
+        for (int i = 0; i < GENOTYPES; i++) {
+            genotypes.add(factory.newInstance());
+        }
+
+        double checksum = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (Genotype<G> genotype : genotypes) {
+                checksum += fitness.applyAsDouble(genotype);
+            }
+        }
+
+        long evaluations = (long) MEASURED_ROUNDS * genotypes.size();
+
+        // Reading the counter allocates a little itself; measure that first
+        long probe = allocatedBytes();
+        long probeCost = allocatedBytes() - probe;
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (int i = 0; i < genotypes.size(); i++) {
+                checksum += fitness.applyAsDouble(genotypes.get(i));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = Math.max(0, allocatedBytes() - allocatedBefore - probeCost);
+
+        System.out.printf("%-28s %10.1f evals/s %10.1f bytes/eval   (checksum %.1f)%n",
+                name, evaluations / (elapsed / 1e9), (double) allocated / evaluations, checksum);
+    }
+
+    /**
+     * Evaluate swap mutants of an evaluated population in full and through
+     * a {@link DeltaEvaluator}, checking that both give the same fitness
+     */
+    private static void runSwapMutants(BinPackingProblem problem) {
+        DeltaEvaluator delta = new DeltaEvaluator(problem);
+        Alterer<EnumGene<String>, Double> mutator = delta.mutator(1.0);
+
+        List<Phenotype<EnumGene<String>, Double>> parents = new ArrayList<>();
+        for (int i = 0; i < GENOTYPES; i++) {
+            Genotype<EnumGene<String>> genotype = problem.genotypeFactory().newInstance();
+            parents.add(Phenotype.of(genotype, 1, delta.fitness(genotype)));
+        }
+
+        long fullNanos = 0;
+        long deltaNanos = 0;
+        int mutants = 0;
+        int mismatches = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            ISeq<Phenotype<EnumGene<String>, Double>> altered = mutator.alter(ISeq.of(parents), 1).population();
+
+            // Only offspring the mutator actually changed
+            List<Phenotype<EnumGene<String>, Double>> offspring = new ArrayList<>();
+            for (int i = 0; i < altered.size(); i++) {
+                if (!altered.get(i).genotype().equals(parents.get(i).genotype())) {
+                    offspring.add(altered.get(i));
+                }
+            }
+
+            long start = System.nanoTime();
+            double[] full = new double[offspring.size()];
+            for (int i = 0; i < offspring.size(); i++) {
+                full[i] = problem.fitness(offspring.get(i).genotype());
+            }
+            long fullElapsed = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < offspring.size(); i++) {
+                if (delta.fitness(offspring.get(i).genotype()) != full[i]) {
+                    mismatches++;
+                }
+            }
+            long deltaElapsed = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                fullNanos += fullElapsed;
+                deltaNanos += deltaElapsed;
+                mutants += offspring.size();
+            }
+        }
+
+        System.out.printf("%-28s %10.1f evals/s%n", "Swap mutants, full", mutants / (fullNanos / 1e9));
+        System.out.printf("%-28s %10.1f evals/s   (%d mismatches, %s)%n", "Swap mutants, delta",
+                mutants / (deltaNanos / 1e9), mismatches, delta);
+    }
+
+    /**
+     * Evaluate one batch of genotypes on ForkJoinPools of 1, 2, 4, ... threads
+     * up to the core count
+     */
+    private static void runThreadScaling(BinPackingProblem problem) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Genotype<EnumGene<String>>> batch = new ArrayList<>();
+        for (int i = 0; i < 4 * Math.max(cores, GENOTYPES / 4); i++) {
+            batch.add(problem.genotypeFactory().newInstance());
+        }
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        double singleThreaded = 0;
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                double evalsPerSecond = 0;
+                for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    List<ForkJoinTask<Double>> tasks = new ArrayList<>(batch.size());
+                    for (Genotype<EnumGene<String>> genotype : batch) {
+                        tasks.add(pool.submit(() -> problem.fitness(genotype)));
+                    }
+                    for (ForkJoinTask<Double> task : tasks) {
+                        task.join();
+                    }
+                    if (round >= WARMUP_ROUNDS) {
+                        evalsPerSecond += batch.size() / ((System.nanoTime() - start) / 1e9) / MEASURED_ROUNDS;
+                    }
+                }
+                if (threads == 1) {
+                    singleThreaded = evalsPerSecond;
+                }
+                System.out.printf("%-28s %10.1f evals/s %10.2fx speedup%n",
+                        "Threads: " + threads, evalsPerSecond, evalsPerSecond / singleThreaded);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Heap bytes allocated so far by the current thread
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static List<Item> createShapeItems() {
+        List<Item> items = new ArrayList<>();
+
+        items.add(new Item("A", Item.Shape.RECTANGLE, 10, 15, 150, 150.0));
+        items.add(new Item("B", Item.Shape.SQUARE, 12, 12, 70, 70.0));
+        items.add(new Item("C", Item.Shape.CIRCLE, 6, 0, 60, 60.0));
+        items.add(new Item("D", Item.Shape.TRIANGLE, 10, 10, 300, 300.0));
+
+        return items;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+class AnytimeSolveTest {
+
+    // await() polls every 10 ms; the rest allows for scheduling on a loaded machine
+    private static final Duration LATENESS = Duration.ofMillis(10 + 40);
+
+    @Test
+    void awaitReturnsByTheDeadline() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        Instant deadline = Instant.now().plusMillis(300);
+        AnytimeSolve solve = endless(problem).solve(deadline, new CancellationToken());
+
+        GeneticBinPacker.OptimizationResult result = solve.await();
+        Instant returned = Instant.now();
+        assertFalse(returned.isAfter(deadline.plus(LATENESS)), Duration.between(deadline, returned).toString());
+
+        Phenotype<EnumGene<String>, Double> best = result.getBestPhenotype();
+        assertNotNull(best);
+        assertEquals(problem.fitness(best.genotype()), best.fitness());
+    }
+
+    @Test
+    void cancellationStopsTheRun() throws InterruptedException {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        CancellationToken cancellation = new CancellationToken();
+        AnytimeSolve solve = endless(problem).solve(Instant.now().plusSeconds(60), cancellation);
+        while (solve.getBestPhenotype() == null) {
+            Thread.sleep(5);
+        }
+
+        cancellation.cancel();
+        Instant cancelled = Instant.now();
+        assertNotNull(solve.await().getBestPhenotype());
+        assertFalse(Instant.now().isAfter(cancelled.plus(LATENESS)));
+
+        // The evolution itself stops after the generation in progress
+        Instant stopBy = Instant.now().plusSeconds(10);
+        while (!solve.isDone() && Instant.now().isBefore(stopBy)) {
+            Thread.sleep(5);
+        }
+        assertTrue(solve.isDone());
+    }
+
+    @Test
+    void publishedIncumbentsMatchFullEvaluation() throws InterruptedException {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.MAXIMAL_SPACE);
+        AnytimeSolve solve = new GeneticBinPacker(problem, 30, 25, 0.15, 0.7)
+                .solve(Instant.now().plusSeconds(60), new CancellationToken());
+
+        List<Phenotype<EnumGene<String>, Double>> seen = new ArrayList<>();
+        while (!solve.isDone()) {
+            Phenotype<EnumGene<String>, Double> best = solve.getBestPhenotype();
+            if (best != null && (seen.isEmpty() || seen.get(seen.size() - 1) != best)) {
+                seen.add(best);
+            }
+            Thread.sleep(1);
+        }
+        seen.add(solve.getBestPhenotype());
+
+        assertFalse(seen.isEmpty());
+        for (Phenotype<EnumGene<String>, Double> incumbent : seen) {
+            assertEquals(problem.fitness(incumbent.genotype()), incumbent.fitness());
+        }
+        assertEquals(solve.getBestFitness(), solve.getBestSolution().getFitness());
+    }
+
+    @Test
+    void solveDoesNotPackOnTheCallersThread() {
+        Set<Thread> packing = ConcurrentHashMap.newKeySet();
+        BinPackingProblem problem = new BinPackingProblem(TestProblems.items(), TestProblems.bin(),
+                BinPackingProblem.PlacementMode.EXTREME_POINT) {
+            @Override
+            public double fitness(Genotype<EnumGene<String>> genotype) {
+                packing.add(Thread.currentThread());
+                return super.fitness(genotype);
+            }
+        };
+
+        AnytimeSolve solve = new GeneticBinPacker(problem, 10, 3, 0.15, 0.7)
+                .withExecution(GeneticBinPacker.Execution.CALLER_THREAD, 1)
+                .solve(Instant.now().plusSeconds(60), new CancellationToken());
+        assertNotNull(solve.await().getBestPhenotype());
+        assertFalse(packing.isEmpty());
+        assertFalse(packing.contains(Thread.currentThread()));
+    }
+
+    @Test
+    void optimizeStoppedBeforeTheFirstGenerationStillReturnsASolution() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        CancellationToken cancelled = new CancellationToken();
+        cancelled.cancel();
+
+        GeneticBinPacker.OptimizationResult result = endless(problem).optimize(Instant.now().plusSeconds(60),
+                cancelled);
+        Phenotype<EnumGene<String>, Double> best = result.getBestPhenotype();
+        assertNotNull(best);
+        assertEquals(problem.fitness(best.genotype()), best.fitness());
+        assertEquals(best.fitness(), result.getSolution().getFitness());
+    }
+
+    /**
+     * A run that only ends at the deadline or on cancellation
+     */
+    private static GeneticBinPacker endless(BinPackingProblem problem) {
+        return new GeneticBinPacker(problem, 50, Integer.MAX_VALUE, 0.15, 0.7);
+    }
+}
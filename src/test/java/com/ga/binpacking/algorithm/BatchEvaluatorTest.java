@@ -0,0 +1,108 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.IntegerGene;
+import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class BatchEvaluatorTest {
+
+    @Test
+    void batchFitnessMatchesFullEvaluation() {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+                BinPackingProblem problem = TestProblems.problem(mode);
+                // Short chunks and intervals, so sequences resume across chunk boundaries
+                BatchEvaluator batch = new BatchEvaluator(problem, 4, 5);
+                List<Genotype<EnumGene<String>>> genotypes = TestProblems.population(problem, 10, 8);
+
+                ISeq<Phenotype<EnumGene<String>, Double>> evaluated = batch
+                        .<EnumGene<String>>evaluator(pool, problem::typeSequence)
+                        .eval(unevaluated(genotypes));
+                for (int i = 0; i < genotypes.size(); i++) {
+                    assertEquals(genotypes.get(i), evaluated.get(i).genotype());
+                    assertEquals(problem.fitness(genotypes.get(i)), evaluated.get(i).fitness(), mode.toString());
+                }
+                assertTrue(batch.getPackings() < batch.getEvaluations(), mode.toString());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void evaluatedIndividualsKeepTheirFitness() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        List<Genotype<EnumGene<String>>> genotypes = TestProblems.population(problem, 10, 8);
+        List<Phenotype<EnumGene<String>, Double>> mixed = new ArrayList<>(unevaluated(genotypes).asList());
+        mixed.set(0, mixed.get(0).withFitness(-1.0));
+
+        ISeq<Phenotype<EnumGene<String>, Double>> evaluated = new BatchEvaluator(problem)
+                .<EnumGene<String>>evaluator(Runnable::run, problem::typeSequence)
+                .eval(ISeq.of(mixed));
+        assertEquals(-1.0, evaluated.get(0).fitness());
+        for (int i = 1; i < genotypes.size(); i++) {
+            assertEquals(problem.fitness(genotypes.get(i)), evaluated.get(i).fitness());
+        }
+    }
+
+    @Test
+    void compactBatchFitnessMatchesFullEvaluation() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.MAXIMAL_SPACE);
+        List<Genotype<TypeGene>> genotypes = new ArrayList<>();
+        for (Genotype<EnumGene<String>> genotype : TestProblems.population(problem, 10, 8)) {
+            genotypes.add(problem.compact(genotype));
+        }
+        ISeq<Phenotype<TypeGene, Double>> population = genotypes.stream()
+                .map(genotype -> Phenotype.<TypeGene, Double>of(genotype, 1))
+                .collect(ISeq.toISeq());
+
+        ISeq<Phenotype<TypeGene, Double>> evaluated = new BatchEvaluator(problem, 4, 5)
+                .<TypeGene>evaluator(Runnable::run, problem::compactTypeSequence)
+                .eval(population);
+        for (int i = 0; i < genotypes.size(); i++) {
+            assertEquals(problem.compactFitness(genotypes.get(i)), evaluated.get(i).fitness());
+        }
+    }
+
+    @Test
+    void shapeBatchFitnessMatchesFullEvaluation() {
+        ImprovedBinPackingProblem problem = TestProblems.shapeProblem();
+        List<Genotype<IntegerGene>> genotypes = RandomRegistry.with(new Random(6), r -> {
+            List<Genotype<IntegerGene>> list = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                list.add(problem.genotypeFactory().newInstance());
+            }
+            list.add(list.get(0));
+            return list;
+        });
+        ISeq<Phenotype<IntegerGene, Double>> population = genotypes.stream()
+                .map(genotype -> Phenotype.<IntegerGene, Double>of(genotype, 1))
+                .collect(ISeq.toISeq());
+
+        ISeq<Phenotype<IntegerGene, Double>> evaluated = problem.batchEvaluator(Runnable::run, 5).eval(population);
+        for (int i = 0; i < genotypes.size(); i++) {
+            assertEquals(problem.fitness(genotypes.get(i)), evaluated.get(i).fitness());
+        }
+    }
+
+
+    private static ISeq<Phenotype<EnumGene<String>, Double>> unevaluated(List<Genotype<EnumGene<String>>> genotypes) {
+        return genotypes.stream()
+                .map(genotype -> Phenotype.<EnumGene<String>, Double>of(genotype, 1))
+                .collect(ISeq.toISeq());
+    }
+}
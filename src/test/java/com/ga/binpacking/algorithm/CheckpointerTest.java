@@ -0,0 +1,71 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointerTest {
+
+    private static final int GENERATIONS = 12;
+    private static final int RESUME_AT = 6;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumedPermutationRunMatchesTheUninterruptedRun() throws IOException {
+        assertResumeMatches(false);
+    }
+
+    @Test
+    void resumedCompactRunMatchesTheUninterruptedRun() throws IOException {
+        assertResumeMatches(true);
+    }
+
+    private void assertResumeMatches(boolean compact) throws IOException {
+        Path uninterrupted = directory.resolve("uninterrupted.ckpt");
+        Path halfway = directory.resolve("halfway.ckpt");
+        Path resumed = directory.resolve("resumed.ckpt");
+
+        GeneticBinPacker.OptimizationResult expected = packer(compact, GENERATIONS, 42)
+                .withCheckpoints(uninterrupted, RESUME_AT)
+                .optimize();
+        packer(compact, RESUME_AT, 42)
+                .withCheckpoints(halfway, RESUME_AT)
+                .optimize();
+        assertEquals(RESUME_AT, EvolutionCheckpoint.read(halfway).getGeneration());
+        // A different seed: only the checkpoint's random state can reproduce the run
+        GeneticBinPacker.OptimizationResult actual = packer(compact, GENERATIONS, 7)
+                .withResume(halfway)
+                .withCheckpoints(resumed, RESUME_AT)
+                .optimize();
+
+        assertEquals(expected.getBestPhenotype().genotype(), actual.getBestPhenotype().genotype());
+        assertEquals(expected.getBestPhenotype().fitness(), actual.getBestPhenotype().fitness());
+
+        EvolutionCheckpoint first = EvolutionCheckpoint.read(uninterrupted);
+        EvolutionCheckpoint second = EvolutionCheckpoint.read(resumed);
+        assertEquals(GENERATIONS, second.getGeneration());
+        assertEquals(first.getRandomState(), second.getRandomState());
+        assertArrayEquals(first.getBestHistory(), second.getBestHistory());
+        assertArrayEquals(first.getAverageHistory(), second.getAverageHistory());
+        assertEquals(first.getPopulationSize(), second.getPopulationSize());
+        for (int i = 0; i < first.getPopulationSize(); i++) {
+            assertArrayEquals(first.genes(i), second.genes(i), "individual " + i);
+            assertEquals(first.fitness(i), second.fitness(i), "individual " + i);
+            assertEquals(first.birth(i), second.birth(i), "individual " + i);
+        }
+    }
+
+    private static GeneticBinPacker packer(boolean compact, int generations, long seed) {
+        return new GeneticBinPacker(TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT), 20,
+                generations, 0.15, 0.7)
+                .withCompactChromosome(compact)
+                .withSeed(seed)
+                .withExecution(GeneticBinPacker.Execution.CALLER_THREAD, 1);
+    }
+}
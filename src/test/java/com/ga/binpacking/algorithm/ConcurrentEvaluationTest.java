@@ -0,0 +1,127 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Evaluator;
+import io.jenetics.engine.Evaluators;
+import io.jenetics.util.ISeq;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Evaluation on several threads gives the same values as on one
+ *
+ * The threads share the problem, whose workspaces are thread-local, and the
+ * cache or checkpoint maps of the evaluators under test. A single core still
+ * interleaves them, so races in shared state show up as mismatches.
+ */
+class ConcurrentEvaluationTest {
+
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 3;
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void startPool() {
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentEvaluatorMatchesSequentialFitness() {
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = TestProblems.problem(mode);
+            List<Genotype<EnumGene<String>>> genotypes = TestProblems.population(problem, 16, 13);
+            Map<Genotype<EnumGene<String>>, Double> expected = sequential(genotypes, problem::fitness);
+
+            Evaluator<EnumGene<String>, Double> evaluator = Evaluators.concurrent(problem::fitness, pool);
+            for (int round = 0; round < ROUNDS; round++) {
+                ISeq<Phenotype<EnumGene<String>, Double>> population = genotypes.stream()
+                        .map(genotype -> Phenotype.<EnumGene<String>, Double>of(genotype, 1))
+                        .collect(ISeq.toISeq());
+                for (Phenotype<EnumGene<String>, Double> phenotype : evaluator.eval(population)) {
+                    assertEquals(expected.get(phenotype.genotype()), phenotype.fitness(), mode.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void sharedFitnessCacheMatchesSequentialFitness() throws Exception {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        List<Genotype<EnumGene<String>>> genotypes = TestProblems.population(problem, 16, 13);
+        Map<Genotype<EnumGene<String>>, Double> expected = sequential(genotypes, problem::fitness);
+
+        FitnessCache cache = new FitnessCache(16);
+        assertParallelMatches(genotypes, expected, cache.memoize(problem::fitness, problem::sequenceHash));
+    }
+
+    @Test
+    void sharedCheckpointsMatchSequentialFitness() throws Exception {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.MAXIMAL_SPACE);
+        List<Genotype<EnumGene<String>>> genotypes = TestProblems.population(problem, 16, 13);
+        Map<Genotype<EnumGene<String>>, Double> expected = sequential(genotypes, problem::fitness);
+
+        IncrementalEvaluator incremental = new IncrementalEvaluator(problem, 8, 128);
+        assertParallelMatches(genotypes, expected, incremental::fitness);
+
+        DeltaEvaluator delta = new DeltaEvaluator(problem, 8, 32);
+        assertParallelMatches(genotypes, expected, delta::fitness);
+    }
+
+    /**
+     * Every thread evaluates all genotypes, starting at a different offset,
+     * after all threads are ready
+     */
+    private void assertParallelMatches(List<Genotype<EnumGene<String>>> genotypes,
+            Map<Genotype<EnumGene<String>>, Double> expected,
+            Function<Genotype<EnumGene<String>>, Double> fitness) throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * genotypes.size() / THREADS;
+            tasks.add(pool.submit(() -> {
+                ready.countDown();
+                ready.await();
+                for (int round = 0; round < ROUNDS; round++) {
+                    for (int i = 0; i < genotypes.size(); i++) {
+                        Genotype<EnumGene<String>> genotype = genotypes.get((offset + i) % genotypes.size());
+                        assertEquals(expected.get(genotype), fitness.apply(genotype));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+
+
+    private static Map<Genotype<EnumGene<String>>, Double> sequential(List<Genotype<EnumGene<String>>> genotypes,
+            Function<Genotype<EnumGene<String>>, Double> fitness) {
+        Map<Genotype<EnumGene<String>>, Double> values = new IdentityHashMap<>();
+        for (Genotype<EnumGene<String>> genotype : genotypes) {
+            values.put(genotype, fitness.apply(genotype));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DeltaEvaluatorTest {
+
+    private static final int GENERATIONS = 6;
+
+    @Test
+    void swapMutantFitnessMatchesFullEvaluation() {
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = TestProblems.problem(mode);
+            DeltaEvaluator delta = new DeltaEvaluator(problem, 8, 64);
+            DeltaEvaluator.DeltaSwapMutator mutator = delta.mutator(1.0);
+
+            ISeq<Phenotype<EnumGene<String>, Double>> population = TestProblems.genotypes(problem, 8, 5).stream()
+                    .map(genotype -> Phenotype.of(genotype, 0, delta.fitness(genotype)))
+                    .collect(ISeq.toISeq());
+            for (int generation = 1; generation <= GENERATIONS; generation++) {
+                ISeq<Phenotype<EnumGene<String>, Double>> parents = population;
+                long at = generation;
+                ISeq<Phenotype<EnumGene<String>, Double>> offspring = RandomRegistry.with(new Random(generation),
+                        r -> mutator.alter(parents, at).population()).asISeq();
+                population = offspring.map(phenotype -> {
+                    double fitness = delta.fitness(phenotype.genotype());
+                    assertEquals(problem.fitness(phenotype.genotype()), fitness, mode.toString());
+                    return phenotype.withFitness(fitness);
+                });
+            }
+            assertTrue(delta.getDeltaEvaluations() > 0, mode.toString());
+        }
+    }
+
+    @Test
+    void unrecordedMutantFitnessMatchesFullEvaluation() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        DeltaEvaluator delta = new DeltaEvaluator(problem, 8, 64);
+
+        for (Genotype<EnumGene<String>> genotype : TestProblems.population(problem, 16, 9)) {
+            assertEquals(problem.fitness(genotype), delta.fitness(genotype));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.jenetics.Gene;
+import io.jenetics.Genotype;
+import io.jenetics.util.Factory;
+import io.jenetics.util.RandomRegistry;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fitness evaluation allocates nothing once the thread's workspace exists
+ */
+class EvaluationWorkspaceTest {
+
+    private static final int GENOTYPES = 16;
+    private static final int WARMUP_ROUNDS = 50;
+
+    @Test
+    void fitnessAllocatesNothingInEveryPlacementMode() {
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = TestProblems.problem(mode);
+            assertEquals(0, allocatedPerRound(problem.genotypeFactory(), problem::fitness), mode.toString());
+        }
+    }
+
+    @Test
+    void compactAndRunLengthFitnessAllocateNothing() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        assertEquals(0, allocatedPerRound(problem.compactGenotypeFactory(), problem::compactFitness));
+        assertEquals(0, allocatedPerRound(problem.runLengthGenotypeFactory(), problem::runLengthFitness));
+    }
+
+    @Test
+    void shapeFitnessAllocatesNothing() {
+        ImprovedBinPackingProblem problem = TestProblems.shapeProblem();
+        assertEquals(0, allocatedPerRound(problem.genotypeFactory(), problem::fitness));
+    }
+
+    /**
+     * Heap bytes allocated by one round of evaluations after warm-up
+     */
+    private static <G extends Gene<?, G>> long allocatedPerRound(Factory<Genotype<G>> factory,
+            ToDoubleFunction<Genotype<G>> fitness) {
+        List<Genotype<G>> genotypes = RandomRegistry.with(new Random(1), r -> {
+            List<Genotype<G>> list = new ArrayList<>();
+            for (int i = 0; i < GENOTYPES; i++) {
+                list.add(factory.newInstance());
+            }
+            return list;
+        });
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            evaluate(genotypes, fitness);
+        }
+
+        // Reading the counter allocates a little itself; measure that first
+        long probe = allocatedBytes();
+        long probeCost = allocatedBytes() - probe;
+
+        long before = allocatedBytes();
+        evaluate(genotypes, fitness);
+        long allocated = allocatedBytes() - before - probeCost;
+
+        return Math.max(0, allocated);
+    }
+
+    private static <G extends Gene<?, G>> double evaluate(List<Genotype<G>> genotypes,
+            ToDoubleFunction<Genotype<G>> fitness) {
+        double sum = 0;
+        for (int i = 0; i < genotypes.size(); i++) {
+            sum += fitness.applyAsDouble(genotypes.get(i));
+        }
+        return sum;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,85 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.util.MSeq;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class FitnessCacheTest {
+
+    @Test
+    void memoizedFitnessMatchesFullEvaluation() {
+        TestProblems.assertMatchesFitness(problem -> {
+            // Small enough that entries collide and get replaced
+            FitnessCache cache = new FitnessCache(32);
+            return new TestProblems.Shortcut(cache.memoize(problem::fitness, problem::sequenceHash),
+                    cache::getHits);
+        }, 7);
+    }
+
+    @Test
+    void genotypesWithTheSameTypeSequenceShareAnEntry() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        FitnessCache cache = new FitnessCache(1 << 12);
+        Function<Genotype<EnumGene<String>>, Double> fitness = cache.memoize(problem::fitness,
+                problem::sequenceHash);
+
+        Random random = new Random(17);
+        List<Genotype<EnumGene<String>>> originals = TestProblems.genotypes(problem, 8, 17);
+        for (Genotype<EnumGene<String>> original : originals) {
+            assertEquals(problem.fitness(original), fitness.apply(original));
+        }
+        assertEquals(0, cache.getHits());
+        assertEquals(originals.size(), cache.getMisses());
+
+        // Twins swap two different alleles of one type: new genotype, same packing
+        for (Genotype<EnumGene<String>> original : originals) {
+            for (int k = 0; k < 3; k++) {
+                Genotype<EnumGene<String>> twin = twin(original, random);
+                assertNotEquals(original, twin);
+                assertEquals(problem.sequenceHash(original), problem.sequenceHash(twin));
+                assertEquals(problem.fitness(twin), fitness.apply(twin));
+            }
+        }
+        assertEquals(3L * originals.size(), cache.getHits());
+        assertEquals(originals.size(), cache.getMisses());
+    }
+
+    @Test
+    void memoizedCompactFitnessMatchesFullEvaluation() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        FitnessCache cache = new FitnessCache(32);
+        Function<Genotype<TypeGene>, Double> fitness = cache.memoize(problem::compactFitness,
+                problem::compactSequenceHash);
+
+        for (Genotype<EnumGene<String>> genotype : TestProblems.population(problem, 16, 11)) {
+            Genotype<TypeGene> compact = problem.compact(genotype);
+            assertEquals(problem.compactFitness(compact), fitness.apply(compact));
+        }
+        assertTrue(cache.getHits() > 0);
+    }
+
+    /**
+     * Copy of a genotype with two genes of the same item type swapped
+     */
+    private static Genotype<EnumGene<String>> twin(Genotype<EnumGene<String>> genotype, Random random) {
+        MSeq<EnumGene<String>> genes = MSeq.of(genotype.chromosome());
+        while (true) {
+            int i = random.nextInt(genes.length());
+            int j = random.nextInt(genes.length());
+            if (i != j && genes.get(i).allele().equals(genes.get(j).allele())) {
+                genes.swap(i, j);
+                return Genotype.of(genotype.chromosome().newInstance(genes.toISeq()));
+            }
+        }
+    }
+}
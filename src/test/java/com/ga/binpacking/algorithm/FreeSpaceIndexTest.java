@@ -0,0 +1,117 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FreeSpaceIndexTest {
+
+    private static final int WIDTH = 12;
+    private static final int HEIGHT = 9;
+    private static final int DEPTH = 10;
+
+    @Test
+    void spacesStayMaximalAndFree() {
+        for (FreeSpaceIndex.FitRule rule : FreeSpaceIndex.FitRule.values()) {
+            for (long seed = 0; seed < 20; seed++) {
+                Random random = new Random(seed);
+                FreeSpaceIndex index = new FreeSpaceIndex(WIDTH, HEIGHT, DEPTH);
+                boolean[][][] occupied = new boolean[WIDTH][HEIGHT][DEPTH];
+                List<int[]> placed = new ArrayList<>();
+                int[] position = new int[3];
+
+                for (int attempt = 0; attempt < 40; attempt++) {
+                    int w = 1 + random.nextInt(5), h = 1 + random.nextInt(4), d = 1 + random.nextInt(5);
+                    if (!index.find(w, h, d, rule, position)) {
+                        continue;
+                    }
+                    int[] box = { position[0], position[1], position[2], w, h, d };
+                    assertFalse(overlapsAny(box, placed), rule + " placed over a box, seed " + seed);
+                    index.occupy(box[0], box[1], box[2], w, h, d);
+                    placed.add(box);
+                    mark(occupied, box);
+
+                    assertInvariants(index, placed, occupied, rule + ", seed " + seed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void resetFreesTheWholeBin() {
+        FreeSpaceIndex index = new FreeSpaceIndex(WIDTH, HEIGHT, DEPTH);
+        index.occupy(2, 0, 3, 4, 5, 2);
+        index.reset();
+
+        int[] space = new int[6];
+        assertEquals(1, index.getSpaceCount());
+        index.getSpace(0, space);
+        assertArrayEquals(new int[] { 0, 0, 0, WIDTH, HEIGHT, DEPTH }, space);
+    }
+
+    private static void assertInvariants(FreeSpaceIndex index, List<int[]> placed, boolean[][][] occupied,
+            String context) {
+        List<int[]> spaces = new ArrayList<>();
+        for (int s = 0; s < index.getSpaceCount(); s++) {
+            int[] space = new int[6];
+            index.getSpace(s, space);
+            assertTrue(space[3] > 0 && space[4] > 0 && space[5] > 0, "empty space, " + context);
+            assertFalse(overlapsAny(space, placed), "space overlaps a placed box, " + context);
+            spaces.add(space);
+        }
+
+        for (int a = 0; a < spaces.size(); a++) {
+            for (int b = 0; b < spaces.size(); b++) {
+                assertFalse(a != b && contains(spaces.get(a), spaces.get(b)),
+                        "space inside another, " + context);
+            }
+        }
+
+        // Every free cell lies in some space
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int z = 0; z < DEPTH; z++) {
+                    if (!occupied[x][y][z]) {
+                        int[] cell = { x, y, z, 1, 1, 1 };
+                        assertTrue(spaces.stream().anyMatch(space -> contains(space, cell)),
+                                "free cell outside every space, " + context);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean overlapsAny(int[] box, List<int[]> boxes) {
+        for (int[] other : boxes) {
+            if (box[0] < other[0] + other[3] && other[0] < box[0] + box[3]
+                    && box[1] < other[1] + other[4] && other[1] < box[1] + box[4]
+                    && box[2] < other[2] + other[5] && other[2] < box[2] + box[5]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(int[] outer, int[] inner) {
+        return inner[0] >= outer[0] && inner[1] >= outer[1] && inner[2] >= outer[2]
+                && inner[0] + inner[3] <= outer[0] + outer[3]
+                && inner[1] + inner[4] <= outer[1] + outer[4]
+                && inner[2] + inner[5] <= outer[2] + outer[5];
+    }
+
+    private static void mark(boolean[][][] occupied, int[] box) {
+        for (int x = box[0]; x < box[0] + box[3]; x++) {
+            for (int y = box[1]; y < box[1] + box[4]; y++) {
+                for (int z = box[2]; z < box[2] + box[5]; z++) {
+                    occupied[x][y][z] = true;
+                }
+            }
+        }
+    }
+}
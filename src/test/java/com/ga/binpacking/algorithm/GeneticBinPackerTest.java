@@ -0,0 +1,96 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Evaluators;
+import io.jenetics.util.RandomRegistry;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class GeneticBinPackerTest {
+
+    @Test
+    void seededRunsAreReproducibleAndLeaveTheRegistryAlone() {
+        RandomGenerator before = RandomRegistry.random();
+
+        Phenotype<EnumGene<String>, Double> first = seededRun().getBestPhenotype();
+        assertSame(before, RandomRegistry.random());
+
+        Phenotype<EnumGene<String>, Double> second = seededRun().getBestPhenotype();
+        assertSame(before, RandomRegistry.random());
+        assertEquals(first.genotype(), second.genotype());
+        assertEquals(first.fitness(), second.fitness());
+    }
+
+    @Test
+    void seededExecutorHandsTheGeneratorToPoolThreads() throws Exception {
+        RandomGenerator seeded = new CheckpointRandom(5);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            boolean[] seen = new boolean[2];
+            GeneticBinPacker.withRandom(pool, seeded).execute(() -> seen[0] = RandomRegistry.random() == seeded);
+            pool.submit(() -> seen[1] = RandomRegistry.random() != seeded).get();
+            assertTrue(seen[0], "task of the seeded executor");
+            assertTrue(seen[1], "later task on the same thread");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void conflictingOptionsAreRejected() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        List<UnaryOperator<GeneticBinPacker>> conflicts = List.of(
+                packer -> packer.withDeltaEvaluator(new DeltaEvaluator(problem))
+                        .withIncrementalEvaluator(new IncrementalEvaluator(problem)),
+                packer -> packer.withIncrementalEvaluator(new IncrementalEvaluator(problem))
+                        .withCompactChromosome(true),
+                packer -> packer.withBatchEvaluator(new BatchEvaluator(problem))
+                        .withFitnessCache(new FitnessCache(64)),
+                packer -> packer.withBatchEvaluator(new BatchEvaluator(problem))
+                        .withDeltaEvaluator(new DeltaEvaluator(problem)),
+                packer -> packer.withEvaluator(Evaluators.concurrent(problem::compactFitness, Runnable::run))
+                        .withFitnessCache(new FitnessCache(64)),
+                packer -> packer.withIslands(2, 5, 1, MigrationTopology.RING)
+                        .withExecution(GeneticBinPacker.Execution.FIXED_POOL, 2),
+                packer -> packer.withIslands(2, 5, 1, MigrationTopology.RING)
+                        .withExecutor(Runnable::run),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.DIRECT)
+                        .withFitnessCache(new FitnessCache(64)),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.HEAP)
+                        .withIncrementalEvaluator(new IncrementalEvaluator(problem)),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.HEAP)
+                        .withDeltaEvaluator(new DeltaEvaluator(problem)),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.HEAP)
+                        .withBatchEvaluator(new BatchEvaluator(problem)),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.HEAP)
+                        .withSurrogateScreening(new SurrogateScreening(problem, 0.5)),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.HEAP)
+                        .withLocalSearch(new MemeticSearch(problem)),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.HEAP)
+                        .withHeuristicSeeding(2),
+                packer -> packer.withPopulationStorage(PrimitiveGeneticEngine.Storage.HEAP)
+                        .withEvaluator(Evaluators.concurrent(problem::compactFitness, Runnable::run)));
+        for (UnaryOperator<GeneticBinPacker> conflict : conflicts) {
+            GeneticBinPacker packer = conflict.apply(new GeneticBinPacker(problem, 10, 2, 0.15, 0.7));
+            assertThrows(IllegalStateException.class, packer::optimize);
+        }
+    }
+
+    private static GeneticBinPacker.OptimizationResult seededRun() {
+        return new GeneticBinPacker(TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT), 20, 5,
+                0.15, 0.7)
+                .withSeed(42)
+                .withExecution(GeneticBinPacker.Execution.CALLER_THREAD, 1)
+                .optimize();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HeightmapPlacementTest {
+
+    @Test
+    void flatBoxesRestOnTheSurface() {
+        HeightmapPlacement engine = new HeightmapPlacement(4, 10, 3);
+        int[] position = new int[3];
+
+        assertTrue(engine.find(4, 2, 3, position));
+        engine.commit(position[0], position[1], position[2], 4, 2, 3);
+
+        // Zero width or depth: the window of the support maximum is one cell
+        assertTrue(engine.find(0, 5, 3, position));
+        assertArrayEquals(new int[] { 0, 2, 0 }, position);
+        assertTrue(engine.find(4, 5, 0, position));
+        assertArrayEquals(new int[] { 0, 2, 0 }, position);
+        assertTrue(engine.find(0, 5, 0, position));
+        assertArrayEquals(new int[] { 0, 2, 0 }, position);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.IntegerGene;
+import io.jenetics.util.RandomRegistry;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The engine replaces invalid individuals of the first population with
+ * random ones, so every seed must be a valid genotype
+ */
+class HeuristicSeedsTest {
+
+    @Test
+    void permutationSeedsAreValid() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        List<Genotype<EnumGene<String>>> seeds = RandomRegistry.with(new Random(4),
+                r -> problem.heuristicSeeds(12));
+        assertEquals(12, seeds.size());
+        for (Genotype<EnumGene<String>> seed : seeds) {
+            assertTrue(seed.isValid(), seed.toString());
+            assertTrue(problem.compact(seed).isValid());
+        }
+    }
+
+    @Test
+    void shapeSeedsAreValid() {
+        ImprovedBinPackingProblem problem = TestProblems.shapeProblem();
+        List<Genotype<IntegerGene>> seeds = RandomRegistry.with(new Random(4), r -> problem.heuristicSeeds(12));
+        assertEquals(12, seeds.size());
+        for (Genotype<IntegerGene> seed : seeds) {
+            assertTrue(seed.isValid(), seed.toString());
+        }
+    }
+}
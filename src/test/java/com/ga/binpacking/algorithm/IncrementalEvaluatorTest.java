@@ -0,0 +1,15 @@
+package com.ga.binpacking.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+class IncrementalEvaluatorTest {
+
+    @Test
+    void resumedFitnessMatchesFullEvaluation() {
+        TestProblems.assertMatchesFitness(problem -> {
+            // Room for about one generation, so older prefixes are evicted
+            IncrementalEvaluator evaluator = new IncrementalEvaluator(problem, 8, 256);
+            return new TestProblems.Shortcut(evaluator::fitness, evaluator::getResumedEvaluations);
+        }, 3);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Optimize;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionDurations;
+import io.jenetics.engine.EvolutionInterceptor;
+import io.jenetics.engine.EvolutionResult;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MemeticSearchTest {
+
+    private static final int GENERATIONS = 3;
+
+    @Test
+    void improvedFitnessMatchesFullEvaluation() {
+        // Intervals from a checkpoint at every gene to none at all
+        for (int interval : new int[] { 1, 8, 1000 }) {
+            for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+                BinPackingProblem problem = TestProblems.problem(mode);
+                MemeticSearch search = new MemeticSearch(problem, 6, 40, interval);
+                EvolutionInterceptor<EnumGene<String>, Double> interceptor = search.interceptor(Runnable::run,
+                        problem::typeSequence, sequence -> problem.expand(problem.compactOrder(sequence)));
+                String context = mode + ", interval " + interval;
+
+                ISeq<Phenotype<EnumGene<String>, Double>> population = TestProblems.population(problem, 8, 3)
+                        .stream()
+                        .map(genotype -> Phenotype.of(genotype, 0, problem.fitness(genotype)))
+                        .collect(ISeq.toISeq());
+                // Improved individuals are searched again, from their own checkpoints
+                for (int generation = 1; generation <= GENERATIONS; generation++) {
+                    EvolutionResult<EnumGene<String>, Double> result = EvolutionResult.of(Optimize.MAXIMUM,
+                            population, generation, generation, EvolutionDurations.ZERO, 0, 0, 0);
+                    ISeq<Phenotype<EnumGene<String>, Double>> before = population;
+                    population = RandomRegistry.with(new Random(generation),
+                            r -> interceptor.after(result).population());
+
+                    for (int i = 0; i < population.size(); i++) {
+                        Phenotype<EnumGene<String>, Double> individual = population.get(i);
+                        if (individual != before.get(i)) {
+                            assertEquals(problem.fitness(individual.genotype()), individual.fitness(), context);
+                            assertTrue(individual.fitness() > before.get(i).fitness(), context);
+                        }
+                    }
+                }
+                assertTrue(search.getImprovements() > 0, context);
+            }
+        }
+    }
+}
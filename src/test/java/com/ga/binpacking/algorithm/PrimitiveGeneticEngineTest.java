@@ -0,0 +1,160 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Phenotype;
+import io.jenetics.util.RandomRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PrimitiveGeneticEngineTest {
+
+    private static final int POPULATION = 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void crossoverKeepsRowsPermutations() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        PrimitiveGeneticEngine.Run run = new PrimitiveGeneticEngine(problem).new Run(new Random(1), best -> {
+        });
+        int length = problem.alleleCount();
+        Random random = new Random(2);
+        for (int k = 0; k < 500; k++) {
+            int[] a = permutation(length, random);
+            int[] b = permutation(length, random);
+            run.pmx(a, b);
+            assertPermutation(a, "PMX");
+            assertPermutation(b, "PMX");
+
+            int[] c = permutation(length, random);
+            int[] d = permutation(length, random);
+            run.ox(c, d);
+            assertPermutation(c, "OX");
+            assertPermutation(d, "OX");
+        }
+    }
+
+    @Test
+    void breedingCopiesElitesUnchanged() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        for (PrimitiveGeneticEngine.Crossover crossover : PrimitiveGeneticEngine.Crossover.values()) {
+            PrimitiveGeneticEngine engine = new PrimitiveGeneticEngine(problem, POPULATION, 1, 0.2, 0.9)
+                    .withCrossover(crossover)
+                    .withElites(3)
+                    .withExecutor(Runnable::run);
+            PrimitiveGeneticEngine.Run run = engine.new Run(new Random(3), best -> {
+            });
+            int length = problem.alleleCount();
+            run.current = new HeapPopulationStore(POPULATION, length);
+            run.next = new HeapPopulationStore(POPULATION, length);
+
+            Random random = new Random(4);
+            Integer[] rows = new Integer[POPULATION];
+            for (int row = 0; row < POPULATION; row++) {
+                int[] genes = permutation(length, random);
+                run.current.write(row, genes);
+                run.current.setFitness(row, problem.alleleFitness(genes, 0));
+                rows[row] = row;
+            }
+            Arrays.sort(rows, (a, b) -> Double.compare(run.current.fitness(b), run.current.fitness(a)));
+
+            run.breed();
+            int[] expected = new int[length];
+            int[] actual = new int[length];
+            for (int e = 0; e < 3; e++) {
+                run.current.read(rows[e], expected);
+                run.next.read(e, actual);
+                assertArrayEquals(expected, actual, crossover + ", elite " + e);
+                assertEquals(run.current.fitness(rows[e]), run.next.fitness(e), crossover + ", elite " + e);
+            }
+
+            // Offspring are permutations and get their own fitness once evaluated
+            run.evaluate(run.next);
+            for (int row = 0; row < POPULATION; row++) {
+                run.next.read(row, actual);
+                assertPermutation(actual, crossover.toString());
+                assertEquals(problem.alleleFitness(actual, 0), run.next.fitness(row), crossover + ", row " + row);
+            }
+        }
+    }
+
+    @Test
+    void reportedFitnessMatchesFullEvaluation() {
+        for (PrimitiveGeneticEngine.Crossover crossover : PrimitiveGeneticEngine.Crossover.values()) {
+            BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.MAXIMAL_SPACE);
+            List<Phenotype<EnumGene<String>, Double>> improvements = new ArrayList<>();
+            GeneticBinPacker.OptimizationResult result = RandomRegistry.with(new Random(5),
+                    r -> new PrimitiveGeneticEngine(problem, POPULATION, 15, 0.1, 0.7)
+                            .withCrossover(crossover)
+                            .withExecutor(Runnable::run)
+                            .optimize(improvements::add));
+
+            Phenotype<EnumGene<String>, Double> best = result.getBestPhenotype();
+            assertEquals(problem.fitness(best.genotype()), best.fitness(), crossover.toString());
+            assertEquals(best.fitness(), result.getSolution().getFitness(), crossover.toString());
+            assertTrue(improvements.contains(best), crossover.toString());
+            for (Phenotype<EnumGene<String>, Double> improved : improvements) {
+                assertEquals(problem.fitness(improved.genotype()), improved.fitness(), crossover.toString());
+            }
+        }
+    }
+
+    @Test
+    void storagesGiveEqualSeededRuns() throws IOException {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        List<GeneticBinPacker.OptimizationResult> results = new ArrayList<>();
+        for (PrimitiveGeneticEngine.Storage storage : PrimitiveGeneticEngine.Storage.values()) {
+            GeneticBinPacker packer = new GeneticBinPacker(problem, POPULATION, 15, 0.1, 0.7)
+                    .withSeed(11)
+                    .withExecution(GeneticBinPacker.Execution.CALLER_THREAD, 1);
+            results.add(storage == PrimitiveGeneticEngine.Storage.MAPPED
+                    ? packer.withMappedPopulation(directory).optimize()
+                    : packer.withPopulationStorage(storage).optimize());
+        }
+
+        Phenotype<EnumGene<String>, Double> heap = results.get(0).getBestPhenotype();
+        for (GeneticBinPacker.OptimizationResult result : results) {
+            assertEquals(heap.genotype(), result.getBestPhenotype().genotype());
+            assertEquals(heap.fitness(), result.getBestPhenotype().fitness());
+            assertEquals(heap.generation(), result.getBestPhenotype().generation());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count(), "mapped population files left behind");
+        }
+    }
+
+    private static int[] permutation(int length, Random random) {
+        int[] genes = new int[length];
+        for (int i = 0; i < length; i++) {
+            genes[i] = i;
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = genes[i];
+            genes[i] = genes[j];
+            genes[j] = value;
+        }
+        return genes;
+    }
+
+    private static void assertPermutation(int[] genes, String context) {
+        int[] sorted = genes.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i], context + ": not a permutation " + Arrays.toString(genes));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ga.binpacking.model.Item;
+import io.jenetics.Genotype;
+import io.jenetics.IntegerChromosome;
+import io.jenetics.IntegerGene;
+import io.jenetics.util.Factory;
+import io.jenetics.util.RandomRegistry;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RunLengthEncodingTest {
+
+    // Far above the 50 copies per type of the item-order encodings
+    private static final int STOCK = 400;
+
+    @Test
+    void runLengthFitnessMatchesTheDecodedSolution() {
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = TestProblems.problem(mode);
+            Factory<Genotype<IntegerGene>> factory = problem.runLengthGenotypeFactory();
+            RandomRegistry.with(new Random(31), r -> {
+                for (int i = 0; i < 20; i++) {
+                    Genotype<IntegerGene> genotype = factory.newInstance();
+                    assertEquals(problem.convertRunLengthToSolution(genotype).getFitness(),
+                            problem.runLengthFitness(genotype), mode.toString());
+                }
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void factoryCoversEveryTypeAndTheWholeStock() {
+        BinPackingProblem problem = TestProblems.problem(BinPackingProblem.PlacementMode.EXTREME_POINT);
+        Factory<Genotype<IntegerGene>> factory = problem.runLengthGenotypeFactory();
+        boolean[] types = new boolean[TestProblems.items().size()];
+        int longest = RandomRegistry.with(new Random(32), r -> {
+            int max = 0;
+            for (int i = 0; i < 200; i++) {
+                Genotype<IntegerGene> genotype = factory.newInstance();
+                assertTrue(genotype.isValid());
+                for (IntegerGene gene : genotype.get(0)) {
+                    types[gene.intValue()] = true;
+                }
+                for (IntegerGene gene : genotype.get(1)) {
+                    max = Math.max(max, gene.intValue());
+                }
+            }
+            return max;
+        });
+        // Upper bounds of Jenetics ranges are exclusive
+        assertTrue(types[types.length - 1], "last type");
+        assertEquals(300, longest, "full stock of D");
+    }
+
+    @Test
+    void typesStockedAboveTheCopyCapArePackedInFull() {
+        BinPackingProblem problem = smallCubes();
+        Genotype<IntegerGene> genotype = Genotype.of(
+                IntegerChromosome.of(0, 1, 4),
+                IntegerChromosome.of(IntegerGene.of(STOCK, 1, STOCK + 1), IntegerGene.of(1, 1, STOCK + 1),
+                        IntegerGene.of(1, 1, STOCK + 1), IntegerGene.of(1, 1, STOCK + 1)));
+        assertTrue(genotype.isValid());
+
+        assertEquals(STOCK, problem.convertRunLengthToSolution(genotype).getPlacements().size());
+        assertTrue(problem.convertToSolution(problem.genotypeFactory().newInstance()).getPlacements().size() <= 50);
+    }
+
+    @Test
+    void packerEvolvesRunLengthGenotypes() {
+        BinPackingProblem problem = smallCubes();
+        GeneticBinPacker.OptimizationResult result = new GeneticBinPacker(problem, 20, 10, 0.15, 0.7)
+                .withRunLengthEncoding()
+                .withSeed(8)
+                .withExecution(GeneticBinPacker.Execution.CALLER_THREAD, 1)
+                .optimize();
+
+        Genotype<IntegerGene> best = result.getRunLengthGenotype();
+        assertNotNull(best);
+        assertEquals(problem.runLengthFitness(best), result.getSolution().getFitness());
+        assertTrue(result.getSolution().getPlacements().size() > 50);
+    }
+
+    /**
+     * One type of 4-unit cubes, 400 in stock, in a bin with room for 560
+     */
+    private static BinPackingProblem smallCubes() {
+        return new BinPackingProblem(List.of(new Item("S", 4, 4, 4, STOCK, 10.0)), TestProblems.bin(),
+                BinPackingProblem.PlacementMode.EXTREME_POINT);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Evaluator;
+import io.jenetics.util.ISeq;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SurrogateScreeningTest {
+
+    @Test
+    void estimatesNeverOutrankPackedOffspring() {
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = TestProblems.problem(mode);
+            Set<Genotype<EnumGene<String>>> packed = identitySet();
+            Evaluator<EnumGene<String>, Double> evaluator = new SurrogateScreening(problem, 0.3)
+                    .evaluator(packing(problem, packed), problem::typeSequence);
+
+            ISeq<Phenotype<EnumGene<String>, Double>> result = evaluator.eval(offspring(problem, 8, 1));
+            double worstPacked = Double.POSITIVE_INFINITY;
+            double bestEstimate = Double.NEGATIVE_INFINITY;
+            for (Phenotype<EnumGene<String>, Double> individual : result) {
+                if (packed.contains(individual.genotype())) {
+                    assertEquals(problem.fitness(individual.genotype()), individual.fitness(), mode.toString());
+                    worstPacked = Math.min(worstPacked, individual.fitness());
+                } else {
+                    bestEstimate = Math.max(bestEstimate, individual.fitness());
+                }
+            }
+            assertTrue(bestEstimate > Double.NEGATIVE_INFINITY, mode + ": nothing was estimated");
+            assertTrue(bestEstimate <= worstPacked, mode.toString());
+        }
+    }
+
+    @Test
+    void survivingEstimatesArePackedInTheNextGeneration() {
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = TestProblems.problem(mode);
+            Set<Genotype<EnumGene<String>>> packed = identitySet();
+            SurrogateScreening screening = new SurrogateScreening(problem, 0.3);
+            Evaluator<EnumGene<String>, Double> evaluator = screening.evaluator(packing(problem, packed),
+                    problem::typeSequence);
+
+            ISeq<Phenotype<EnumGene<String>, Double>> first = evaluator.eval(offspring(problem, 8, 2));
+            List<Phenotype<EnumGene<String>, Double>> estimates = new ArrayList<>();
+            Phenotype<EnumGene<String>, Double> packedParent = null;
+            for (Phenotype<EnumGene<String>, Double> individual : first) {
+                if (!packed.contains(individual.genotype())) {
+                    estimates.add(individual);
+                } else if (packedParent == null) {
+                    packedParent = individual;
+                }
+            }
+            assertTrue(estimates.size() >= 3, mode.toString());
+
+            // Selection keeps three estimates, one of them twice, and a packed individual
+            List<Phenotype<EnumGene<String>, Double>> next = new ArrayList<>(offspring(problem, 4, 3).asList());
+            next.addAll(estimates.subList(0, 3));
+            next.add(estimates.get(0));
+            next.add(packedParent);
+            packed.clear();
+            ISeq<Phenotype<EnumGene<String>, Double>> second = evaluator.eval(ISeq.of(next));
+
+            assertEquals(4, screening.getReevaluated(), mode.toString());
+            for (int i = next.size() - 5; i < next.size() - 1; i++) {
+                Genotype<EnumGene<String>> genotype = next.get(i).genotype();
+                assertTrue(packed.contains(genotype), mode.toString());
+                assertSame(genotype, second.get(i).genotype());
+                assertEquals(problem.fitness(genotype), second.get(i).fitness(), mode.toString());
+            }
+            assertFalse(packed.contains(packedParent.genotype()), mode.toString());
+            assertSame(packedParent, second.get(next.size() - 1));
+        }
+    }
+
+    /**
+     * Full packing that records which genotypes it packed
+     */
+    private static Evaluator<EnumGene<String>, Double> packing(BinPackingProblem problem,
+            Set<Genotype<EnumGene<String>>> packed) {
+        return population -> population.map(individual -> {
+            packed.add(individual.genotype());
+            return individual.withFitness(problem.fitness(individual.genotype()));
+        }).asISeq();
+    }
+
+    /**
+     * Unevaluated random genotypes and two swap mutants of each
+     */
+    private static ISeq<Phenotype<EnumGene<String>, Double>> offspring(BinPackingProblem problem, int parents,
+            long seed) {
+        Random random = new Random(seed);
+        List<Phenotype<EnumGene<String>, Double>> offspring = new ArrayList<>();
+        for (Genotype<EnumGene<String>> parent : TestProblems.genotypes(problem, parents, seed)) {
+            offspring.add(Phenotype.of(parent, 1));
+            offspring.add(Phenotype.of(TestProblems.mutant(parent, random), 1));
+            offspring.add(Phenotype.of(TestProblems.mutant(parent, random), 1));
+        }
+        return ISeq.of(offspring);
+    }
+
+    private static Set<Genotype<EnumGene<String>>> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
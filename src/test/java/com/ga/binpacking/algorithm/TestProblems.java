@@ -0,0 +1,137 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ga.binpacking.model.Bin;
+import com.ga.binpacking.model.Item;
+import io.jenetics.Chromosome;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.RandomRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small packing instances that evaluate quickly in every placement mode
+ */
+final class TestProblems {
+
+    private static final int GENERATIONS = 6;
+
+    /**
+     * A fitness shortcut under test and a count of the times it was taken
+     */
+    static final class Shortcut {
+        final Function<Genotype<EnumGene<String>>, Double> fitness;
+        final LongSupplier taken;
+
+        Shortcut(Function<Genotype<EnumGene<String>>, Double> fitness, LongSupplier taken) {
+            this.fitness = fitness;
+            this.taken = taken;
+        }
+    }
+
+    private TestProblems() {
+    }
+
+    static List<Item> items() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("A", 10, 10, 10, 150, 150.0));
+        items.add(new Item("B", 20, 15, 12, 70, 70.0));
+        items.add(new Item("C", 5, 8, 6, 60, 60.0));
+        items.add(new Item("D", 10, 12, 10, 300, 300.0));
+        return items;
+    }
+
+    static Bin bin() {
+        return new Bin(40, 30, 35);
+    }
+
+    static BinPackingProblem problem(BinPackingProblem.PlacementMode mode) {
+        return new BinPackingProblem(items(), bin(), mode);
+    }
+
+    static ImprovedBinPackingProblem shapeProblem() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("A", Item.Shape.RECTANGLE, 10, 15, 150, 150.0));
+        items.add(new Item("B", Item.Shape.SQUARE, 12, 12, 70, 70.0));
+        items.add(new Item("C", Item.Shape.CIRCLE, 6, 0, 60, 60.0));
+        items.add(new Item("D", Item.Shape.TRIANGLE, 10, 10, 300, 300.0));
+        return new ImprovedBinPackingProblem(items, new Bin(60, 60));
+    }
+
+    /**
+     * Reproducible random genotypes of a problem
+     */
+    static List<Genotype<EnumGene<String>>> genotypes(BinPackingProblem problem, int count, long seed) {
+        return RandomRegistry.with(new Random(seed), r -> {
+            List<Genotype<EnumGene<String>>> genotypes = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                genotypes.add(problem.genotypeFactory().newInstance());
+            }
+            return genotypes;
+        });
+    }
+
+    /**
+     * Copy of a genotype with one to three random swaps, anywhere in the
+     * sequence
+     */
+    static Genotype<EnumGene<String>> mutant(Genotype<EnumGene<String>> parent, Random random) {
+        Chromosome<EnumGene<String>> chromosome = parent.chromosome();
+        MSeq<EnumGene<String>> genes = MSeq.of(chromosome);
+        int swaps = 1 + random.nextInt(3);
+        for (int k = 0; k < swaps; k++) {
+            genes.swap(random.nextInt(genes.length()), random.nextInt(genes.length()));
+        }
+        return Genotype.of(chromosome.newInstance(genes.toISeq()));
+    }
+
+    /**
+     * Random genotypes, two swap mutants of each and duplicates of the first
+     * two
+     */
+    static List<Genotype<EnumGene<String>>> population(BinPackingProblem problem, int parents, long seed) {
+        Random random = new Random(seed);
+        List<Genotype<EnumGene<String>>> genotypes = new ArrayList<>();
+        for (Genotype<EnumGene<String>> parent : genotypes(problem, parents, seed)) {
+            genotypes.add(parent);
+            genotypes.add(mutant(parent, random));
+            genotypes.add(mutant(parent, random));
+        }
+        genotypes.add(genotypes.get(0));
+        genotypes.add(genotypes.get(1));
+        return genotypes;
+    }
+
+    /**
+     * Assert that a shortcut gives exactly {@link BinPackingProblem#fitness}
+     * in every placement mode and is taken at least once
+     *
+     * Each mode evolves eight random genotypes for a few generations of
+     * swap mutants, so later genotypes share prefixes with earlier ones.
+     */
+    static void assertMatchesFitness(Function<BinPackingProblem, Shortcut> shortcuts, long seed) {
+        for (BinPackingProblem.PlacementMode mode : BinPackingProblem.PlacementMode.values()) {
+            BinPackingProblem problem = problem(mode);
+            Shortcut shortcut = shortcuts.apply(problem);
+
+            Random random = new Random(seed);
+            List<Genotype<EnumGene<String>>> population = genotypes(problem, 8, seed);
+            for (int generation = 0; generation < GENERATIONS; generation++) {
+                List<Genotype<EnumGene<String>>> offspring = new ArrayList<>();
+                for (Genotype<EnumGene<String>> genotype : population) {
+                    assertEquals(problem.fitness(genotype), shortcut.fitness.apply(genotype), mode.toString());
+                    offspring.add(mutant(genotype, random));
+                }
+                population = offspring;
+            }
+            assertTrue(shortcut.taken.getAsLong() > 0, mode.toString());
+        }
+    }
+}
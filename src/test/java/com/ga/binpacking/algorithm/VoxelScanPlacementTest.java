@@ -0,0 +1,118 @@
+package com.ga.binpacking.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ga.binpacking.model.Bin;
+import com.ga.binpacking.model.Item;
+import com.ga.binpacking.model.PackingSolution;
+import com.ga.binpacking.model.Position3D;
+import io.jenetics.Chromosome;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.util.RandomRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * VOXEL_SCAN packing compared with the original first-fit packer
+ */
+class VoxelScanPlacementTest {
+
+    private static final Bin BIN = new Bin(40, 30, 35);
+
+    @Test
+    void fractionalItemsPackLikeTheBaseline() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("A", 10.5, 10, 10.2, 12, 150.0));
+        items.add(new Item("B", 7.3, 15, 12, 10, 70.0));
+        items.add(new Item("C", 5.6, 8.4, 6, 20, 60.0));
+        items.add(new Item("D", 12.9, 12, 10.7, 8, 300.0));
+        BinPackingProblem problem = new BinPackingProblem(items, BIN, BinPackingProblem.PlacementMode.VOXEL_SCAN);
+
+        for (int seed = 0; seed < 50; seed++) {
+            Genotype<EnumGene<String>> genotype = RandomRegistry.with(new Random(seed),
+                    r -> problem.genotypeFactory().newInstance());
+
+            List<String> expected = baselinePlacements(genotype.chromosome(), items);
+            List<String> actual = new ArrayList<>();
+            for (PackingSolution.ItemPlacement placement : problem.convertToSolution(genotype).getPlacements()) {
+                actual.add(placement.getItemId() + "@" + placement.getPosition());
+            }
+            assertEquals(expected, actual, "placements of genotype " + seed);
+        }
+    }
+
+    /**
+     * Placements of the original packItems: a voxel scan from a hint that
+     * advances by the item's true width, rounded down
+     */
+    private static List<String> baselinePlacements(Chromosome<EnumGene<String>> chromosome, List<Item> items) {
+        Map<String, Item> itemMap = new HashMap<>();
+        for (Item item : items) {
+            itemMap.put(item.getId(), item);
+        }
+        boolean[][][] occupied = new boolean[(int) BIN.getWidth()][(int) BIN.getHeight()][(int) BIN.getDepth()];
+        int currentX = 0, currentY = 0, currentZ = 0;
+
+        List<String> placements = new ArrayList<>();
+        for (int i = 0; i < chromosome.length(); i++) {
+            Item item = itemMap.get(chromosome.get(i).allele());
+            Position3D position = scan(item, occupied, currentX, currentY, currentZ);
+            if (position == null) {
+                position = scan(item, occupied, 0, 0, 0);
+            }
+            if (position == null)
+                continue;
+
+            placements.add(item.getId() + "@" + position);
+            for (int x = position.getX(); x < position.getX() + item.getWidth(); x++) {
+                for (int y = position.getY(); y < position.getY() + item.getHeight(); y++) {
+                    for (int z = position.getZ(); z < position.getZ() + item.getDepth(); z++) {
+                        occupied[x][y][z] = true;
+                    }
+                }
+            }
+
+            currentX = (int) (position.getX() + item.getWidth());
+            if (currentX >= BIN.getWidth()) {
+                currentX = 0;
+                currentZ += 5;
+                if (currentZ >= BIN.getDepth()) {
+                    currentZ = 0;
+                    currentY += 5;
+                }
+            }
+        }
+        return placements;
+    }
+
+    private static Position3D scan(Item item, boolean[][][] occupied, int startX, int startY, int startZ) {
+        for (int y = startY; y <= BIN.getHeight() - item.getHeight(); y++) {
+            for (int z = (y == startY ? startZ : 0); z <= BIN.getDepth() - item.getDepth(); z++) {
+                for (int x = (y == startY && z == startZ ? startX : 0); x <= BIN.getWidth() - item.getWidth(); x++) {
+                    if (isFree(item, x, y, z, occupied)) {
+                        return new Position3D(x, y, z);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isFree(Item item, int x, int y, int z, boolean[][][] occupied) {
+        for (int i = x; i < x + item.getWidth(); i++) {
+            for (int j = y; j < y + item.getHeight(); j++) {
+                for (int k = z; k < z + item.getDepth(); k++) {
+                    if (occupied[i][j][k]) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+}
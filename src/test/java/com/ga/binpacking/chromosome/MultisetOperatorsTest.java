@@ -0,0 +1,85 @@
+package com.ga.binpacking.chromosome;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenetics.Alterer;
+import io.jenetics.AltererResult;
+import io.jenetics.Genotype;
+import io.jenetics.Mutator;
+import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.RandomRegistry;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MultisetOperatorsTest {
+
+    private static final int[] COUNTS = { 5, 1, 7, 0, 3, 12 };
+    private static final int GENERATIONS = 200;
+
+    @Test
+    void operatorsKeepTheCopiesOfEveryType() {
+        Alterer<TypeGene, Double> alterer = Alterer.of(
+                new MultisetOrderCrossover<Double>(0.7),
+                new MultisetSwapMutator<Double>(0.2));
+
+        RandomRegistry.with(new Random(21), r -> {
+            ISeq<Phenotype<TypeGene, Double>> population = ISeq.of(
+                    () -> Phenotype.of(Genotype.of(MultisetChromosome.of(COUNTS)), 0), 30);
+            int alterations = 0;
+            for (int generation = 1; generation <= GENERATIONS; generation++) {
+                AltererResult<TypeGene, Double> result = alterer.alter(population, generation);
+                alterations += result.alterations();
+                population = result.population().asISeq();
+                for (Phenotype<TypeGene, Double> phenotype : population) {
+                    assertArrayEquals(COUNTS, countTypes(phenotype.genotype()), "generation " + generation);
+                    assertTrue(phenotype.genotype().isValid());
+                }
+            }
+            assertTrue(alterations > 0);
+            return null;
+        });
+    }
+
+    @Test
+    void genericMutatorLeavesTheMultisetIntact() {
+        RandomRegistry.with(new Random(22), r -> {
+            ISeq<Phenotype<TypeGene, Double>> population = ISeq.of(
+                    () -> Phenotype.of(Genotype.of(MultisetChromosome.of(COUNTS)), 0), 10);
+            ISeq<Phenotype<TypeGene, Double>> mutated = new Mutator<TypeGene, Double>(1.0)
+                    .alter(population, 1).population().asISeq();
+            for (Phenotype<TypeGene, Double> phenotype : mutated) {
+                assertArrayEquals(COUNTS, countTypes(phenotype.genotype()));
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void newInstanceKeepsTheGene() {
+        TypeGene gene = TypeGene.of(2, 6);
+        assertSame(gene, gene.newInstance());
+    }
+
+    @Test
+    void genesOfAnotherMultisetAreRejected() {
+        MultisetChromosome chromosome = MultisetChromosome.of(COUNTS);
+        MSeq<TypeGene> genes = MSeq.of(chromosome);
+        genes.set(0, TypeGene.of(genes.get(0).type() == 1 ? 0 : 1, COUNTS.length));
+
+        assertThrows(IllegalArgumentException.class, () -> chromosome.newInstance(genes.toISeq()));
+        assertThrows(IllegalArgumentException.class, () -> chromosome.newInstance(genes.toISeq().subSeq(1)));
+    }
+
+    private static int[] countTypes(Genotype<TypeGene> genotype) {
+        int[] counts = new int[COUNTS.length];
+        for (TypeGene gene : genotype.chromosome()) {
+            counts[gene.type()]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ga.binpacking.distributed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.chromosome.TypeGene;
+import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Failure handling of a {@link FitnessFarm} whose worker processes die or
+ * stop answering
+ */
+class FitnessFarmTest {
+
+    @Test
+    void stalledWorkerIsRetiredAndItsBatchesAreStolen() throws Exception {
+        BinPackingProblem problem = LoopbackTest.problem();
+        ISeq<Phenotype<TypeGene, Double>> population = LoopbackTest.population(problem, 40, 5);
+
+        try (FitnessFarm farm = new FitnessFarm(problem, 2).withBatchSize(2).withTimeout(2_000).start()) {
+            assertMatchesLocalEvaluation(problem, population, farm.eval(population));
+
+            // Worker 1 keeps its connection but stops answering mid-generation
+            ProcessHandle stalled = worker(1);
+            signal(stalled, "STOP");
+            try {
+                assertMatchesLocalEvaluation(problem, population, farm.eval(population));
+            } finally {
+                stalled.destroyForcibly();
+            }
+
+            List<FitnessFarm.WorkerHealth> health = farm.health();
+            assertTrue(health.get(0).isAlive(), health.get(0).toString());
+            assertFalse(health.get(1).isAlive(), health.get(1).toString());
+            assertEquals(1, health.get(1).getFailures(), health.get(1).toString());
+            assertTrue(health.get(0).getStolenBatches() > 0, health.get(0).toString());
+        }
+    }
+
+    @Test
+    void killedWorkerIsRetired() throws Exception {
+        BinPackingProblem problem = LoopbackTest.problem();
+        ISeq<Phenotype<TypeGene, Double>> population = LoopbackTest.population(problem, 40, 6);
+
+        try (FitnessFarm farm = new FitnessFarm(problem, 2).withBatchSize(2).withTimeout(30_000).start()) {
+            assertMatchesLocalEvaluation(problem, population, farm.eval(population));
+            ProcessHandle killed = worker(0);
+            killed.destroyForcibly();
+            killed.onExit().join();
+
+            assertMatchesLocalEvaluation(problem, population, farm.eval(population));
+            List<FitnessFarm.WorkerHealth> health = farm.health();
+            assertFalse(health.get(0).isAlive(), health.get(0).toString());
+            assertEquals(1, health.get(0).getFailures(), health.get(0).toString());
+            assertTrue(health.get(1).isAlive(), health.get(1).toString());
+        }
+    }
+
+    @Test
+    void batchesAreEvaluatedLocallyWhenNoWorkerIsLeft() throws Exception {
+        BinPackingProblem problem = LoopbackTest.problem();
+        ISeq<Phenotype<TypeGene, Double>> population = LoopbackTest.population(problem, 20, 7);
+
+        try (FitnessFarm farm = new FitnessFarm(problem, 2).withBatchSize(3).withTimeout(30_000).start()) {
+            for (int id = 0; id < 2; id++) {
+                ProcessHandle killed = worker(id);
+                killed.destroyForcibly();
+                killed.onExit().join();
+            }
+
+            assertMatchesLocalEvaluation(problem, population, farm.eval(population));
+            for (FitnessFarm.WorkerHealth health : farm.health()) {
+                assertFalse(health.isAlive(), health.toString());
+                assertEquals(1, health.getFailures(), health.toString());
+            }
+        }
+    }
+
+    @Test
+    void nonPositiveSettingsAreRejected() {
+        FitnessFarm farm = new FitnessFarm(LoopbackTest.problem(), 1);
+        assertThrows(IllegalArgumentException.class, () -> farm.withTimeout(0));
+        assertThrows(IllegalArgumentException.class, () -> farm.withTimeout(-5));
+        assertThrows(IllegalArgumentException.class, () -> farm.withBatchSize(0));
+    }
+
+    private static void assertMatchesLocalEvaluation(BinPackingProblem problem,
+            ISeq<Phenotype<TypeGene, Double>> population, ISeq<Phenotype<TypeGene, Double>> evaluated) {
+        assertEquals(population.size(), evaluated.size());
+        for (int i = 0; i < population.size(); i++) {
+            assertEquals(problem.compactFitness(population.get(i).genotype()), evaluated.get(i).fitness());
+        }
+    }
+
+    /**
+     * The process of the fitness worker with the given id, a child of this JVM
+     */
+    private static ProcessHandle worker(int id) {
+        return ProcessHandle.current().children()
+                .filter(process -> process.info().arguments()
+                        .map(args -> Arrays.asList(args).contains(FitnessWorker.class.getName())
+                                && args[args.length - 1].equals(Integer.toString(id)))
+                        .orElse(false))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No process for fitness worker " + id));
+    }
+
+    private static void signal(ProcessHandle process, String signal) throws IOException, InterruptedException {
+        Process kill = new ProcessBuilder("kill", "-" + signal, Long.toString(process.pid())).start();
+        assertEquals(0, kill.waitFor());
+    }
+}
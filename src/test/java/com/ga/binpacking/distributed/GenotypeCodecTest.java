@@ -0,0 +1,94 @@
+package com.ga.binpacking.distributed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.chromosome.TypeGene;
+import com.ga.binpacking.model.Bin;
+import com.ga.binpacking.model.Item;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.util.RandomRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class GenotypeCodecTest {
+
+    @Test
+    void multisetGenotypesRoundTrip() throws Exception {
+        assertMultisetRoundTrip(problem(4));
+    }
+
+    @Test
+    void multisetGenotypesWithWideTypesRoundTrip() throws Exception {
+        // More than 256 item types take two bytes per gene
+        assertMultisetRoundTrip(problem(300));
+    }
+
+    @Test
+    void permutationGenotypesRoundTripThroughTheCompactEncoding() throws Exception {
+        BinPackingProblem problem = problem(4);
+        GenotypeCodec codec = new GenotypeCodec(problem);
+
+        List<Genotype<EnumGene<String>>> genotypes = RandomRegistry.with(new Random(2), r -> {
+            List<Genotype<EnumGene<String>>> list = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                list.add(problem.genotypeFactory().newInstance());
+            }
+            return list;
+        });
+        List<Genotype<TypeGene>> compact = genotypes.stream().map(problem::compact).collect(Collectors.toList());
+
+        List<Genotype<TypeGene>> decoded = codec.decodeGenotypes(codec.encodeGenotypes(compact));
+        for (int i = 0; i < genotypes.size(); i++) {
+            Genotype<EnumGene<String>> expanded = problem.expand(decoded.get(i));
+            // Copies of one item type are interchangeable, so compare item ids
+            assertEquals(itemIds(genotypes.get(i)), itemIds(expanded));
+            assertEquals(problem.fitness(genotypes.get(i)), problem.fitness(expanded));
+        }
+    }
+
+    private static void assertMultisetRoundTrip(BinPackingProblem problem) throws Exception {
+        GenotypeCodec codec = new GenotypeCodec(problem);
+        List<Genotype<TypeGene>> genotypes = RandomRegistry.with(new Random(1), r -> {
+            List<Genotype<TypeGene>> list = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                list.add(problem.compactGenotypeFactory().newInstance());
+            }
+            return list;
+        });
+
+        assertEquals(genotypes, codec.decodeGenotypes(codec.encodeGenotypes(genotypes)));
+
+        List<Phenotype<TypeGene, Double>> phenotypes = new ArrayList<>();
+        for (int i = 0; i < genotypes.size(); i++) {
+            phenotypes.add(Phenotype.of(genotypes.get(i), i, problem.compactFitness(genotypes.get(i))));
+        }
+        List<Phenotype<TypeGene, Double>> decoded = codec.decode(codec.encode(phenotypes));
+        assertEquals(phenotypes.size(), decoded.size());
+        for (int i = 0; i < phenotypes.size(); i++) {
+            assertEquals(phenotypes.get(i).genotype(), decoded.get(i).genotype());
+            assertEquals(phenotypes.get(i).generation(), decoded.get(i).generation());
+            assertEquals(phenotypes.get(i).fitness(), decoded.get(i).fitness());
+        }
+    }
+
+    private static List<String> itemIds(Genotype<EnumGene<String>> genotype) {
+        return genotype.chromosome().stream().map(EnumGene::allele).collect(Collectors.toList());
+    }
+
+    /**
+     * Problem with {@code types} item types of two units each
+     */
+    private static BinPackingProblem problem(int types) {
+        List<Item> items = new ArrayList<>();
+        for (int type = 0; type < types; type++) {
+            items.add(new Item("T" + type, 5 + type % 7, 4 + type % 5, 6 + type % 3, 2, 10.0 + type));
+        }
+        return new BinPackingProblem(items, new Bin(40, 30, 35), BinPackingProblem.PlacementMode.EXTREME_POINT);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ga.binpacking.distributed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ga.binpacking.algorithm.BinPackingProblem;
+import com.ga.binpacking.algorithm.GeneticBinPacker;
+import com.ga.binpacking.algorithm.MigrationTopology;
+import com.ga.binpacking.chromosome.TypeGene;
+import com.ga.binpacking.model.Bin;
+import com.ga.binpacking.model.Item;
+import io.jenetics.EnumGene;
+import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Worker processes on this machine, reached over loopback TCP
+ */
+class LoopbackTest {
+
+    private static final int WORKERS = 2;
+
+    @Test
+    void fitnessFarmMatchesLocalEvaluation() throws Exception {
+        BinPackingProblem problem = problem();
+        ISeq<Phenotype<TypeGene, Double>> population = population(problem, 30, 4);
+
+        try (FitnessFarm farm = new FitnessFarm(problem, WORKERS).withBatchSize(2).withTimeout(30_000).start()) {
+            for (int round = 0; round < 2; round++) {
+                ISeq<Phenotype<TypeGene, Double>> evaluated = farm.eval(population);
+                assertEquals(population.size(), evaluated.size());
+                for (int i = 0; i < population.size(); i++) {
+                    assertEquals(population.get(i).genotype(), evaluated.get(i).genotype());
+                    assertEquals(problem.compactFitness(population.get(i).genotype()), evaluated.get(i).fitness());
+                }
+            }
+
+            int evaluations = 0;
+            for (FitnessFarm.WorkerHealth health : farm.health()) {
+                assertTrue(health.isAlive(), health.toString());
+                assertEquals(0, health.getFailures(), health.toString());
+                evaluations += health.getEvaluations();
+            }
+            assertEquals(2 * population.size(), evaluations);
+        }
+    }
+
+    @Test
+    void islandWorkersReturnALocallyReproducibleBest() throws Exception {
+        BinPackingProblem problem = problem();
+        GeneticBinPacker.OptimizationResult result = new IslandCoordinator(problem, 20, 6, 0.15, 0.7)
+                .withWorkers(WORKERS, 2, 2, MigrationTopology.RING)
+                .withConnectTimeout(30_000)
+                .optimize();
+
+        Phenotype<EnumGene<String>, Double> best = result.getBestPhenotype();
+        assertEquals(problem.fitness(best.genotype()), best.fitness());
+    }
+
+    /**
+     * Unevaluated random compact individuals
+     */
+    static ISeq<Phenotype<TypeGene, Double>> population(BinPackingProblem problem, int size, long seed) {
+        return RandomRegistry.with(new Random(seed), r -> {
+            List<Phenotype<TypeGene, Double>> list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                list.add(Phenotype.of(problem.compactGenotypeFactory().newInstance(), 1));
+            }
+            return ISeq.of(list);
+        });
+    }
+
+    static BinPackingProblem problem() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("A", 10, 10, 10, 20, 150.0));
+        items.add(new Item("B", 20, 15, 12, 10, 70.0));
+        items.add(new Item("C", 5, 8, 6, 20, 60.0));
+        items.add(new Item("D", 10, 12, 10, 20, 300.0));
+        return new BinPackingProblem(items, new Bin(40, 30, 35), BinPackingProblem.PlacementMode.EXTREME_POINT);
+    }
+}